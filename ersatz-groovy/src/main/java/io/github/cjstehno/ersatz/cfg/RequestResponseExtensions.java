@@ -60,6 +60,21 @@ public class RequestResponseExtensions {
         return self.chunked(ConsumerWithDelegate.create(closure));
     }
 
+    /**
+     * Allows for configuration of a bandwidth-throttled response using a Groovy <code>Closure</code>, which will delegate to a
+     * <code>ThrottleConfig</code> instance passed into it for configuration using the Groovy DSL.
+     *
+     * @param self    the type of object being extended
+     * @param closure the <code>Closure</code> to provide configuration
+     * @return a reference to the configured response
+     */
+    public static Response throttled(
+        final Response self,
+        @DelegatesTo(value = ThrottleConfig.class, strategy = DELEGATE_FIRST) final Closure closure
+    ) {
+        return self.throttled(ConsumerWithDelegate.create(closure));
+    }
+
     /**
      * Allows configuration of a request expectation matching any request method using the Groovy DSL.
      *
@@ -56,4 +56,19 @@ public class ServerConfigExtensions {
     ) {
         return self.requirements(ConsumerWithDelegate.create(closure));
     }
+
+    /**
+     * Used to configure the recording (or the replay) of forwarded requests using the provided Groovy Closure, which will delegate to a
+     * <code>RecordingConfig</code> instance.
+     *
+     * @param self    the type of object being extended.
+     * @param closure the Groovy Closure which will provide the configuration
+     * @return a reference to the server config
+     */
+    public static ServerConfig forwardRecording(
+        final ServerConfig self,
+        @DelegatesTo(value = RecordingConfig.class, strategy = DELEGATE_FIRST) final Closure closure
+    ) {
+        return self.forwardRecording(ConsumerWithDelegate.create(closure));
+    }
 }
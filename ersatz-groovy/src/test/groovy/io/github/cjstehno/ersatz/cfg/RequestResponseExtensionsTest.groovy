@@ -71,6 +71,26 @@ class RequestResponseExtensionsTest {
         assertTrue server.verify()
     }
 
+    @Test
+    void throttledExtension() {
+        server.expectations {
+            GET('/slow') {
+                called 1
+                responder {
+                    body TEXT_RESPONSE, TEXT_PLAIN
+                    throttled {
+                        bytesPerSecond 100
+                        timeToFirstByte 10
+                    }
+                }
+            }
+        }
+
+        def response = http.get('/slow')
+        assertEquals TEXT_RESPONSE, response.body()
+        assertTrue server.verify()
+    }
+
     @Test
     void getExtension() {
         server.expectations {
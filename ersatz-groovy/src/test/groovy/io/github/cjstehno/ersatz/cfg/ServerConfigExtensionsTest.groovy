@@ -16,8 +16,12 @@
 package io.github.cjstehno.ersatz.cfg
 
 import io.github.cjstehno.ersatz.GroovyErsatzServer
+import io.github.cjstehno.ersatz.impl.ServerConfigImpl
 import io.github.cjstehno.ersatz.test.Http
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+
+import java.nio.file.Path
 
 import static io.github.cjstehno.ersatz.cfg.ContentType.TEXT_PLAIN
 import static org.junit.jupiter.api.Assertions.assertEquals
@@ -46,4 +50,15 @@ class ServerConfigExtensionsTest {
 
         server.close()
     }
-}
\ No newline at end of file
+
+    @Test void forwardRecordingExtension(@TempDir final Path dir) {
+        def config = new ServerConfigImpl()
+        config.forwardRecording {
+            file dir.resolve('forwarded.rec')
+            mode RecordingConfig.Mode.RECORD
+        }
+
+        assertEquals dir.resolve('forwarded.rec'), config.recordingConfig.file
+        assertEquals RecordingConfig.Mode.RECORD, config.recordingConfig.mode
+    }
+}
@@ -19,11 +19,14 @@ import io.github.cjstehno.ersatz.cfg.Expectations;
 import io.github.cjstehno.ersatz.cfg.ServerConfig;
 import io.github.cjstehno.ersatz.cfg.WaitFor;
 import io.github.cjstehno.ersatz.impl.ServerConfigImpl;
+import io.github.cjstehno.ersatz.impl.UnmatchedRequestReport;
+import io.github.cjstehno.ersatz.server.ClientRequest;
 import io.github.cjstehno.ersatz.server.UnderlyingServer;
 import io.github.cjstehno.ersatz.server.undertow.UndertowUnderlyingServer;
 import lombok.Getter;
 
 import java.io.Closeable;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -275,12 +278,42 @@ public class ErsatzServer implements Closeable {
     }
 
     /**
-     * Clears all configured expectations from the server. Does not affect global encoders or decoders.
+     * Clears all configured expectations from the server, along with the retained unmatched requests. Does not affect global encoders or
+     * decoders.
      */
     public void clearExpectations() {
         serverConfig.clearExpectations();
     }
 
+    /**
+     * Retrieves the most recent requests which were not matched by any expectation (or which failed the configured requirements), oldest first.
+     * The number of retained requests may be configured using the <code>unmatchedHistory(int)</code> server configuration method.
+     *
+     * @return an immutable list of the most recent unmatched requests
+     */
+    public List<ClientRequest> getUnmatchedRequests() {
+        return serverConfig.getUnmatchedRequests().getReports().stream().map(UnmatchedRequestReport::getRequest).toList();
+    }
+
+    /**
+     * Retrieves the number of forwarded requests served from the forwarded response cache (see the <code>forwardCache(...)</code> server
+     * configuration methods), including those revalidated with the forward target.
+     *
+     * @return the number of forward cache hits
+     */
+    public long getForwardCacheHits() {
+        return serverConfig.getForwardCache().getHits();
+    }
+
+    /**
+     * Retrieves the number of cacheable forwarded requests which were not served from the forwarded response cache.
+     *
+     * @return the number of forward cache misses
+     */
+    public long getForwardCacheMisses() {
+        return serverConfig.getForwardCache().getMisses();
+    }
+
     /**
      * Used to stop the HTTP server. The server may be restarted after it has been stopped.
      */
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.cfg;
+
+import lombok.val;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * A distribution of response delay times (latency), in milliseconds, used to configure a response delay which varies from one request to the
+ * next (see <code>Response::delay(Latency)</code>). The server samples the distribution with a per-thread random number generator.
+ */
+@FunctionalInterface
+public interface Latency {
+
+    /**
+     * Samples a delay time from the distribution.
+     *
+     * @param random the random number generator to be used
+     * @return the sampled delay time in milliseconds (zero or more)
+     */
+    long sample(Random random);
+
+    /**
+     * Creates a fixed latency, always the same delay time.
+     *
+     * @param delay the delay time in milliseconds
+     * @return the latency distribution
+     */
+    static Latency fixed(final long delay) {
+        return random -> delay;
+    }
+
+    /**
+     * Creates a uniformly distributed latency, with delay times between the minimum and maximum (inclusive).
+     *
+     * @param min the minimum delay time in milliseconds
+     * @param max the maximum delay time in milliseconds
+     * @return the latency distribution
+     */
+    static Latency uniform(final long min, final long max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("The uniform latency requires 0 <= min <= max.");
+        }
+        return random -> min + (long) (random.nextDouble() * (max - min + 1));
+    }
+
+    /**
+     * Creates a normally distributed latency, with the specified mean and standard deviation. Negative samples are treated as zero.
+     *
+     * @param mean   the mean delay time in milliseconds
+     * @param stdDev the standard deviation in milliseconds
+     * @return the latency distribution
+     */
+    static Latency normal(final double mean, final double stdDev) {
+        if (stdDev < 0) {
+            throw new IllegalArgumentException("The standard deviation must not be negative.");
+        }
+        return random -> Math.max(0, Math.round(mean + random.nextGaussian() * stdDev));
+    }
+
+    /**
+     * Creates a log-normally distributed latency - the typical shape of service response times, with a long tail. The distribution is specified
+     * by its median delay time and the standard deviation of the (natural) logarithm of the delay times.
+     *
+     * @param median the median delay time in milliseconds
+     * @param sigma  the standard deviation of the logarithm of the delay times (larger values give a longer tail)
+     * @return the latency distribution
+     */
+    static Latency logNormal(final double median, final double sigma) {
+        if (median <= 0 || sigma < 0) {
+            throw new IllegalArgumentException("The log-normal latency requires a positive median and a non-negative sigma.");
+        }
+        val mu = Math.log(median);
+        return random -> Math.round(Math.exp(mu + random.nextGaussian() * sigma));
+    }
+
+    /**
+     * Creates a latency distribution from the p50, p90, p99 and p999 percentiles of an observed (empirical) latency - see
+     * <code>empirical(Map)</code>.
+     *
+     * @param p50  the 50th percentile (median) delay time in milliseconds
+     * @param p90  the 90th percentile delay time in milliseconds
+     * @param p99  the 99th percentile delay time in milliseconds
+     * @param p999 the 99.9th percentile delay time in milliseconds
+     * @return the latency distribution
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    static Latency percentiles(final long p50, final long p90, final long p99, final long p999) {
+        return empirical(Map.of(0.5, p50, 0.9, p90, 0.99, p99, 0.999, p999));
+    }
+
+    /**
+     * Creates a latency distribution from a table of percentiles (as fractions, between 0 and 1) of an observed latency, mapped to their delay
+     * times. The delay times between the configured percentiles are linearly interpolated - a delay time below the lowest percentile is
+     * interpolated from zero, and a delay time above the highest percentile is its delay time.
+     *
+     * @param table the percentile table, mapping each percentile (fraction) to its delay time in milliseconds
+     * @return the latency distribution
+     */
+    static Latency empirical(final Map<Double, Long> table) {
+        if (table.isEmpty() || table.keySet().stream().anyMatch(p -> p <= 0 || p > 1)) {
+            throw new IllegalArgumentException("The percentile table must contain percentiles between 0 (exclusive) and 1 (inclusive).");
+        }
+
+        val sorted = new TreeMap<>(table);
+        sorted.put(0.0, 0L);
+
+        return random -> {
+            val quantile = random.nextDouble();
+
+            val upper = sorted.ceilingEntry(quantile);
+            if (upper == null) {
+                return sorted.lastEntry().getValue();
+            }
+
+            val lower = sorted.floorEntry(quantile);
+            if (lower.getKey().equals(upper.getKey())) {
+                return upper.getValue();
+            }
+
+            val fraction = (quantile - lower.getKey()) / (upper.getKey() - lower.getKey());
+            return Math.round(lower.getValue() + fraction * (upper.getValue() - lower.getValue()));
+        };
+    }
+}
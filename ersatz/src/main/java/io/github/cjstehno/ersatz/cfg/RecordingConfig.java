@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.cfg;
+
+import io.github.cjstehno.ersatz.server.ClientRequest;
+
+import java.nio.file.Path;
+import java.util.function.Function;
+
+/**
+ * Configuration for the recording and replay of forwarded requests (see <code>Request::forward(...)</code>). In the <code>RECORD</code> mode,
+ * the responses of the forwarded requests are recorded into the configured file, keyed by the request fingerprint. In the <code>REPLAY</code>
+ * mode, the recorded responses are served by the server itself, rather than forwarding the requests.
+ */
+public interface RecordingConfig {
+
+    /**
+     * The recording modes.
+     */
+    enum Mode {
+        /**
+         * The requests are forwarded, and their responses are recorded.
+         */
+        RECORD,
+
+        /**
+         * The recorded responses are served, the requests are not forwarded.
+         */
+        REPLAY
+    }
+
+    /**
+     * Used to specify the file containing the recorded responses. The file is created if it does not exist, and new recordings are appended to
+     * it.
+     *
+     * @param file the recording file
+     * @return a reference to the config
+     */
+    RecordingConfig file(Path file);
+
+    /**
+     * Used to specify the recording mode (defaults to <code>REPLAY</code>).
+     *
+     * @param mode the recording mode
+     * @return a reference to the config
+     */
+    RecordingConfig mode(Mode mode);
+
+    /**
+     * Used to specify the function used to compute the fingerprint of a request, which is the key of its recorded response. By default, the
+     * fingerprint consists of the request method, path, (sorted) query parameters, and a digest of the body content.
+     * <p>
+     * When recording, the digest of the default fingerprint is computed as the request content is streamed to the forward target. A configured
+     * fingerprint function is applied before the request is forwarded, so the request content will be read into memory if the function uses it.
+     *
+     * @param fingerprint the request fingerprint function
+     * @return a reference to the config
+     */
+    RecordingConfig fingerprint(Function<ClientRequest, String> fingerprint);
+
+    /**
+     * Used to specify the maximum size (in bytes) of a recorded response body - the content of the forwarded responses is held in memory while
+     * it is being recorded, so a response with larger content is forwarded, but not recorded. Defaults to 16 MB.
+     *
+     * @param bytes the maximum recorded body size, in bytes
+     * @return a reference to the config
+     */
+    RecordingConfig maxBodySize(int bytes);
+}
@@ -29,6 +29,8 @@ import java.net.URL;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import static io.github.cjstehno.ersatz.match.ErsatzMatchers.stringIterableMatcher;
@@ -218,7 +220,9 @@ public interface Request {
     Request cookie(RequestCookieMatcher cookieMatcher);
 
     /**
-     * Specifies a listener which will be called with the active request whenever this request is matched at test-time.
+     * Specifies a listener which will be called with the active request whenever this request is matched at test-time. The listener is
+     * called once the response has been handed off to be sent - for a delayed response, this is before the delay has passed and the response
+     * is written.
      *
      * @param listener the request call listener
      * @return a reference to this request
@@ -226,7 +230,9 @@ public interface Request {
     Request listener(Consumer<ClientRequest> listener);
 
     /**
-     * Allows the specification of a custom call verifier so that the number of times the request is called may be matched.
+     * Allows the specification of a custom call verifier so that the number of times the request is called may be matched. A call is counted
+     * once its response has been handed off to be sent - for a delayed response, this is before the delay has passed and the response is
+     * written.
      *
      * @param callVerifier the verifier to be used
      * @return a reference to this request
@@ -279,6 +285,49 @@ public interface Request {
      */
     Request responder(Consumer<Response> responder);
 
+    /**
+     * Allows for the configuration of a <code>Response</code> generated for each incoming request. The given generator will be called at request
+     * time with the <code>ClientRequest</code> and a new <code>Response</code> object to be configured - the response may be built from the path
+     * variables, query parameters, or body content of the request, so that a single expectation may serve many different resources.
+     * <p>
+     * The dynamic response takes its place in the sequence of configured responses, like any other.
+     *
+     * @param generator the <code>BiConsumer&lt;ClientRequest,Response&gt;</code> used to configure the response for each request
+     * @return a reference to this request
+     */
+    default Request dynamicResponder(final BiConsumer<ClientRequest, Response> generator) {
+        return dynamicResponder(0, generator);
+    }
+
+    /**
+     * Allows for the configuration of a <code>Response</code> generated for each incoming request (see
+     * {@link #dynamicResponder(BiConsumer)}), with a cache of the generated responses. The generated responses (and their encoded content) are
+     * cached by the request method, scheme, path, query parameters, and body content, so that the generator is only called once for each
+     * distinct request. The request headers and cookies are not part of the cache key, see
+     * {@link #dynamicResponder(int, Set, BiConsumer)} for a response which depends on them. When the cache reaches its size limit an
+     * (approximately) least-recently-used response is evicted. A cache size of zero disables the cache.
+     *
+     * @param cacheSize the maximum number of cached responses
+     * @param generator the <code>BiConsumer&lt;ClientRequest,Response&gt;</code> used to configure the response for each request
+     * @return a reference to this request
+     */
+    default Request dynamicResponder(final int cacheSize, final BiConsumer<ClientRequest, Response> generator) {
+        return dynamicResponder(cacheSize, Set.of(), generator);
+    }
+
+    /**
+     * Allows for the configuration of a <code>Response</code> generated for each incoming request, with a cache of the generated responses (see
+     * {@link #dynamicResponder(int, BiConsumer)}) whose key also includes the values of the given request headers - the cookies are part of the
+     * key when the <code>Cookie</code> header is one of the key headers. A generated response which reads any other request header (or the
+     * cookies) is not cached, since it would be served to requests with different values - it is sent once, and a warning is logged.
+     *
+     * @param cacheSize  the maximum number of cached responses
+     * @param keyHeaders the (case-insensitive) names of the request headers which are part of the cache key
+     * @param generator  the <code>BiConsumer&lt;ClientRequest,Response&gt;</code> used to configure the response for each request
+     * @return a reference to this request
+     */
+    Request dynamicResponder(int cacheSize, Set<String> keyHeaders, BiConsumer<ClientRequest, Response> generator);
+
     /**
      * Causes the response to be generated from the result of making the request against another target server. The
      * request will be matched by normal means, and the response will be the resulting response from the target server,
@@ -17,10 +17,13 @@ package io.github.cjstehno.ersatz.cfg;
 
 import io.github.cjstehno.ersatz.encdec.Cookie;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
+import io.github.cjstehno.ersatz.encdec.StreamingContent;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -71,6 +74,74 @@ public interface Response {
         return body(content, contentType.getValue());
     }
 
+    /**
+     * Defines a file as the response content to be sent back to the client. Unlike a <code>Path</code> or <code>File</code> body, the file is not
+     * loaded into memory - its content is streamed from the file system each time the response is sent. Single byte-range (<code>Range</code>
+     * header) requests for the file are supported. A file response is never chunked.
+     *
+     * @param file the path of the file
+     * @return this response
+     */
+    Response file(Path file);
+
+    /**
+     * Defines a file as the response content to be sent back to the client, along with its content-type. See <code>file(Path)</code>.
+     *
+     * @param file        the path of the file
+     * @param contentType the content type
+     * @return this response
+     */
+    default Response file(final Path file, final String contentType) {
+        file(file);
+        return contentType(contentType);
+    }
+
+    /**
+     * Defines a file as the response content to be sent back to the client, along with its content-type. See <code>file(Path)</code>.
+     *
+     * @param file        the path of the file
+     * @param contentType the content type
+     * @return this response
+     */
+    default Response file(final Path file, final ContentType contentType) {
+        return file(file, contentType.getValue());
+    }
+
+    /**
+     * Defines streaming content as the response content to be sent back to the client. The content is written to the client as it is produced
+     * (see <code>StreamingContent</code>), so it is never held in memory as a whole. A streaming response is never chunked by configuration,
+     * though it will be sent with chunked transfer-encoding since its length is not known.
+     *
+     * @param content the streaming content
+     * @return this response
+     */
+    Response stream(StreamingContent content);
+
+    /**
+     * Defines streaming content as the response content to be sent back to the client, along with its content-type. See
+     * <code>stream(StreamingContent)</code>.
+     *
+     * @param content     the streaming content
+     * @param contentType the content type
+     * @return this response
+     */
+    default Response stream(final StreamingContent content, final String contentType) {
+        stream(content);
+        return contentType(contentType);
+    }
+
+    /**
+     * Defines streaming content as the response content to be sent back to the client, along with its content-type. See
+     * <code>stream(StreamingContent)</code>.
+     *
+     * @param content     the streaming content
+     * @param contentType the content type
+     * @return this response
+     */
+    default Response stream(final StreamingContent content, final ContentType contentType) {
+        return stream(content, contentType.getValue());
+    }
+
     /**
      * Used to add a header to the response with the given name and value.
      *
@@ -170,6 +241,8 @@ public interface Response {
 
     /**
      * Used to specify a delay in the response time for the request. The response will not be returned to the client until the delay has passed.
+     * The delay is scheduled on a server timer, so no server thread is held while a delayed response is waiting. The request call is counted
+     * (and its listeners are called) when the delay is scheduled, not when the delayed response is written.
      *
      * @param time the response delay in milliseconds
      * @return this response
@@ -197,6 +270,16 @@ public interface Response {
         return delay(Duration.parse(time).toMillis());
     }
 
+    /**
+     * Used to specify a delay in the response time for the request, drawn from the provided latency distribution for each request - this
+     * allows the production latency (including its tail) of a service to be reproduced. The delay is scheduled on a server timer, so no server
+     * thread is held while a delayed response is waiting. See <code>getAppliedDelays()</code> for the delays actually applied.
+     *
+     * @param latency the latency distribution of the response delay
+     * @return this response
+     */
+    Response delay(Latency latency);
+
     /**
      * Used to retrieve the response delay time.
      *
@@ -204,6 +287,13 @@ public interface Response {
      */
     long getDelay();
 
+    /**
+     * Used to retrieve the statistics (count, min, max, average and total) of the delays actually applied to this response when it was sent.
+     *
+     * @return a snapshot of the applied delay statistics, in milliseconds
+     */
+    LongSummaryStatistics getAppliedDelays();
+
     /**
      * Configures the response as "chunked", with the specified chunking configuration.
      *
@@ -212,6 +302,16 @@ public interface Response {
      */
     Response chunked(Consumer<ChunkingConfig> config);
 
+    /**
+     * Configures the response as bandwidth-throttled, with the specified throttling configuration - the response content is written at the
+     * configured rate, to simulate a slow network link. No server thread is held while the response is being paced. Throttling takes precedence
+     * over chunking, and is only applied to in-memory content (not file or streaming content).
+     *
+     * @param config the throttling configuration
+     * @return this response
+     */
+    Response throttled(Consumer<ThrottleConfig> config);
+
     /**
      * Used to retrieve the configured response headers.
      *
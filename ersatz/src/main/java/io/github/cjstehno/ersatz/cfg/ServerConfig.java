@@ -246,6 +246,133 @@ public interface ServerConfig {
         return serverThreads(io, io * 8);
     }
 
+    /**
+     * Configures the number of the most recent unmatched requests retained by the server (10 by default), which may be retrieved using
+     * <code>ErsatzServer::getUnmatchedRequests()</code>. The retained requests are discarded when the expectations are cleared.
+     *
+     * @param size the number of unmatched requests to be retained (must be at least 1)
+     * @return a reference to this server configuration
+     */
+    ServerConfig unmatchedHistory(int size);
+
+    /**
+     * Enables the match-result cache, which caches the expectation matched by a request (or the lack of one) keyed by a fingerprint of the
+     * request: its method, scheme, path, query parameters, and the values of only those headers and cookies inspected by the configured matchers.
+     * Repeated requests with the same fingerprint skip the matcher evaluation. The cache is discarded whenever the expectations change, and
+     * expectations with body content or custom <code>matcher(...)</code> predicates are always evaluated, never cached.
+     * <p>
+     * The cache is disabled by default, and should only be enabled when the configured matchers are deterministic.
+     *
+     * @param size the maximum number of cached results (a value of zero disables the cache)
+     * @return a reference to this server configuration
+     */
+    ServerConfig matchCache(int size);
+
+    /**
+     * Enables the match-result cache with a capacity of 1000 results. See {@link #matchCache(int)}.
+     *
+     * @return a reference to this server configuration
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    default ServerConfig matchCache() {
+        return matchCache(1_000);
+    }
+
+    /**
+     * Configures the size of the connection pool used by forwarded requests (see <code>Request::forward(...)</code>) - the maximum number of idle
+     * upstream connections kept alive for reuse (5 by default). The forwarded requests to each target share the pooled connections.
+     *
+     * @param size the maximum number of idle pooled connections
+     * @return a reference to this server configuration
+     */
+    ServerConfig forwardConnections(int size);
+
+    /**
+     * Configures the maximum number of concurrent forwarded requests (see <code>Request::forward(...)</code>), in total and for each forward
+     * target (256 by default). Forwarded requests beyond the limit are queued until a request completes.
+     * <p>
+     * A forwarded response is written to the client from the thread of its request slot, so a slow client holds the slot until its response
+     * has been written - a higher limit allows more slow clients to be served at once, at the cost of more (mostly idle) threads.
+     *
+     * @param maxRequests the maximum number of concurrent forwarded requests (at least 1)
+     * @return a reference to this server configuration
+     */
+    ServerConfig forwardConcurrency(int maxRequests);
+
+    /**
+     * Configures the timeout applied to forwarded requests (see <code>Request::forward(...)</code>) - the connection, read and write timeouts
+     * of the requests made against the forward target (10 seconds by default). A forwarded request which times out will respond with a
+     * Gateway Timeout (504) status.
+     *
+     * @param value the timeout value
+     * @param units the units the timeout is specified with
+     * @return a reference to this server configuration
+     */
+    ServerConfig forwardTimeout(int value, TimeUnit units);
+
+    /**
+     * Configures the timeout applied to forwarded requests, in seconds. See {@link #forwardTimeout(int, TimeUnit)}.
+     *
+     * @param value the timeout value
+     * @return a reference to this server configuration
+     */
+    default ServerConfig forwardTimeout(final int value) {
+        return forwardTimeout(value, SECONDS);
+    }
+
+    /**
+     * Configures the recording (or the replay of the recorded responses) of forwarded requests, see {@link RecordingConfig}. A recording file
+     * must be configured.
+     *
+     * @param config the recording configuration consumer
+     * @return a reference to this server configuration
+     */
+    ServerConfig forwardRecording(Consumer<RecordingConfig> config);
+
+    /**
+     * Configures an in-memory cache of the responses of forwarded requests (see <code>Request::forward(...)</code>), which serves repeated
+     * <code>GET</code> requests without forwarding them. The cache holds at most the given number of responses, evicting the least-recently-used
+     * response when it is full (a size of zero, the default, disables the cache).
+     * <p>
+     * A cached response is fresh for the <code>max-age</code> of its <code>Cache-Control</code> header, or for the given time-to-live if it has
+     * none. Responses marked <code>no-store</code> or <code>private</code>, and responses with content larger than the given maximum content size,
+     * are not cached. A stale response is revalidated with the forward target using its <code>ETag</code> or <code>Last-Modified</code> header.
+     * The cache hit and miss counts are available from the server.
+     *
+     * @param size           the maximum number of cached responses
+     * @param ttl            the time-to-live of a cached response without its own freshness lifetime
+     * @param units          the units the time-to-live is specified with
+     * @param maxContentSize the maximum size (in bytes) of the content of a cached response
+     * @return a reference to this server configuration
+     */
+    ServerConfig forwardCache(int size, int ttl, TimeUnit units, int maxContentSize);
+
+    /**
+     * Configures an in-memory cache of the responses of forwarded requests, caching responses with up to 1 MB of content. See
+     * {@link #forwardCache(int, int, TimeUnit, int)}.
+     *
+     * @param size  the maximum number of cached responses
+     * @param ttl   the time-to-live of a cached response without its own freshness lifetime
+     * @param units the units the time-to-live is specified with
+     * @return a reference to this server configuration
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    default ServerConfig forwardCache(final int size, final int ttl, final TimeUnit units) {
+        return forwardCache(size, ttl, units, 1024 * 1024);
+    }
+
+    /**
+     * Configures an in-memory cache of the responses of forwarded requests, with a time-to-live of 60 seconds. See
+     * {@link #forwardCache(int, int, TimeUnit)}.
+     *
+     * @param size the maximum number of cached responses
+     * @return a reference to this server configuration
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    default ServerConfig forwardCache(final int size) {
+        return forwardCache(size, 60, SECONDS);
+    }
+
     /**
      * Allows the configuration of any global request requirements.
      *
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.cfg;
+
+/**
+ * Configuration for a bandwidth-throttled response, used to simulate a slow network link. The response content will be written at (roughly)
+ * the configured number of bytes per second, after an optional time-to-first-byte delay, with an optional random jitter applied to the pacing.
+ */
+public interface ThrottleConfig {
+
+    /**
+     * Used to specify the rate at which the response content is written.
+     *
+     * @param value the number of bytes per second (must be greater than zero)
+     * @return a reference to the config
+     */
+    ThrottleConfig bytesPerSecond(long value);
+
+    /**
+     * Used to specify the delay before the first byte of the response content is written.
+     *
+     * @param value the time-to-first-byte in milliseconds
+     * @return a reference to the config
+     */
+    ThrottleConfig timeToFirstByte(long value);
+
+    /**
+     * Used to specify a random jitter applied to the pacing of the writes, as a fraction of the pacing interval - a jitter of 0.2 will vary each
+     * interval randomly by up to 20% (either way).
+     *
+     * @param value the jitter fraction (between 0 and 1)
+     * @return a reference to the config
+     */
+    ThrottleConfig jitter(double value);
+}
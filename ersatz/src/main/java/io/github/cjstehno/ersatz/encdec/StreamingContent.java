@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.encdec;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Response content which is streamed to the client as it is produced, rather than being encoded into memory up front - suitable for very large
+ * or endless (e.g. server-sent events) response content. The content is written with back-pressure: the next part of the content is only read
+ * (or requested) once the previous part has been written to the client.
+ * <p>
+ * Since a response may be sent more than once, the content source is provided by a supplier which is called for each response sent (or a
+ * publisher, which is subscribed to for each response sent).
+ */
+@RequiredArgsConstructor(access = PRIVATE) @Getter
+public final class StreamingContent {
+
+    /**
+     * The supplier of the content channel, if the content is read from a channel.
+     */
+    private final Supplier<? extends ReadableByteChannel> channel;
+
+    /**
+     * The publisher of the content buffers, if the content is published.
+     */
+    private final Flow.Publisher<ByteBuffer> publisher;
+
+    /**
+     * Creates streaming content read from the input stream provided by the supplier. The stream will be closed once it has been read.
+     *
+     * @param supplier the supplier of the content stream (called for each response)
+     * @return the streaming content
+     */
+    public static StreamingContent inputStream(final Supplier<? extends InputStream> supplier) {
+        return new StreamingContent(() -> Channels.newChannel(supplier.get()), null);
+    }
+
+    /**
+     * Creates streaming content read from the channel provided by the supplier. The channel will be closed once it has been read. A blocking
+     * channel is preferred - a channel read which provides no content (e.g. from a non-blocking channel) is retried after a short delay.
+     *
+     * @param supplier the supplier of the content channel (called for each response)
+     * @return the streaming content
+     */
+    public static StreamingContent channel(final Supplier<? extends ReadableByteChannel> supplier) {
+        return new StreamingContent(supplier, null);
+    }
+
+    /**
+     * Creates streaming content published by the provided publisher. The publisher is subscribed to for each response, and each buffer is
+     * requested only once the previous buffer has been written. The response is ended when the publisher completes.
+     *
+     * @param publisher the publisher of the content buffers
+     * @return the streaming content
+     */
+    public static StreamingContent publisher(final Flow.Publisher<ByteBuffer> publisher) {
+        return new StreamingContent(null, publisher);
+    }
+}
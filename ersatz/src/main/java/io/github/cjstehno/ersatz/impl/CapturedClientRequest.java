@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.HttpMethod;
+import io.github.cjstehno.ersatz.encdec.Cookie;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * An immutable copy of the data of a client request, which remains available after the request exchange has completed (e.g. for the
+ * asynchronous rendering of reports, or for later inspection).
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE) @Getter
+public final class CapturedClientRequest implements ClientRequest {
+
+    private final HttpMethod method;
+    private final String scheme;
+    private final String path;
+    private final Map<String, String> pathVariables;
+    private final Map<String, Deque<String>> queryParams;
+    private final Map<String, Deque<String>> headers;
+    private final Map<String, Cookie> cookies;
+    private final byte[] body;
+    private final Map<String, Deque<String>> bodyParameters;
+    private final long contentLength;
+    private final String characterEncoding;
+    private final String contentType;
+
+    /**
+     * Captures a copy of the data of the provided client request.
+     *
+     * @param request the client request
+     * @return the captured request
+     */
+    public static CapturedClientRequest capture(final ClientRequest request) {
+        return new CapturedClientRequest(
+            request.getMethod(),
+            request.getScheme(),
+            request.getPath(),
+            unmodifiableMap(new LinkedHashMap<>(request.getPathVariables())),
+            copy(request.getQueryParams()),
+            copy(request.getHeaders()),
+            unmodifiableMap(new LinkedHashMap<>(request.getCookies())),
+            request.getBody(),
+            copy(request.getBodyParameters()),
+            request.getContentLength(),
+            request.getCharacterEncoding(),
+            request.getContentType()
+        );
+    }
+
+    private static Map<String, Deque<String>> copy(final Map<String, Deque<String>> map) {
+        final var copied = new LinkedHashMap<String, Deque<String>>();
+        map.forEach((name, values) -> copied.put(name, new ArrayDeque<>(values)));
+        return unmodifiableMap(copied);
+    }
+
+    @Override public String toString() {
+        return format("{ %s %s(query=%s, headers=%s, cookies=%s) }", method, path, queryParams, headers, cookies);
+    }
+}
@@ -26,6 +26,7 @@ public class ChunkingConfigImpl implements ChunkingConfig {
 
     private int chunks = 2;
     private int delay;
+    private volatile int[] boundaries;
 
     /**
      * Used to specify the number of chunks which the response will be broken into,
@@ -35,6 +36,7 @@ public class ChunkingConfigImpl implements ChunkingConfig {
      */
     public ChunkingConfig chunks(final int value) {
         chunks = value;
+        boundaries = null;
         return this;
     }
 
@@ -67,6 +69,37 @@ public class ChunkingConfigImpl implements ChunkingConfig {
         return delay;
     }
 
+    /**
+     * Used to retrieve the chunk boundaries for content of the specified length - the offset of each chunk in the content, followed by the content
+     * length. Any remainder of the content is spread out over the chunks to keep the sizes as even as possible. The boundaries are computed once
+     * and reused for content of the same length.
+     *
+     * @param length the content length
+     * @return the chunk boundaries (one more than the number of chunks)
+     */
+    public int[] getBoundaries(final int length) {
+        var computed = boundaries;
+
+        if (computed == null || computed[computed.length - 1] != length) {
+            computed = computeBoundaries(length, chunks);
+            boundaries = computed;
+        }
+
+        return computed;
+    }
+
+    private static int[] computeBoundaries(final int length, final int chunks) {
+        final int chunkLen = length / chunks;
+        final int remainder = length % chunks;
+
+        final int[] computed = new int[chunks + 1];
+        for (int n = 0; n < chunks; n++) {
+            computed[n + 1] = computed[n] + chunkLen + (n < remainder ? 1 : 0);
+        }
+
+        return computed;
+    }
+
     @Override public String toString() {
         return format("ChunkingConfig(chunks:%d, delay:%s)", chunks, delay);
     }
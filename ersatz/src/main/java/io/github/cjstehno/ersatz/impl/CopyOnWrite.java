@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.unmodifiableList;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Helpers for the copy-on-write configuration collections, which are read by the request handling threads while the test threads may still be
+ * modifying them. The collections are never modified in place - a modified copy is atomically published instead, so that readers only ever
+ * perform a volatile read of an immutable snapshot.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class CopyOnWrite {
+
+    /**
+     * Atomically publishes a new immutable list containing the items of the current list, followed by the provided item.
+     *
+     * @param list the list reference
+     * @param item the item to be appended
+     * @param <T>  the type of list item
+     */
+    static <T> void append(final AtomicReference<List<T>> list, final T item) {
+        list.updateAndGet(current -> {
+            val appended = new ArrayList<T>(current.size() + 1);
+            appended.addAll(current);
+            appended.add(item);
+            return unmodifiableList(appended);
+        });
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.HttpMethod;
+import io.github.cjstehno.ersatz.cfg.Response;
+import io.github.cjstehno.ersatz.encdec.Cookie;
+import io.github.cjstehno.ersatz.encdec.DecoderChain;
+import io.github.cjstehno.ersatz.encdec.DecodingContext;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Locale.ROOT;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+
+/**
+ * Generates a response for each incoming request, by applying the configured generator function to the client request and a new response.
+ * <p>
+ * If a cache size greater than zero is configured, the generated responses (along with their rendered content) are cached, keyed by the
+ * request fingerprint (see {@link MatchCache}) including the values of the configured key headers, and the request body content, so that a
+ * request which has been seen before will reuse the previously generated response. When the cache reaches its capacity, an (approximately)
+ * least-recently-used response is evicted (see {@link SampledLruCache}). Without a cache, each generated response is marked as one-off (see
+ * {@link ErsatzResponse#isOneOff()}), since it will only be sent once.
+ * <p>
+ * A generated response which depends on a request header (or the cookies) that is not one of the key headers would be served to every later
+ * request with the same key, so such a response is not cached - it is sent as a one-off response, and a warning is logged.
+ */
+@Slf4j
+final class DynamicResponder implements Function<ClientRequest, Response> {
+
+    private final Supplier<Response> responseFactory;
+    private final BiConsumer<ClientRequest, Response> generator;
+    private final int cacheSize;
+    private final String[] keyHeaders;
+    private final Set<String> keyHeaderNames;
+    private final SampledLruCache<List<Object>, Response> cache;
+    private final AtomicBoolean warned = new AtomicBoolean();
+
+    /**
+     * Creates a new dynamic responder.
+     *
+     * @param responseFactory the factory used to create the new responses
+     * @param generator       the function used to configure a response for a client request
+     * @param cacheSize       the maximum number of cached responses (zero disables the cache)
+     * @param keyHeaders      the names of the request headers whose values are part of the cache key
+     */
+    DynamicResponder(
+        final Supplier<Response> responseFactory, final BiConsumer<ClientRequest, Response> generator, final int cacheSize,
+        final Set<String> keyHeaders
+    ) {
+        this.responseFactory = responseFactory;
+        this.generator = generator;
+        this.cacheSize = cacheSize;
+        this.keyHeaders = keyHeaders.stream().map(name -> name.toLowerCase(ROOT)).sorted().distinct().toArray(String[]::new);
+        this.keyHeaderNames = Arrays.stream(this.keyHeaders).collect(toUnmodifiableSet());
+        this.cache = cacheSize > 0 ? new SampledLruCache<>(cacheSize) : null;
+    }
+
+    @Override public Response apply(final ClientRequest clientRequest) {
+        if (cacheSize <= 0) {
+            return oneOff(generate(clientRequest));
+        }
+
+        val body = clientRequest.getBody();
+        val key = Arrays.<Object>asList(MatchCache.fingerprint(clientRequest, keyHeaders), body != null ? ByteBuffer.wrap(body) : null);
+
+        var response = cache.get(key);
+        if (response == null) {
+            val tracked = new HeaderTrackingRequest(clientRequest, keyHeaderNames);
+            response = generate(tracked);
+
+            if (tracked.unkeyedHeader != null) {
+                if (warned.compareAndSet(false, true)) {
+                    log.warn(
+                        "A cached dynamic response depends on the '{}' request header, which is not one of its cache key headers - the responses "
+                            + "which depend on it are not cached.", tracked.unkeyedHeader
+                    );
+                }
+                return oneOff(response);
+            }
+
+            cache.put(key, response);
+        }
+
+        return response;
+    }
+
+    private Response generate(final ClientRequest clientRequest) {
+        val response = responseFactory.get();
+        generator.accept(clientRequest, response);
+        return response;
+    }
+
+    private static Response oneOff(final Response response) {
+        if (response instanceof final ErsatzResponse ersatzResponse) {
+            ersatzResponse.markOneOff();
+        }
+        return response;
+    }
+
+    // Records the first header (other than the key headers) read by the generator - the cookies are read from the cookie header.
+    @RequiredArgsConstructor
+    private static final class HeaderTrackingRequest implements ClientRequest {
+
+        private static final String ALL_HEADERS = "*";
+        private static final String COOKIE = "cookie";
+        private final ClientRequest request;
+        private final Set<String> keyHeaders;
+        private String unkeyedHeader;
+
+        @Override public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override public String getScheme() {
+            return request.getScheme();
+        }
+
+        @Override public String getPath() {
+            return request.getPath();
+        }
+
+        @Override public Map<String, String> getPathVariables() {
+            return request.getPathVariables();
+        }
+
+        @Override public Map<String, Deque<String>> getQueryParams() {
+            return request.getQueryParams();
+        }
+
+        @Override public Deque<String> getQueryValues(final String name) {
+            return request.getQueryValues(name);
+        }
+
+        @Override public Map<String, Deque<String>> getHeaders() {
+            reading(ALL_HEADERS);
+            return request.getHeaders();
+        }
+
+        @Override public Deque<String> getHeaderValues(final String name) {
+            reading(name.toLowerCase(ROOT));
+            return request.getHeaderValues(name);
+        }
+
+        @Override public Map<String, Cookie> getCookies() {
+            reading(COOKIE);
+            return request.getCookies();
+        }
+
+        @Override public byte[] getBody() {
+            return request.getBody();
+        }
+
+        @Override public Object getDecodedBody(final BiFunction<byte[], DecodingContext, Object> decoder, final DecoderChain decoderChain) {
+            return request.getDecodedBody(decoder, decoderChain);
+        }
+
+        @Override public Map<String, Deque<String>> getBodyParameters() {
+            return request.getBodyParameters();
+        }
+
+        @Override public long getContentLength() {
+            return request.getContentLength();
+        }
+
+        @Override public String getCharacterEncoding() {
+            return request.getCharacterEncoding();
+        }
+
+        @Override public String getContentType() {
+            return request.getContentType();
+        }
+
+        @Override public String toString() {
+            return request.toString();
+        }
+
+        private void reading(final String name) {
+            if (unkeyedHeader == null && !keyHeaders.contains(name)) {
+                unkeyedHeader = name;
+            }
+        }
+    }
+}
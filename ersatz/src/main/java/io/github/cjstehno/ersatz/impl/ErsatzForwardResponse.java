@@ -16,14 +16,19 @@
 package io.github.cjstehno.ersatz.impl;
 
 import io.github.cjstehno.ersatz.cfg.ChunkingConfig;
+import io.github.cjstehno.ersatz.cfg.Latency;
 import io.github.cjstehno.ersatz.cfg.Response;
+import io.github.cjstehno.ersatz.cfg.ThrottleConfig;
 import io.github.cjstehno.ersatz.encdec.Cookie;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
+import io.github.cjstehno.ersatz.encdec.StreamingContent;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -43,6 +48,14 @@ public class ErsatzForwardResponse implements Response {
         throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
     }
 
+    @Override public Response file(final Path file) {
+        throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
+    }
+
+    @Override public Response stream(final StreamingContent content) {
+        throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
+    }
+
     @Override public Response header(final String name, final String... value) {
         throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
     }
@@ -79,14 +92,26 @@ public class ErsatzForwardResponse implements Response {
         throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
     }
 
+    @Override public Response delay(final Latency latency) {
+        throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
+    }
+
     @Override public long getDelay() {
         throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
     }
 
+    @Override public LongSummaryStatistics getAppliedDelays() {
+        throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
+    }
+
     @Override public Response chunked(final Consumer<ChunkingConfig> config) {
         throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
     }
 
+    @Override public Response throttled(final Consumer<ThrottleConfig> config) {
+        throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
+    }
+
     @Override public Map<String, List<String>> getHeaders() {
         throw new UnsupportedOperationException(EXCEPTION_MESSAGE);
     }
@@ -22,36 +22,48 @@ import io.github.cjstehno.ersatz.cfg.WaitFor;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
 import io.github.cjstehno.ersatz.impl.matchers.RequestSchemeMatcher;
 import io.github.cjstehno.ersatz.match.HeaderMatcher;
+import io.github.cjstehno.ersatz.match.HttpMethodMatcher;
 import io.github.cjstehno.ersatz.match.PathMatcher;
 import io.github.cjstehno.ersatz.match.QueryParamMatcher;
 import io.github.cjstehno.ersatz.match.RequestCookieMatcher;
 import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.Getter;
 import lombok.val;
 import org.hamcrest.Matcher;
 import org.hamcrest.StringDescription;
 
 import java.net.URI;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static io.github.cjstehno.ersatz.match.HttpMethodMatcher.methodMatching;
 import static io.github.cjstehno.ersatz.util.Timeout.isTrueBefore;
-import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.emptyList;
 import static org.hamcrest.Matchers.anything;
 
 /**
  * <code>Request</code> implementation representing requests without body content.
+ * <p>
+ * The configured matchers, listeners and responses are held as immutable snapshots which are atomically replaced when the configuration changes,
+ * so that the request may be safely configured while the server is handling requests.
  */
 public class ErsatzRequest implements Request {
 
-    private final List<Matcher<ClientRequest>> matchers = new LinkedList<>();
-    private final List<Consumer<ClientRequest>> listeners = new LinkedList<>();
-    private final List<Response> responses = new LinkedList<>();
+    private final AtomicReference<RequestMatchers> matchers = new AtomicReference<>(RequestMatchers.EMPTY);
+    private final AtomicReference<List<Consumer<ClientRequest>>> listeners = new AtomicReference<>(emptyList());
+    private final AtomicReference<List<Function<ClientRequest, Response>>> responses = new AtomicReference<>(emptyList());
+    @Getter private final HttpMethodMatcher methodMatcher;
+    @Getter private final PathMatcher pathMatcher;
     private final ResponseEncoders globalEncoders;
     private final boolean emptyResponse;
-    private Matcher<?> callVerifier = anything();
+    private volatile Matcher<?> callVerifier = anything();
+    private volatile Runnable matchersChanged = () -> {
+    };
     private final AtomicInteger callCount = new AtomicInteger(0);
 
     /**
@@ -63,8 +75,11 @@ public class ErsatzRequest implements Request {
      * @param emptyResponse  whether this is a request with an empty response
      */
     public ErsatzRequest(final HttpMethod meth, final PathMatcher pathMatcher, final ResponseEncoders globalEncoders, final boolean emptyResponse) {
-        matchers.add(methodMatching(meth));
-        matchers.add(pathMatcher);
+        this.methodMatcher = methodMatching(meth);
+        this.pathMatcher = pathMatcher;
+
+        appendMatcher(methodMatcher, MatcherCost.REQUEST_LINE);
+        appendMatcher(pathMatcher, MatcherCost.REQUEST_LINE);
 
         this.globalEncoders = globalEncoders;
         this.emptyResponse = emptyResponse;
@@ -72,35 +87,35 @@ public class ErsatzRequest implements Request {
 
     @Override
     public Request secure(final boolean value) {
-        matchers.add(new RequestSchemeMatcher(value));
+        appendMatcher(new RequestSchemeMatcher(value), MatcherCost.REQUEST_LINE);
         return this;
     }
 
     @Override public Request header(final HeaderMatcher headerMatcher) {
-        matchers.add(headerMatcher);
+        appendMatcher(headerMatcher, MatcherCost.HEADER);
         return this;
     }
 
     @Override public Request query(final QueryParamMatcher queryMatcher) {
-        matchers.add(queryMatcher);
+        appendMatcher(queryMatcher, MatcherCost.QUERY);
         return this;
     }
 
     @Override public Request cookie(final RequestCookieMatcher cookieMatcher) {
-        matchers.add(cookieMatcher);
+        appendMatcher(cookieMatcher, MatcherCost.HEADER);
         return this;
     }
 
     @Override
     public Request listener(final Consumer<ClientRequest> listener) {
-        listeners.add(listener);
+        CopyOnWrite.append(listeners, listener);
         return this;
     }
 
     @Override
     public Response responds() {
         final Response response = newResponse();
-        responses.add(response);
+        CopyOnWrite.append(responses, cr -> response);
         return response;
     }
 
@@ -108,13 +123,19 @@ public class ErsatzRequest implements Request {
     public Request responder(final Consumer<Response> responder) {
         val response = newResponse();
         responder.accept(response);
-        responses.add(response);
+        CopyOnWrite.append(responses, cr -> response);
+        return this;
+    }
+
+    @Override
+    public Request dynamicResponder(final int cacheSize, final Set<String> keyHeaders, final BiConsumer<ClientRequest, Response> generator) {
+        CopyOnWrite.append(responses, new DynamicResponder(this::newResponse, generator, cacheSize, keyHeaders));
         return this;
     }
 
     @Override public Request forward(final URI targetUri) {
         val response = new ErsatzForwardResponse(targetUri);
-        responses.add(response);
+        CopyOnWrite.append(responses, cr -> response);
         return this;
     }
 
@@ -126,7 +147,7 @@ public class ErsatzRequest implements Request {
 
     @Override
     public Request matcher(final Matcher<ClientRequest> matcher) {
-        matchers.add(matcher);
+        appendMatcher(matcher, MatcherCost.CUSTOM);
         return this;
     }
 
@@ -151,30 +172,76 @@ public class ErsatzRequest implements Request {
      * Used to determine whether the incoming client request matches this configured request. All configured matchers must return
      * <code>true</code> in order for the match to be successful. By default, all request have a matcher for request method and request path, the
      * others are optional.
+     * <p>
+     * The matchers are evaluated in order of their cost class (see {@link MatcherCost}), cheapest first, and the evaluation stops at the first
+     * mismatch. Only the current snapshot of the matchers is read, so a concurrent configuration change will never disrupt the matching.
      *
      * @param clientRequest the incoming client request
      * @return true if the incoming request matches the configured request
      */
     public boolean matches(final ClientRequest clientRequest) {
-        return matchers.stream().allMatch(m -> m.matches(clientRequest));
+        return matchers.get().matches(clientRequest);
     }
 
     /**
-     * Used to retrieve the configured matchers in the request.
+     * Used to retrieve the configured matchers in the request, in the order they were configured.
      *
      * @return an immutable list of the configured matchers.
      */
     public List<Matcher<ClientRequest>> getRequestMatchers() {
-        return unmodifiableList(matchers);
+        return matchers.get().toList();
     }
 
     /**
-     * Adds a request matcher to the configured list of matchers.
+     * Adds a request matcher to the configured list of matchers. The matcher is considered a custom matcher, evaluated after all others.
      *
      * @param matcher the matcher to be added
      */
     protected void addMatcher(final Matcher<ClientRequest> matcher) {
-        matchers.add(matcher);
+        addMatcher(matcher, MatcherCost.CUSTOM);
+    }
+
+    /**
+     * Adds a request matcher with the specified cost class to the configured list of matchers. The matcher is evaluated after all matchers of a
+     * lower or equal cost class.
+     *
+     * @param matcher the matcher to be added
+     * @param cost    the cost class of the matcher
+     */
+    protected void addMatcher(final Matcher<ClientRequest> matcher, final MatcherCost cost) {
+        appendMatcher(matcher, cost);
+    }
+
+    private void appendMatcher(final Matcher<ClientRequest> matcher, final MatcherCost cost) {
+        matchers.updateAndGet(current -> current.with(matcher, cost));
+        matchersChanged.run();
+    }
+
+    /**
+     * Determines whether the match result of this request may be cached. See {@link RequestMatchers}.
+     *
+     * @return true if the match result may be cached
+     */
+    boolean isCacheable() {
+        return matchers.get().isCacheable();
+    }
+
+    /**
+     * Retrieves the (lower-case) names of the request headers inspected by the matchers of this request.
+     *
+     * @return the inspected header names
+     */
+    Set<String> getInspectedHeaders() {
+        return matchers.get().getInspectedHeaders();
+    }
+
+    /**
+     * Registers a callback which is run whenever a matcher is added to this request (so that any cached match results may be discarded).
+     *
+     * @param callback the callback
+     */
+    void onMatchersChanged(final Runnable callback) {
+        this.matchersChanged = callback;
     }
 
     /**
@@ -188,14 +255,37 @@ public class ErsatzRequest implements Request {
 
     /**
      * Used to retrieve the current response in the response list (based on the call count). The last response in the list will be sent to all future
-     * calls.
+     * calls. A dynamic response (see {@link #dynamicResponder(int, BiConsumer)}) requires the client request, use
+     * {@link #getCurrentResponse(ClientRequest)} for those.
      *
      * @return the current response
+     * @throws IllegalStateException if the current response is a dynamic response
      */
     public Response getCurrentResponse() {
+        val current = currentResponder();
+        if (current instanceof DynamicResponder) {
+            throw new IllegalStateException("The current response is dynamic - use getCurrentResponse(ClientRequest) to generate it.");
+        }
+        return current != null ? current.apply(null) : null;
+    }
+
+    /**
+     * Used to retrieve the current response in the response list (based on the call count), for the given client request. The last response in
+     * the list will be sent to all future calls. A dynamic response is generated from the client request.
+     *
+     * @param clientRequest the client request being responded to
+     * @return the current response
+     */
+    public Response getCurrentResponse(final ClientRequest clientRequest) {
+        val current = currentResponder();
+        return current != null ? current.apply(clientRequest) : null;
+    }
+
+    private Function<ClientRequest, Response> currentResponder() {
+        final var configured = responses.get();
         final int currentCount = callCount.get();
-        final int index = currentCount >= responses.size() ? responses.size() - 1 : currentCount;
-        return index >= 0 ? responses.get(index) : null;
+        final int index = currentCount >= configured.size() ? configured.size() - 1 : currentCount;
+        return index >= 0 ? configured.get(index) : null;
     }
 
     /**
@@ -206,14 +296,14 @@ public class ErsatzRequest implements Request {
     public void mark(final ClientRequest cr) {
         callCount.incrementAndGet();
 
-        listeners.forEach(listener -> listener.accept(cr));
+        listeners.get().forEach(listener -> listener.accept(cr));
     }
 
     @Override public String toString() {
         final var str = new StringBuilder();
         str.append("Expectations (").append(getClass().getSimpleName()).append("): ");
 
-        matchers.forEach(m -> {
+        matchers.get().toList().forEach(m -> {
             final var desc = new StringDescription();
             m.describeTo(desc);
             str.append(desc).append(", ");
@@ -29,43 +29,41 @@ import lombok.val;
 import org.hamcrest.Matcher;
 import org.hamcrest.StringDescription;
 
-import java.util.LinkedList;
 import java.util.List;
-
-import static org.hamcrest.CoreMatchers.allOf;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Implementation of a request requirement.
+ * Implementation of a request requirement. The configured matchers are held as an immutable snapshot, atomically replaced on change.
  */
 @RequiredArgsConstructor
 public class ErsatzRequestRequirement implements RequestRequirement {
 
-    @Getter private final List<Matcher<ClientRequest>> matchers = new LinkedList<>();
+    private final AtomicReference<RequestMatchers> matchers = new AtomicReference<>(RequestMatchers.EMPTY);
     @Getter private final HttpMethodMatcher methodMatcher;
     @Getter private final PathMatcher pathMatcher;
 
     @Override public RequestRequirement secure(final boolean enabled) {
-        matchers.add(new RequestSchemeMatcher(enabled));
+        addMatcher(new RequestSchemeMatcher(enabled), MatcherCost.REQUEST_LINE);
         return this;
     }
 
     @Override public RequestRequirement header(final HeaderMatcher headerMatcher) {
-        matchers.add(headerMatcher);
+        addMatcher(headerMatcher, MatcherCost.HEADER);
         return this;
     }
 
     @Override public RequestRequirement query(final QueryParamMatcher queryMatcher) {
-        matchers.add(queryMatcher);
+        addMatcher(queryMatcher, MatcherCost.QUERY);
         return this;
     }
 
     @Override public RequestRequirement cookie(final RequestCookieMatcher cookieMatcher) {
-        matchers.add(cookieMatcher);
+        addMatcher(cookieMatcher, MatcherCost.HEADER);
         return this;
     }
 
     @Override public RequestRequirement matcher(final Matcher<ClientRequest> matcher) {
-        matchers.add(matcher);
+        addMatcher(matcher, MatcherCost.CUSTOM);
         return this;
     }
 
@@ -76,7 +74,7 @@ public class ErsatzRequestRequirement implements RequestRequirement {
      * @return a value of true if this requirement should be applied
      */
     public boolean matches(final ClientRequest clientRequest) {
-        return allOf(methodMatcher, pathMatcher).matches(clientRequest);
+        return methodMatcher.matches(clientRequest) && pathMatcher.matches(clientRequest);
     }
 
     /**
@@ -86,7 +84,20 @@ public class ErsatzRequestRequirement implements RequestRequirement {
      * @return a value of true if the request meets the requirements
      */
     public boolean check(final ClientRequest clientRequest) {
-        return allOf(matchers.toArray(new Matcher[0])).matches(clientRequest);
+        return matchers.get().matches(clientRequest);
+    }
+
+    /**
+     * Retrieves the configured requirement matchers, in the order they were configured.
+     *
+     * @return an immutable list of the configured matchers
+     */
+    public List<Matcher<ClientRequest>> getMatchers() {
+        return matchers.get().toList();
+    }
+
+    private void addMatcher(final Matcher<ClientRequest> matcher, final MatcherCost cost) {
+        matchers.updateAndGet(current -> current.with(matcher, cost));
     }
 
     /**
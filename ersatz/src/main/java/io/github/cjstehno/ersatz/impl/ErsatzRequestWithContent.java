@@ -25,15 +25,22 @@ import io.github.cjstehno.ersatz.match.BodyMatcher;
 import io.github.cjstehno.ersatz.match.BodyParamMatcher;
 import io.github.cjstehno.ersatz.match.PathMatcher;
 
+import java.util.LinkedList;
+import java.util.List;
 import java.util.function.BiFunction;
 
 /**
  * Ersatz implementation of a <code>Request</code> with request body content.
+ * <p>
+ * Until a request-level decoder is configured, the body matchers use the (shared) decoder chain of the server-level decoders, so that the
+ * decoded request content may be shared with the other expectations using that chain (see <code>ClientRequest::getDecodedBody</code>).
  */
 public class ErsatzRequestWithContent extends ErsatzRequest implements RequestWithContent {
 
-    private final RequestDecoders localDecoders = new RequestDecoders();
-    private final DecoderChain decoderChain;
+    private final RequestDecoders globalDecoders;
+    private final List<BodyMatcher> bodyMatchers = new LinkedList<>();
+    private RequestDecoders localDecoders;
+    private DecoderChain decoderChain;
 
     /**
      * Creates a request with the specified method and path, along with encoders and decoders.
@@ -45,25 +52,49 @@ public class ErsatzRequestWithContent extends ErsatzRequest implements RequestWi
      */
     public ErsatzRequestWithContent(
         final HttpMethod method, final PathMatcher pathMatcher, final RequestDecoders globalDecoders, final ResponseEncoders globalEncoders
+    ) {
+        this(method, pathMatcher, globalDecoders, new DecoderChain(globalDecoders, null), globalEncoders);
+    }
+
+    /**
+     * Creates a request with the specified method and path, along with encoders and decoders.
+     *
+     * @param method             the request method
+     * @param pathMatcher        the request path matcher
+     * @param globalDecoders     the shared global decoders
+     * @param globalDecoderChain the shared decoder chain of the global decoders
+     * @param globalEncoders     the shared global encoders
+     */
+    public ErsatzRequestWithContent(
+        final HttpMethod method, final PathMatcher pathMatcher, final RequestDecoders globalDecoders, final DecoderChain globalDecoderChain,
+        final ResponseEncoders globalEncoders
     ) {
         super(method, pathMatcher, globalEncoders, false);
-        this.decoderChain = new DecoderChain(globalDecoders, localDecoders);
+        this.globalDecoders = globalDecoders;
+        this.decoderChain = globalDecoderChain;
     }
 
     @Override public RequestWithContent body(final BodyMatcher bodyMatcher) {
         bodyMatcher.setDecoderChain(decoderChain);
-        addMatcher(bodyMatcher);
+        bodyMatchers.add(bodyMatcher);
+        addMatcher(bodyMatcher, MatcherCost.BODY);
         return this;
     }
 
     @Override
     public RequestWithContent decoder(final String contentType, final BiFunction<byte[], DecodingContext, Object> decoder) {
+        if (localDecoders == null) {
+            localDecoders = new RequestDecoders();
+            decoderChain = new DecoderChain(globalDecoders, localDecoders);
+            bodyMatchers.forEach(matcher -> matcher.setDecoderChain(decoderChain));
+        }
+
         localDecoders.register(contentType, decoder);
         return this;
     }
 
     @Override public RequestWithContent param(final BodyParamMatcher bodyParamMatcher) {
-        addMatcher(bodyParamMatcher);
+        addMatcher(bodyParamMatcher, MatcherCost.BODY);
         return this;
     }
 }
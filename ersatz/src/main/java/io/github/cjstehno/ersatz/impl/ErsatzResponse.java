@@ -16,21 +16,27 @@
 package io.github.cjstehno.ersatz.impl;
 
 import io.github.cjstehno.ersatz.cfg.ChunkingConfig;
+import io.github.cjstehno.ersatz.cfg.Latency;
 import io.github.cjstehno.ersatz.cfg.Response;
+import io.github.cjstehno.ersatz.cfg.ThrottleConfig;
 import io.github.cjstehno.ersatz.encdec.Cookie;
 import io.github.cjstehno.ersatz.encdec.EncoderChain;
 import io.github.cjstehno.ersatz.encdec.ErsatzMultipartResponseContent;
 import io.github.cjstehno.ersatz.encdec.MultipartResponseContent;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
+import io.github.cjstehno.ersatz.encdec.StreamingContent;
 import io.github.cjstehno.ersatz.util.StatusCode;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -52,10 +58,17 @@ public class ErsatzResponse implements Response {
     private final Map<String, List<String>> headers = new LinkedHashMap<>();
     private final Map<String, Object> cookies = new LinkedHashMap<>();
     private ChunkingConfigImpl chunkingConfig;
+    private ThrottleConfigImpl throttleConfig;
     private final AtomicReference<byte[]> cachedContent = new AtomicReference<>();
+    private final AtomicReference<Object> rendered = new AtomicReference<>();
     private Object content;
+    private Path file;
+    private StreamingContent stream;
     private Integer code = StatusCode.OK.getValue();
     private long delayTime;
+    private Latency latency;
+    private final LongSummaryStatistics appliedDelays = new LongSummaryStatistics();
+    private boolean oneOff;
 
     /**
      * Creates a new response implementation with the provided parameters.
@@ -75,9 +88,20 @@ public class ErsatzResponse implements Response {
         return chunkingConfig;
     }
 
+    /**
+     * Used to retrieve the throttling configuration, if any.
+     *
+     * @return the throttling configuration
+     */
+    public ThrottleConfigImpl getThrottleConfig() {
+        return throttleConfig;
+    }
+
     @Override
     public Response body(final Object content) {
         this.content = content;
+        this.file = null;
+        this.stream = null;
 
         if (content instanceof MultipartResponseContent) {
             final var multipartContent = (ErsatzMultipartResponseContent) content;
@@ -89,13 +113,51 @@ public class ErsatzResponse implements Response {
             contentType(multipartContent.getContentType());
         }
 
+        rendered.set(null);
+        return this;
+    }
+
+    @Override
+    public Response file(final Path file) {
+        this.file = file;
+        this.content = null;
+        this.stream = null;
+        rendered.set(null);
         return this;
     }
 
+    @Override
+    public Response stream(final StreamingContent content) {
+        this.stream = content;
+        this.content = null;
+        this.file = null;
+        rendered.set(null);
+        return this;
+    }
+
+    /**
+     * Used to retrieve the streaming content configured as the response content, if any.
+     *
+     * @return the streaming response content, or null
+     */
+    public StreamingContent getStream() {
+        return stream;
+    }
+
+    /**
+     * Used to retrieve the file configured as the response content, if any.
+     *
+     * @return the path of the response content file, or null
+     */
+    public Path getFile() {
+        return file;
+    }
+
     @Override
     public Response header(final String name, final String... value) {
         final List<String> list = headers.computeIfAbsent(name, s -> new LinkedList<>());
         list.addAll(Arrays.asList(value));
+        rendered.set(null);
         return this;
     }
 
@@ -103,6 +165,7 @@ public class ErsatzResponse implements Response {
     public Response header(final String name, final List<String> values) {
         final List<String> list = headers.computeIfAbsent(name, s -> new LinkedList<>());
         list.addAll(values);
+        rendered.set(null);
         return this;
     }
 
@@ -121,18 +184,21 @@ public class ErsatzResponse implements Response {
     @Override
     public Response cookies(final Map<String, String> cookies) {
         this.cookies.putAll(cookies);
+        rendered.set(null);
         return this;
     }
 
     @Override
     public Response cookie(final String name, final String value) {
         cookies.put(name, value);
+        rendered.set(null);
         return this;
     }
 
     @Override
     public Response cookie(final String name, final Cookie cookie) {
         cookies.put(name, cookie);
+        rendered.set(null);
         return this;
     }
 
@@ -144,12 +210,21 @@ public class ErsatzResponse implements Response {
 
     @Override public Response code(final int code) {
         this.code = code;
+        rendered.set(null);
         return this;
     }
 
     @Override
     public Response delay(final long time) {
         this.delayTime = time;
+        this.latency = null;
+        return this;
+    }
+
+    @Override
+    public Response delay(final Latency latency) {
+        this.latency = latency;
+        this.delayTime = 0;
         return this;
     }
 
@@ -158,10 +233,45 @@ public class ErsatzResponse implements Response {
         return this.delayTime;
     }
 
+    /**
+     * Used to determine the delay to be applied to the response being sent - the fixed delay time, or a delay time sampled from the latency
+     * distribution (using a per-thread random number generator). The delay is recorded in the applied delay statistics.
+     *
+     * @return the delay to be applied, in milliseconds
+     */
+    public long nextDelay() {
+        final var distribution = latency;
+        final long delay = distribution != null ? distribution.sample(ThreadLocalRandom.current()) : delayTime;
+
+        if (distribution != null || delay > 0) {
+            synchronized (appliedDelays) {
+                appliedDelays.accept(delay);
+            }
+        }
+
+        return delay;
+    }
+
+    @Override
+    public LongSummaryStatistics getAppliedDelays() {
+        synchronized (appliedDelays) {
+            return new LongSummaryStatistics(appliedDelays.getCount(), appliedDelays.getMin(), appliedDelays.getMax(), appliedDelays.getSum());
+        }
+    }
+
     @Override
     public Response chunked(final Consumer<ChunkingConfig> config) {
         chunkingConfig = new ChunkingConfigImpl();
         config.accept(chunkingConfig);
+        rendered.set(null);
+        return this;
+    }
+
+    @Override
+    public Response throttled(final Consumer<ThrottleConfig> config) {
+        throttleConfig = new ThrottleConfigImpl();
+        config.accept(throttleConfig);
+        rendered.set(null);
         return this;
     }
 
@@ -175,6 +285,12 @@ public class ErsatzResponse implements Response {
         return unmodifiableMap(cookies);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The content of a file response or a streaming response is not available (it is only read or produced when the response is sent, so that it
+     * is never held in memory as a whole), so it will be empty.
+     */
     @Override
     public byte[] getContent() {
         if (content != null) {
@@ -205,6 +321,43 @@ public class ErsatzResponse implements Response {
         return new byte[0];
     }
 
+    /**
+     * Used to retrieve the server-specific pre-rendered form of this response. It is created by the provided renderer on first use, and then
+     * reused until the configuration of the response is changed - a configured response is not expected to change once it is being served.
+     *
+     * @param type     the type of the rendered form
+     * @param renderer the function used to render the response
+     * @param <T>      the type of the rendered form
+     * @return the rendered response
+     */
+    public <T> T getRendered(final Class<T> type, final Function<ErsatzResponse, T> renderer) {
+        val current = rendered.get();
+        if (type.isInstance(current)) {
+            return type.cast(current);
+        }
+
+        val created = renderer.apply(this);
+        rendered.compareAndSet(current, created);
+        return created;
+    }
+
+    /**
+     * Determines whether this response is only sent once (e.g. an uncached dynamic response) - such a response is not worth rendering into
+     * a shared wire form.
+     *
+     * @return true if the response is sent only once
+     */
+    public boolean isOneOff() {
+        return oneOff;
+    }
+
+    /**
+     * Marks this response as one which is sent only once.
+     */
+    void markOneOff() {
+        oneOff = true;
+    }
+
     @Override
     public Integer getCode() {
         return code;
@@ -213,12 +366,16 @@ public class ErsatzResponse implements Response {
     @Override
     public Response encoder(final String contentType, final Class objectType, final Function<Object, byte[]> encoder) {
         localEncoders.register(contentType, objectType, encoder);
+        cachedContent.set(null);
+        rendered.set(null);
         return this;
     }
 
     @Override
     public Response encoders(final ResponseEncoders encoders) {
         localEncoders.merge(encoders);
+        cachedContent.set(null);
+        rendered.set(null);
         return this;
     }
 }
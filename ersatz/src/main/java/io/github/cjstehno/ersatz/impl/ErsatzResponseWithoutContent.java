@@ -18,7 +18,9 @@ package io.github.cjstehno.ersatz.impl;
 import io.github.cjstehno.ersatz.cfg.ContentType;
 import io.github.cjstehno.ersatz.cfg.Response;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
+import io.github.cjstehno.ersatz.encdec.StreamingContent;
 
+import java.nio.file.Path;
 import java.util.function.Function;
 
 /**
@@ -38,6 +40,16 @@ public class ErsatzResponseWithoutContent extends ErsatzResponse {
         throw new IllegalArgumentException("The response is configured as EMPTY and cannot have content.");
     }
 
+    @Override
+    public Response file(final Path file) {
+        throw new IllegalArgumentException("The response is configured as EMPTY and cannot have content.");
+    }
+
+    @Override
+    public Response stream(final StreamingContent content) {
+        throw new IllegalArgumentException("The response is configured as EMPTY and cannot have content.");
+    }
+
     @Override
     public Response encoder(final String contentType, final Class objectType, final Function<Object, byte[]> encoder) {
         throw new UnsupportedOperationException("Configuring encoders for an EMPTY response is not allowed.");
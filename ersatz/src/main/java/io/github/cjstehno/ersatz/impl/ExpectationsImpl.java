@@ -21,20 +21,24 @@ import io.github.cjstehno.ersatz.cfg.Request;
 import io.github.cjstehno.ersatz.cfg.RequestWithContent;
 import io.github.cjstehno.ersatz.cfg.WaitFor;
 import io.github.cjstehno.ersatz.cfg.WebSocketExpectations;
+import io.github.cjstehno.ersatz.encdec.DecoderChain;
 import io.github.cjstehno.ersatz.encdec.RequestDecoders;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
 import io.github.cjstehno.ersatz.match.PathMatcher;
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.ANY;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
@@ -43,35 +47,52 @@ import static io.github.cjstehno.ersatz.cfg.HttpMethod.PATCH;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.POST;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.PUT;
 import static io.github.cjstehno.ersatz.cfg.WaitFor.ONE_SECOND;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
 
 /**
  * Implementation of the <code>Expectations</code> interface.
+ * <p>
+ * The request expectations (and their dispatch index) are held as an immutable snapshot which is replaced (under a lock, one change at a time)
+ * whenever an expectation is added or the expectations are cleared, so that the expectations may be safely reconfigured on a running server -
+ * request matching only ever reads the current snapshot, without locking. Adding an expectation extends the dispatch index of the previous
+ * snapshot, rather than rebuilding it, and a change to the matchers of an expectation only replaces the match cache.
  */
 @Slf4j @RequiredArgsConstructor
 public class ExpectationsImpl implements Expectations {
 
-    private final List<Request> requests = new LinkedList<>();
+    private final AtomicReference<Registry> registry = new AtomicReference<>(Registry.empty(0));
+    private volatile int matchCacheSize;
     private final Map<String, WebSocketExpectations> webSockets = new LinkedHashMap<>();
     private final ResponseEncoders globalEncoders;
     private final RequestDecoders globalDecoders;
+    private DecoderChain globalDecoderChain;
 
     /**
      * Removes all expectation configuration, but does not modify global encoders or decoders.
      */
     public void clear() {
-        requests.clear();
+        update(current -> Registry.empty(matchCacheSize));
     }
 
     @Override
     public Request request(final HttpMethod method, final PathMatcher pathMatcher, final Consumer<Request> consumer) {
-        return applyExpectation(new ErsatzRequestWithContent(method, pathMatcher, globalDecoders, globalEncoders), consumer);
+        return applyExpectation(new ErsatzRequestWithContent(method, pathMatcher, globalDecoders, globalDecoderChain(), globalEncoders), consumer);
     }
 
     private RequestWithContent requestWithContent(
         final HttpMethod method, final PathMatcher pathMatcher, final Consumer<RequestWithContent> consumer
     ) {
-        return applyExpectation(new ErsatzRequestWithContent(method, pathMatcher, globalDecoders, globalEncoders), consumer);
+        return applyExpectation(new ErsatzRequestWithContent(method, pathMatcher, globalDecoders, globalDecoderChain(), globalEncoders), consumer);
+    }
+
+    // the expectations without request-level decoders share the decoder chain of the global decoders (and so their decoded request content)
+    private DecoderChain globalDecoderChain() {
+        if (globalDecoderChain == null) {
+            globalDecoderChain = new DecoderChain(globalDecoders, null);
+        }
+        return globalDecoderChain;
     }
 
     @Override
@@ -119,19 +140,48 @@ public class ExpectationsImpl implements Expectations {
             consumer.accept(request);
         }
 
-        requests.add(request);
+        val ersatzRequest = (ErsatzRequest) request;
+        ersatzRequest.onMatchersChanged(() -> refresh(ersatzRequest));
+        update(current -> current.with(ersatzRequest, matchCacheSize));
 
         return request;
     }
 
     /**
-     * Used to find a request matching the given incoming client request. The first match will be returned.
+     * Used to find a request matching the given incoming client request. The first match (in configuration order) will be returned.
+     * <p>
+     * Only the expectations which could apply to the request method and path (based on the dispatch index) are evaluated. The expectations are
+     * read from an immutable snapshot, so concurrent configuration changes will not affect an in-progress match. If the match cache is enabled,
+     * the result for a previously seen request fingerprint is reused.
      *
      * @param clientRequest the incoming client request
      * @return the matching request expectation
      */
     public Optional<Request> findMatch(final ClientRequest clientRequest) {
-        return requests.stream().filter(r -> ((ErsatzRequest) r).matches(clientRequest)).findFirst();
+        return registry.get().findMatch(clientRequest).map(Request.class::cast);
+    }
+
+    /**
+     * Configures the match-result cache, which caches the result of matching requests with the same fingerprint (see {@link MatchCache}). A
+     * size of zero (the default) disables the cache. Expectations with body content or custom matchers are never cached, they are always
+     * evaluated.
+     *
+     * @param size the maximum number of cached results
+     */
+    public void matchCache(final int size) {
+        matchCacheSize = size;
+        update(current -> current.refreshed(null, size));
+    }
+
+    // a matcher change only affects the cache state (the method and path of a request never change, so the index is unaffected)
+    private void refresh(final ErsatzRequest changed) {
+        update(current -> current.refreshed(changed, matchCacheSize));
+    }
+
+    // the configuration changes are serialized, and each new snapshot is derived and published in one step - an addition extends the dispatch
+    // index shared with the current snapshot, so it must be applied exactly once (it cannot be retried, as with a compare-and-set loop)
+    private synchronized void update(final UnaryOperator<Registry> change) {
+        registry.set(change.apply(registry.get()));
     }
 
     /**
@@ -140,7 +190,7 @@ public class ExpectationsImpl implements Expectations {
      * @return the list of request expectations
      */
     public List<Request> getRequests() {
-        return unmodifiableList(requests);
+        return registry.get().view;
     }
 
     /**
@@ -152,7 +202,7 @@ public class ExpectationsImpl implements Expectations {
      * @return a value of true if all requests are verified
      */
     public boolean verify(final WaitFor waitFor) {
-        for (final Request r : requests) {
+        for (final Request r : registry.get().view) {
             if (!((ErsatzRequest) r).verify(waitFor)) {
                 log.error("Call count mismatch -> {}", r);
                 return false;
@@ -209,4 +259,62 @@ public class ExpectationsImpl implements Expectations {
     public WebSocketExpectations findWsMatch(final String path) {
         return webSockets.get(path);
     }
+
+    // the snapshot of the expectations (see RequestRegistry), and of the match cache state derived from them
+    private static final class Registry {
+
+        private final RequestRegistry<ErsatzRequest> requests;
+        private final List<Request> view;
+        private final Set<String> inspectedHeaders;
+        private final MatchCache cache;
+
+        private Registry(final RequestRegistry<ErsatzRequest> requests, final Set<String> inspectedHeaders, final int cacheSize) {
+            this.requests = requests;
+            this.view = unmodifiableList(requests.getItems());
+            this.inspectedHeaders = inspectedHeaders;
+            this.cache = cacheSize > 0 ? new MatchCache(cacheSize, inspectedHeaders) : null;
+        }
+
+        private static Registry empty(final int cacheSize) {
+            return new Registry(RequestRegistry.empty(), emptySet(), cacheSize);
+        }
+
+        private Registry with(final ErsatzRequest request, final int cacheSize) {
+            return new Registry(
+                requests.with(request, request.getMethodMatcher(), request.getPathMatcher()), inspecting(inspectedHeaders, request), cacheSize
+            );
+        }
+
+        // the cache is discarded, and the inspected headers of the changed request (if any) are added to the fingerprint
+        private Registry refreshed(final ErsatzRequest changed, final int cacheSize) {
+            return new Registry(requests, changed != null ? inspecting(inspectedHeaders, changed) : inspectedHeaders, cacheSize);
+        }
+
+        // the headers inspected by the cacheable expectations - the headers are only ever added, since a superset of the inspected headers only
+        // makes the request fingerprint more specific
+        private static Set<String> inspecting(final Set<String> headers, final ErsatzRequest request) {
+            if (!request.isCacheable() || headers.containsAll(request.getInspectedHeaders())) {
+                return headers;
+            }
+
+            val added = new HashSet<>(headers);
+            added.addAll(request.getInspectedHeaders());
+            return unmodifiableSet(added);
+        }
+
+        private Optional<ErsatzRequest> findMatch(final ClientRequest clientRequest) {
+            val method = clientRequest.getMethod();
+            val path = clientRequest.getPath();
+
+            if (cache == null) {
+                return requests.find(method, path, r -> r.matches(clientRequest));
+            }
+
+            // the cached result is the first matching cacheable expectation - non-cacheable expectations are always evaluated, in order
+            val cached = cache.resolve(
+                clientRequest, () -> requests.find(method, path, r -> r.isCacheable() && r.matches(clientRequest))
+            ).orElse(null);
+            return requests.find(method, path, r -> r.isCacheable() ? r == cached : r.matches(clientRequest));
+        }
+    }
 }
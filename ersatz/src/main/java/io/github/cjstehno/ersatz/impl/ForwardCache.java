@@ -0,0 +1,395 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.util.Locale.ROOT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An in-memory cache of the responses of forwarded requests, keyed by the forwarded request URI. The cache holds at most the configured number of
+ * responses, evicting the least-recently-used response when it is full.
+ * <p>
+ * Each cached response is fresh for the <code>s-maxage</code> or <code>max-age</code> of its <code>Cache-Control</code> header, or for the
+ * configured time-to-live if it has neither. Responses marked <code>no-store</code> or <code>private</code> (or varying by <code>*</code>) are not
+ * cached, and responses marked <code>no-cache</code> are always revalidated. A stale response is revalidated with the forward target using a
+ * conditional request (based on its <code>ETag</code> or <code>Last-Modified</code> header) - a "Not Modified" response renews it, updating its
+ * validators and <code>Cache-Control</code> header.
+ * <p>
+ * As this is a shared cache, the response to a request with credentials (an <code>Authorization</code> or <code>Cookie</code> header) is only
+ * stored if it is explicitly shareable (marked <code>public</code>, <code>s-maxage</code> or <code>must-revalidate</code>), and a request with
+ * credentials is only served a cached response which is explicitly shareable.
+ * <p>
+ * Responses with content larger than the configured maximum content size are not cached. A request served from the cache (including a
+ * revalidated response) is counted as a hit, one served by the forward target is counted as a miss.
+ */
+public class ForwardCache {
+
+    /**
+     * The default maximum size of the content of a cached response (1 MB) - larger responses are streamed to the client, but not cached.
+     */
+    public static final int DEFAULT_MAX_CONTENT_SIZE = 1024 * 1024;
+    private static final int OK = 200;
+    private static final List<String> CREDENTIAL_HEADERS = List.of("Authorization", "Cookie");
+    private static final List<String> SHARED_DIRECTIVES = List.of("public", "s-maxage", "must-revalidate");
+    private static final List<String> VALIDATOR_HEADERS = List.of("ETag", "Last-Modified", "Cache-Control");
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private Map<String, Entry> entries = new LruMap<>(0);
+    private volatile int capacity;
+    private volatile long ttl;
+    @Getter private volatile int maxContentSize = DEFAULT_MAX_CONTENT_SIZE;
+
+    /**
+     * Configures the cache, with the default maximum content size. Any currently cached responses are discarded.
+     *
+     * @param capacity the maximum number of cached responses (zero disables the cache)
+     * @param ttl      the time-to-live of a cached response without its own freshness lifetime (ms)
+     */
+    public void configure(final int capacity, final long ttl) {
+        configure(capacity, ttl, DEFAULT_MAX_CONTENT_SIZE);
+    }
+
+    /**
+     * Configures the cache. Any currently cached responses are discarded.
+     *
+     * @param capacity       the maximum number of cached responses (zero disables the cache)
+     * @param ttl            the time-to-live of a cached response without its own freshness lifetime (ms)
+     * @param maxContentSize the maximum size (in bytes) of the content of a cached response
+     */
+    public synchronized void configure(final int capacity, final long ttl, final int maxContentSize) {
+        if (maxContentSize < 0) {
+            throw new IllegalArgumentException("The maximum content size must not be negative.");
+        }
+
+        this.capacity = capacity;
+        this.ttl = ttl;
+        this.maxContentSize = maxContentSize;
+        this.entries = new LruMap<>(capacity);
+    }
+
+    /**
+     * Parses the directives of a <code>Cache-Control</code> header value. The directive names are lower-cased, and their (unquoted) values are
+     * provided - a directive without a value has an empty value.
+     *
+     * @param cacheControl the (comma-separated) cache-control header value (may be null)
+     * @return the directive values, by directive name
+     */
+    public static Map<String, String> directives(final String cacheControl) {
+        if (cacheControl == null || cacheControl.isBlank()) {
+            return Map.of();
+        }
+
+        val directives = new LinkedHashMap<String, String>();
+        for (final String directive : cacheControl.split(",")) {
+            val separator = directive.indexOf('=');
+            val name = (separator < 0 ? directive : directive.substring(0, separator)).trim().toLowerCase(ROOT);
+            if (!name.isEmpty()) {
+                val value = separator < 0 ? "" : directive.substring(separator + 1).trim().replace("\"", "");
+                directives.putIfAbsent(name, value);
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * Determines whether the cache is enabled.
+     *
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Retrieves the number of requests served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Retrieves the number of cacheable requests which were not served from the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Counts a request served from the cache.
+     */
+    public void hit() {
+        hits.incrementAndGet();
+    }
+
+    /**
+     * Counts a cacheable request which was not served from the cache.
+     */
+    public void miss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Finds the cached response (fresh or stale) for the given key, which matches the request headers the response varies by. A request with
+     * credentials is only served an explicitly shareable response.
+     *
+     * @param key            the cache key
+     * @param requestHeaders the function used to resolve the (comma-separated) value of a request header
+     * @return the cached response, or null if there is none
+     */
+    public Entry find(final String key, final Function<String, String> requestHeaders) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null || entry.varies(requestHeaders) || (!entry.shared && hasCredentials(requestHeaders))) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Determines whether a response with the given status and headers may be stored in the cache - a successful (200) response which is not
+     * marked <code>no-store</code> or <code>private</code>, does not vary by <code>*</code>, and whose declared content length (if any) is not
+     * larger than the maximum content size.
+     *
+     * @param status  the response status code
+     * @param headers the response headers
+     * @return true if the response may be stored
+     */
+    public boolean isStorable(final int status, final Map<String, List<String>> headers) {
+        return isStorable(status, headers, name -> null);
+    }
+
+    /**
+     * Determines whether a response with the given status and headers may be stored in the cache (see {@link #isStorable(int, Map)}) - the
+     * response to a request with credentials must also be explicitly shareable.
+     *
+     * @param status         the response status code
+     * @param headers        the response headers
+     * @param requestHeaders the function used to resolve the (comma-separated) value of a request header
+     * @return true if the response may be stored
+     */
+    public boolean isStorable(final int status, final Map<String, List<String>> headers, final Function<String, String> requestHeaders) {
+        val cacheControl = directives(header(headers, "Cache-Control"));
+        if (status != OK || cacheControl.containsKey("no-store") || cacheControl.containsKey("private")) {
+            return false;
+        }
+
+        if (hasCredentials(requestHeaders) && !isShared(cacheControl)) {
+            return false;
+        }
+
+        val contentLength = contentLength(headers);
+        return !header(headers, "Vary").contains("*") && contentLength <= maxContentSize;
+    }
+
+    /**
+     * Stores the given response in the cache, if it is cacheable (see {@link #isStorable(int, Map, Function)}) and its content is not larger
+     * than the maximum content size. A response which is not stored replaces any cached response for the key.
+     *
+     * @param key            the cache key
+     * @param status         the response status code
+     * @param headers        the response headers
+     * @param body           the response body content
+     * @param requestHeaders the function used to resolve the (comma-separated) value of a request header
+     * @return true if the response was stored
+     */
+    public boolean store(
+        final String key, final int status, final Map<String, List<String>> headers, final byte[] body, final Function<String, String> requestHeaders
+    ) {
+        if (!isStorable(status, headers, requestHeaders) || body.length > maxContentSize) {
+            evict(key);
+            return false;
+        }
+
+        val cacheControl = header(headers, "Cache-Control");
+        val vary = header(headers, "Vary");
+
+        val varyValues = new LinkedHashMap<String, String>();
+        for (final String name : vary.split(",")) {
+            if (!name.isBlank()) {
+                varyValues.put(name.trim(), requestHeaders.apply(name.trim()));
+            }
+        }
+
+        val entry = new Entry(
+            status, headers, body, header(headers, "ETag"), header(headers, "Last-Modified"), varyValues, isShared(directives(cacheControl))
+        );
+        entry.expiresAt = System.nanoTime() + freshness(cacheControl);
+
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the cached response for the given key, if any.
+     *
+     * @param key the cache key
+     */
+    public synchronized void evict(final String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Renews a cached response which was revalidated by the forward target (with a "Not Modified" response). The <code>ETag</code>,
+     * <code>Last-Modified</code> and <code>Cache-Control</code> headers of the "Not Modified" response replace those of the cached response, which
+     * is replaced in the cache (unless it has since been replaced or evicted).
+     *
+     * @param key     the cache key
+     * @param entry   the revalidated cached response
+     * @param headers the headers of the "Not Modified" response
+     * @return the renewed cached response
+     */
+    public Entry revalidated(final String key, final Entry entry, final Map<String, List<String>> headers) {
+        val merged = new LinkedHashMap<>(entry.headers);
+        for (final String name : VALIDATOR_HEADERS) {
+            val value = header(headers, name);
+            if (!value.isEmpty()) {
+                merged.keySet().removeIf(name::equalsIgnoreCase);
+                merged.put(name, List.of(value));
+            }
+        }
+
+        val cacheControl = header(merged, "Cache-Control");
+        val renewed = new Entry(
+            entry.status, merged, entry.body, header(merged, "ETag"), header(merged, "Last-Modified"), entry.varyValues,
+            isShared(directives(cacheControl))
+        );
+        renewed.expiresAt = System.nanoTime() + freshness(cacheControl);
+
+        synchronized (this) {
+            entries.replace(key, entry, renewed);
+        }
+        return renewed;
+    }
+
+    private static boolean hasCredentials(final Function<String, String> requestHeaders) {
+        for (final String name : CREDENTIAL_HEADERS) {
+            if (requestHeaders.apply(name) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isShared(final Map<String, String> cacheControl) {
+        for (final String directive : SHARED_DIRECTIVES) {
+            if (cacheControl.containsKey(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long freshness(final String cacheControl) {
+        val directives = directives(cacheControl);
+        if (directives.containsKey("no-cache")) {
+            return 0;
+        }
+
+        // the shared-cache lifetime takes precedence
+        val maxAge = seconds(directives.getOrDefault("s-maxage", directives.get("max-age")));
+        return maxAge >= 0 ? SECONDS.toNanos(maxAge) : MILLISECONDS.toNanos(ttl);
+    }
+
+    private static long seconds(final String value) {
+        try {
+            return value != null ? Long.parseLong(value) : -1;
+        } catch (final NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static String header(final Map<String, List<String>> headers, final String name) {
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return String.join(",", header.getValue());
+            }
+        }
+        return "";
+    }
+
+    private static long contentLength(final Map<String, List<String>> headers) {
+        val value = header(headers, "Content-Length");
+        try {
+            return value.isEmpty() ? 0 : Long.parseLong(value.trim());
+        } catch (final NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE) @Getter
+    public static final class Entry {
+
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        private final String etag;
+        private final String lastModified;
+        private final Map<String, String> varyValues;
+        @Getter(AccessLevel.NONE) private final boolean shared;
+        @Getter(AccessLevel.NONE) private volatile long expiresAt;
+
+        /**
+         * Determines whether the cached response is fresh, or must be revalidated.
+         *
+         * @return true if the response is fresh
+         */
+        public boolean isFresh() {
+            return expiresAt - System.nanoTime() > 0;
+        }
+
+        /**
+         * Determines whether the cached response may be revalidated with a conditional request.
+         *
+         * @return true if the response has a validator (an <code>ETag</code> or <code>Last-Modified</code> header)
+         */
+        public boolean isRevalidatable() {
+            return !etag.isEmpty() || !lastModified.isEmpty();
+        }
+
+        private boolean varies(final Function<String, String> requestHeaders) {
+            for (final Map.Entry<String, String> vary : varyValues.entrySet()) {
+                if (!Objects.equals(requestHeaders.apply(vary.getKey()), vary.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
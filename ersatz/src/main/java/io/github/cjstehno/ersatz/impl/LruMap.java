@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map which holds at most the configured number of entries, evicting its least-recently-used entry (by access order) when it is full. It is
+ * not thread-safe, so all access (including reads, which update the access order) must be synchronized.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+@SuppressWarnings("serial")
+final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private final int capacity;
+
+    /**
+     * Creates a new map with the given capacity.
+     *
+     * @param capacity the maximum number of entries held by the map
+     */
+    LruMap(final int capacity) {
+        super(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        this.capacity = capacity;
+    }
+
+    @Override protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        return size() > capacity;
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.HttpMethod;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.val;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A cache of request match results, keyed by a fingerprint of the request. The fingerprint consists of the request method, scheme, path,
+ * query parameters, and the values of only those headers which are inspected by the cacheable expectations.
+ * <p>
+ * Both positive and negative results are cached. A cache instance belongs to a single snapshot of the expectations, so a change to the
+ * expectations discards it. When the cache reaches its capacity, an (approximately) least-recently-used result is evicted - see
+ * {@link SampledLruCache}, the results are resolved without taking a lock.
+ */
+final class MatchCache {
+
+    private final SampledLruCache<Fingerprint, Optional<ErsatzRequest>> results;
+    private final String[] inspectedHeaders;
+
+    /**
+     * Creates a new match cache.
+     *
+     * @param capacity         the maximum number of cached results
+     * @param inspectedHeaders the (lower-case) names of the headers which are part of the request fingerprint
+     */
+    MatchCache(final int capacity, final Set<String> inspectedHeaders) {
+        this.results = new SampledLruCache<>(capacity);
+        this.inspectedHeaders = inspectedHeaders.stream().sorted().toArray(String[]::new);
+    }
+
+    /**
+     * Resolves the match result for the given request - from the cache, if the request fingerprint has been seen before, otherwise from the
+     * provided match function (whose result will be cached).
+     *
+     * @param clientRequest the client request
+     * @param match         the function used to resolve a match that is not cached
+     * @return the match result
+     */
+    Optional<ErsatzRequest> resolve(final ClientRequest clientRequest, final Supplier<Optional<ErsatzRequest>> match) {
+        val key = fingerprint(clientRequest, inspectedHeaders);
+
+        var result = results.get(key);
+        if (result == null) {
+            result = match.get();
+            results.put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the fingerprint of the given request - its method, scheme, path, query parameters, and the values of the specified headers. The
+     * fingerprint refers to the (read-only) query parameters and header values of the request, rather than copying them.
+     *
+     * @param clientRequest    the client request
+     * @param inspectedHeaders the names of the headers to be included
+     * @return the request fingerprint
+     */
+    static Fingerprint fingerprint(final ClientRequest clientRequest, final String... inspectedHeaders) {
+        val headerValues = new Deque<?>[inspectedHeaders.length];
+        for (int h = 0; h < inspectedHeaders.length; h++) {
+            headerValues[h] = clientRequest.getHeaderValues(inspectedHeaders[h]);
+        }
+
+        return new Fingerprint(
+            clientRequest.getMethod(), clientRequest.getScheme(), clientRequest.getPath(), clientRequest.getQueryParams(), headerValues
+        );
+    }
+
+    /**
+     * The fingerprint of a request. The query parameters are compared regardless of their order, and the values of each query parameter and
+     * header are compared in order.
+     */
+    static final class Fingerprint {
+
+        private final HttpMethod method;
+        private final String scheme;
+        private final String path;
+        private final Map<String, Deque<String>> query;
+        private final Deque<?>[] headerValues;
+        private final int hash;
+
+        private Fingerprint(
+            final HttpMethod method, final String scheme, final String path, final Map<String, Deque<String>> query, final Deque<?>[] headerValues
+        ) {
+            this.method = method;
+            this.scheme = scheme;
+            this.path = path;
+            this.query = query;
+            this.headerValues = headerValues;
+
+            int queryHash = 0;
+            for (final Map.Entry<String, Deque<String>> param : query.entrySet()) {
+                queryHash += param.getKey().hashCode() ^ hash(param.getValue());
+            }
+
+            int headerHash = 0;
+            for (final Deque<?> values : headerValues) {
+                headerHash = 31 * headerHash + hash(values);
+            }
+
+            this.hash = Objects.hash(method, scheme, path, queryHash, headerHash);
+        }
+
+        @Override public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof final Fingerprint other) || hash != other.hash) {
+                return false;
+            }
+
+            if (method != other.method || !Objects.equals(scheme, other.scheme) || !Objects.equals(path, other.path)) {
+                return false;
+            }
+
+            if (query.size() != other.query.size() || headerValues.length != other.headerValues.length) {
+                return false;
+            }
+
+            for (final Map.Entry<String, Deque<String>> param : query.entrySet()) {
+                if (!other.query.containsKey(param.getKey()) || !same(param.getValue(), other.query.get(param.getKey()))) {
+                    return false;
+                }
+            }
+
+            for (int h = 0; h < headerValues.length; h++) {
+                if (!same(headerValues[h], other.headerValues[h])) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+
+        @Override public String toString() {
+            return method + " " + scheme + "://" + path + " " + query + " " + Arrays.toString(headerValues);
+        }
+
+        private static int hash(final Deque<?> values) {
+            if (values == null) {
+                return 0;
+            }
+
+            int hash = 1;
+            for (final Object value : values) {
+                hash = 31 * hash + Objects.hashCode(value);
+            }
+            return hash;
+        }
+
+        // the deques do not implement equals, so their values are compared in order
+        private static boolean same(final Deque<?> values, final Deque<?> others) {
+            if (values == null || others == null) {
+                return values == others;
+            }
+            if (values.size() != others.size()) {
+                return false;
+            }
+
+            final Iterator<?> it = others.iterator();
+            for (final Object value : values) {
+                if (!Objects.equals(value, it.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
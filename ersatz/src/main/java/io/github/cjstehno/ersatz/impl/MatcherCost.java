@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+/**
+ * The relative cost class of a request matcher. Request matchers are evaluated cheapest-first, so that an inexpensive mismatch (e.g. on a
+ * header) rejects the request before any expensive matching (e.g. body content decoding) is performed. The order of the constants defines the
+ * evaluation order.
+ */
+public enum MatcherCost {
+
+    /**
+     * Matchers on the request line (method, path, and scheme).
+     */
+    REQUEST_LINE,
+
+    /**
+     * Matchers on the request query parameters.
+     */
+    QUERY,
+
+    /**
+     * Matchers on the request headers and cookies.
+     */
+    HEADER,
+
+    /**
+     * Matchers on the request body content or body parameters.
+     */
+    BODY,
+
+    /**
+     * Custom request matchers, whose cost is not known - these are evaluated last.
+     */
+    CUSTOM
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.RecordingConfig;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.val;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Default implementation of the <code>RecordingConfig</code> interface.
+ */
+@Getter
+public class RecordingConfigImpl implements RecordingConfig {
+
+    /**
+     * The default request fingerprint function (see {@link #defaultFingerprint(ClientRequest)}).
+     */
+    public static final Function<ClientRequest, String> DEFAULT_FINGERPRINT = RecordingConfigImpl::defaultFingerprint;
+
+    /**
+     * The default maximum size (in bytes) of a recorded response body.
+     */
+    public static final int DEFAULT_MAX_BODY_SIZE = 16 * 1024 * 1024;
+
+    private Path file;
+    private Mode mode = Mode.REPLAY;
+    private Function<ClientRequest, String> fingerprint = DEFAULT_FINGERPRINT;
+    private int maxBodySize = DEFAULT_MAX_BODY_SIZE;
+
+    @Override public RecordingConfig file(final Path file) {
+        this.file = file;
+        return this;
+    }
+
+    @Override public RecordingConfig mode(final Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    @Override public RecordingConfig fingerprint(final Function<ClientRequest, String> fingerprint) {
+        this.fingerprint = fingerprint;
+        return this;
+    }
+
+    @Override public RecordingConfig maxBodySize(final int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("The maximum body size must not be negative.");
+        }
+        this.maxBodySize = bytes;
+        return this;
+    }
+
+    /**
+     * The default request fingerprint function - the request method, path, (sorted) query parameters, and the SHA-256 digest of the body
+     * content (if there is any).
+     *
+     * @param clientRequest the client request
+     * @return the request fingerprint
+     */
+    public static String defaultFingerprint(final ClientRequest clientRequest) {
+        val body = clientRequest.getBody();
+        return defaultFingerprint(requestKey(clientRequest), body != null && body.length > 0 ? bodyDigest().digest(body) : null);
+    }
+
+    /**
+     * Creates the default request fingerprint from its parts - used when the digest of the body content is computed as the content is streamed,
+     * rather than from the body content in memory.
+     *
+     * @param requestKey the request method, path and query parameters (see {@link #requestKey(ClientRequest)})
+     * @param digest     the digest of the body content (see {@link #bodyDigest()}), or null if there is no body content
+     * @return the request fingerprint
+     */
+    public static String defaultFingerprint(final String requestKey, final byte[] digest) {
+        return digest != null ? requestKey + ' ' + HexFormat.of().formatHex(digest) : requestKey;
+    }
+
+    /**
+     * Creates the part of the default request fingerprint which does not depend on the body content - the request method, path and (sorted)
+     * query parameters.
+     *
+     * @param clientRequest the client request
+     * @return the request key
+     */
+    public static String requestKey(final ClientRequest clientRequest) {
+        val key = new StringBuilder().append(clientRequest.getMethod()).append(' ').append(clientRequest.getPath());
+
+        val query = new TreeMap<String, Object>(clientRequest.getQueryParams());
+        if (!query.isEmpty()) {
+            key.append(' ').append(query);
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Creates the message digest used for the body content in the default request fingerprint.
+     *
+     * @return a new message digest
+     */
+    @SneakyThrows
+    public static MessageDigest bodyDigest() {
+        return MessageDigest.getInstance("SHA-256");
+    }
+}
@@ -0,0 +1,272 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.HttpMethod;
+import io.github.cjstehno.ersatz.impl.matchers.PathTemplate;
+import io.github.cjstehno.ersatz.match.HttpMethodMatcher;
+import io.github.cjstehno.ersatz.match.PathMatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A dispatch index used to narrow down the configured items (e.g. request expectations) which could apply to an incoming request, based on the
+ * literal HTTP method and the path template of their method and path matchers. Literal paths and path templates are compiled into a segment
+ * trie for each method, so the cost of a lookup depends on the depth of the request path rather than the number of configured items.
+ * <p>
+ * Items whose path cannot be resolved to a template are kept in an un-indexed list for each method, which is always consulted; items whose
+ * methods cannot be resolved are registered for all methods. The candidate items are always visited in registration order, so the first-match
+ * semantics of a linear scan are preserved.
+ * <p>
+ * The index is append-only: adding an item only extends the trie path of the item, and the items are numbered in registration order. A lookup
+ * is limited to the items registered before a given count, so the index may be shared by successive snapshots (see {@link RequestRegistry}),
+ * each seeing only its own items. The index may be read while it is being added to, but it only supports a single writer at a time.
+ *
+ * @param <T> the type of indexed item
+ */
+class RequestIndex<T> {
+
+    private static final Set<HttpMethod> ALL_METHODS = EnumSet.allOf(HttpMethod.class);
+
+    private final Entries<T> entries = new Entries<>();
+    private final Map<HttpMethod, Node<T>> routes = new EnumMap<>(HttpMethod.class);
+    private final Map<HttpMethod, Entries<T>> unindexed = new EnumMap<>(HttpMethod.class);
+
+    /**
+     * Creates a new empty index. The per-method structure is created up front, so that it is never modified while being read.
+     */
+    RequestIndex() {
+        for (val method : ALL_METHODS) {
+            routes.put(method, new Node<>());
+            unindexed.put(method, new Entries<>());
+        }
+    }
+
+    /**
+     * Retrieves the number of items added to the index.
+     *
+     * @return the number of indexed items
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retrieves the indexed item with the given registration number.
+     *
+     * @param index the registration number of the item (zero-based)
+     * @return the item
+     */
+    T get(final int index) {
+        return entries.get(index).item;
+    }
+
+    /**
+     * Adds the item to the index, keyed by the literal methods and path template of the provided method and path matchers (if any).
+     *
+     * @param item          the item to be indexed
+     * @param methodMatcher the method matcher of the item
+     * @param pathMatcher   the path matcher of the item
+     */
+    void add(final T item, final HttpMethodMatcher methodMatcher, final PathMatcher pathMatcher) {
+        val entry = new Entry<>(entries.size(), item, methodMatcher, pathMatcher);
+
+        val template = pathMatcher.getTemplateSegments();
+
+        for (val method : methodMatcher.getLiteralMethods().orElse(ALL_METHODS)) {
+            if (template.isPresent()) {
+                routes.get(method).insert(template.get(), entry);
+            } else {
+                unindexed.get(method).add(entry);
+            }
+        }
+
+        // the entry is visible to the snapshots once it is counted
+        entries.add(entry);
+    }
+
+    /**
+     * Creates a new index containing the given number of the first items of this index.
+     *
+     * @param count the number of items to be copied
+     * @return the new index
+     */
+    RequestIndex<T> copy(final int count) {
+        val copied = new RequestIndex<T>();
+        for (int i = 0; i < count; i++) {
+            val entry = entries.get(i);
+            copied.add(entry.item, entry.methodMatcher, entry.pathMatcher);
+        }
+        return copied;
+    }
+
+    /**
+     * Finds the first item (in registration order) which could apply to the given method and path, and which is accepted by the provided filter.
+     * If either the method or path is not available, all items are considered. Only the items registered before the limit are considered.
+     *
+     * @param method the request method
+     * @param path   the request path
+     * @param filter the filter applied to the candidate items
+     * @param limit  the number of registered items considered
+     * @return the first accepted item
+     */
+    Optional<T> find(final HttpMethod method, final String path, final Predicate<T> filter, final int limit) {
+        val candidates = new ArrayList<Entries<T>>();
+
+        if (method == null || path == null) {
+            candidates.add(entries);
+
+        } else {
+            routes.get(method).collect(PathTemplate.split(path), 0, candidates);
+            candidates.add(unindexed.get(method));
+        }
+
+        return first(candidates, filter, limit);
+    }
+
+    // walks the (individually ordered) lists of candidate entries in overall registration order
+    private static <T> Optional<T> first(final List<Entries<T>> candidates, final Predicate<T> filter, final int limit) {
+        val positions = new int[candidates.size()];
+
+        while (true) {
+            int next = -1;
+            for (int c = 0; c < positions.length; c++) {
+                if (sequence(candidates, positions, c) < limit && precedes(candidates, positions, c, next)) {
+                    next = c;
+                }
+            }
+
+            if (next < 0) {
+                return Optional.empty();
+            }
+
+            val item = candidates.get(next).get(positions[next]++).item;
+            if (filter.test(item)) {
+                return Optional.of(item);
+            }
+        }
+    }
+
+    private static <T> boolean precedes(final List<Entries<T>> candidates, final int[] positions, final int index, final int current) {
+        return current < 0 || sequence(candidates, positions, index) < sequence(candidates, positions, current);
+    }
+
+    // the sequence of the current entry of the candidate list (or the maximum value, if the list is exhausted)
+    private static <T> int sequence(final List<Entries<T>> candidates, final int[] positions, final int index) {
+        val list = candidates.get(index);
+        return positions[index] < list.size() ? list.get(positions[index]).sequence : Integer.MAX_VALUE;
+    }
+
+    @RequiredArgsConstructor(access = PRIVATE)
+    private static class Entry<T> {
+
+        private final int sequence;
+        private final T item;
+        private final HttpMethodMatcher methodMatcher;
+        private final PathMatcher pathMatcher;
+    }
+
+    // an append-only list of entries, which may be read while an entry is being appended - an entry is written before the size which counts it
+    private static final class Entries<T> {
+
+        private static final int INITIAL_CAPACITY = 4;
+        private volatile Object[] items = new Object[INITIAL_CAPACITY];
+        private volatile int size;
+
+        private void add(final Entry<T> entry) {
+            Object[] current = items;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                items = current;
+            }
+
+            current[size] = entry;
+            size = size + 1;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Entry<T> get(final int index) {
+            return (Entry<T>) items[index];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    // a node of the segment trie - literal segments are keyed by value, while all variable segments share a single child node
+    private static class Node<T> {
+
+        private final Map<String, Node<T>> literals = new ConcurrentHashMap<>();
+        private final Entries<T> entries = new Entries<>();
+        private volatile Node<T> variable;
+
+        // the variable segments of the template are null
+        private void insert(final List<String> template, final Entry<T> entry) {
+            Node<T> node = this;
+
+            for (final String segment : template) {
+                if (segment == null) {
+                    if (node.variable == null) {
+                        node.variable = new Node<>();
+                    }
+                    node = node.variable;
+
+                } else {
+                    node = node.literals.computeIfAbsent(segment, k -> new Node<>());
+                }
+            }
+
+            node.entries.add(entry);
+        }
+
+        private void collect(final String[] segments, final int depth, final List<Entries<T>> found) {
+            if (depth == segments.length) {
+                if (!entries.isEmpty()) {
+                    found.add(entries);
+                }
+
+            } else {
+                val literal = literals.get(segments[depth]);
+                if (literal != null) {
+                    literal.collect(segments, depth + 1, found);
+                }
+
+                val variableNode = variable;
+                if (variableNode != null && !segments[depth].isEmpty()) {
+                    variableNode.collect(segments, depth + 1, found);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import io.github.cjstehno.ersatz.match.HeaderMatcher;
+import io.github.cjstehno.ersatz.match.RequestCookieMatcher;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.hamcrest.Matcher;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Locale.ROOT;
+
+/**
+ * An immutable set of request matchers, held both in configured order (for reporting) and in cost order (for evaluation). Adding a matcher
+ * creates a new instance, so that a set may be safely published to, and evaluated by, the request handling threads while the configuration
+ * continues to change.
+ * <p>
+ * A set is considered cacheable when its result depends only on the request method, scheme, path, query parameters and a known set of
+ * inspected headers (cookies are inspected by way of the cookie header) - body content and custom matchers make a set non-cacheable.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class RequestMatchers {
+
+    /**
+     * An empty set of request matchers.
+     */
+    static final RequestMatchers EMPTY = new RequestMatchers(matcherArray(0), matcherArray(0), new MatcherCost[0], true, emptySet());
+
+    private static final String COOKIE_HEADER = "cookie";
+
+    private final Matcher<ClientRequest>[] configured;
+    private final Matcher<ClientRequest>[] evaluated;
+    private final MatcherCost[] costs;
+    @Getter private final boolean cacheable;
+    @Getter private final Set<String> inspectedHeaders;
+
+    /**
+     * Creates a new set of matchers containing the matchers of this set, along with the provided matcher. The added matcher is evaluated after
+     * all matchers of a lower or equal cost class.
+     *
+     * @param matcher the matcher to be added
+     * @param cost    the cost class of the matcher
+     * @return the new set of matchers
+     */
+    RequestMatchers with(final Matcher<ClientRequest> matcher, final MatcherCost cost) {
+        val added = Arrays.copyOf(configured, configured.length + 1);
+        added[configured.length] = matcher;
+
+        var position = costs.length;
+        while (position > 0 && costs[position - 1].compareTo(cost) > 0) {
+            position--;
+        }
+
+        val headers = new HashSet<>(inspectedHeaders);
+        val addedCacheable = cacheable && isCacheable(matcher, cost, headers);
+
+        return new RequestMatchers(
+            added, insert(evaluated, position, matcher), insert(costs, position, cost), addedCacheable, unmodifiableSet(headers)
+        );
+    }
+
+    /**
+     * Determines whether the result of a matcher depends only on the request method, scheme, path, query parameters and the headers it
+     * inspects, collecting the (lower-case) names of the inspected headers.
+     */
+    private static boolean isCacheable(final Matcher<ClientRequest> matcher, final MatcherCost cost, final Set<String> headers) {
+        boolean result = cost == MatcherCost.REQUEST_LINE || cost == MatcherCost.QUERY;
+
+        if (matcher instanceof RequestCookieMatcher) {
+            headers.add(COOKIE_HEADER);
+            result = true;
+        } else if (matcher instanceof HeaderMatcher headerMatcher && headerMatcher.getHeaderName().isPresent()) {
+            headers.add(headerMatcher.getHeaderName().get().toLowerCase(ROOT));
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Determines whether all matchers match the provided request. The matchers are evaluated cheapest-first, and the evaluation stops at the
+     * first mismatch.
+     *
+     * @param clientRequest the client request
+     * @return true if all the matchers match the request
+     */
+    boolean matches(final ClientRequest clientRequest) {
+        for (final Matcher<ClientRequest> matcher : evaluated) {
+            if (!matcher.matches(clientRequest)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the matchers in the order they were configured.
+     *
+     * @return an immutable list of the matchers
+     */
+    List<Matcher<ClientRequest>> toList() {
+        return unmodifiableList(asList(configured));
+    }
+
+    private static <T> T[] insert(final T[] array, final int position, final T item) {
+        val inserted = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, position, inserted, position + 1, array.length - position);
+        inserted[position] = item;
+        return inserted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Matcher<ClientRequest>[] matcherArray(final int size) {
+        return new Matcher[size];
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.HttpMethod;
+import io.github.cjstehno.ersatz.match.HttpMethodMatcher;
+import io.github.cjstehno.ersatz.match.PathMatcher;
+import lombok.val;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * An immutable snapshot of the configured items (e.g. request expectations or requirements), in registration order, along with their dispatch
+ * index (see {@link RequestIndex}).
+ * <p>
+ * Adding an item creates a new snapshot which shares the index of this one - the item is appended to the index, and the new snapshot simply
+ * counts one more item, so the cost of an addition does not depend on the number of configured items. Since an addition modifies the shared
+ * index, it is not a pure function of the snapshot: the additions must be serialized by the owner of the snapshots, and each new snapshot
+ * published as part of the same step (e.g. under a lock, rather than with a compare-and-set loop, which may apply an update more than once). An
+ * addition to a snapshot which is no longer the latest one copies its items into a new index instead.
+ *
+ * @param <T> the type of the registered items
+ */
+final class RequestRegistry<T> {
+
+    private final RequestIndex<T> index;
+    private final int size;
+    private final List<T> items;
+
+    private RequestRegistry(final RequestIndex<T> index, final int size) {
+        this.index = index;
+        this.size = size;
+        this.items = new Items();
+    }
+
+    /**
+     * Creates a new empty registry, with its own index.
+     *
+     * @param <T> the type of the registered items
+     * @return the empty registry
+     */
+    static <T> RequestRegistry<T> empty() {
+        return new RequestRegistry<>(new RequestIndex<>(), 0);
+    }
+
+    /**
+     * Creates a new snapshot containing the items of this one, followed by the given item. The item is appended to the shared index, so the new
+     * snapshot must be published by the caller (see the class documentation).
+     *
+     * @param item          the item to be added
+     * @param methodMatcher the method matcher of the item
+     * @param pathMatcher   the path matcher of the item
+     * @return the new snapshot
+     */
+    RequestRegistry<T> with(final T item, final HttpMethodMatcher methodMatcher, final PathMatcher pathMatcher) {
+        synchronized (index) {
+            if (index.size() == size) {
+                index.add(item, methodMatcher, pathMatcher);
+                return new RequestRegistry<>(index, size + 1);
+            }
+        }
+
+        val copied = index.copy(size);
+        copied.add(item, methodMatcher, pathMatcher);
+        return new RequestRegistry<>(copied, size + 1);
+    }
+
+    /**
+     * Retrieves the registered items, in registration order.
+     *
+     * @return an immutable list of the registered items
+     */
+    List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Finds the first registered item (in registration order) which could apply to the given method and path, and which is accepted by the
+     * provided filter.
+     *
+     * @param method the request method
+     * @param path   the request path
+     * @param filter the filter applied to the candidate items
+     * @return the first accepted item
+     */
+    Optional<T> find(final HttpMethod method, final String path, final Predicate<T> filter) {
+        return index.find(method, path, filter, size);
+    }
+
+    // an immutable view of the items counted by this snapshot
+    private final class Items extends AbstractList<T> implements RandomAccess {
+
+        @Override public T get(final int position) {
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+            }
+            return index.get(position);
+        }
+
+        @Override public int size() {
+            return size;
+        }
+    }
+}
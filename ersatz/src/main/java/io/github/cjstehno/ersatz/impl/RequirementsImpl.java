@@ -20,19 +20,22 @@ import io.github.cjstehno.ersatz.cfg.Requirements;
 import io.github.cjstehno.ersatz.match.HttpMethodMatcher;
 import io.github.cjstehno.ersatz.match.PathMatcher;
 import io.github.cjstehno.ersatz.server.ClientRequest;
-import lombok.Getter;
 import lombok.val;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
  * Implementation of the Requirements interface used to perform the configuration of the request requirements.
+ * <p>
+ * The configured requirements are held as an immutable snapshot (see {@link RequestRegistry}, which is shared with the expectations), which is
+ * replaced (under a lock, one change at a time) when the configuration changes - checking a request only reads the current snapshot. Only the
+ * requirements which could apply to the request method and path are considered.
  */
 public class RequirementsImpl implements Requirements {
 
-    @Getter private final List<ErsatzRequestRequirement> requirements = new LinkedList<>();
+    private final AtomicReference<RequestRegistry<ErsatzRequestRequirement>> registry = new AtomicReference<>(RequestRegistry.empty());
 
     @Override
     public RequestRequirement that(final HttpMethodMatcher methodMatcher, final PathMatcher pathMatcher, final Consumer<RequestRequirement> config) {
@@ -42,7 +45,10 @@ public class RequirementsImpl implements Requirements {
             config.accept(requirement);
         }
 
-        requirements.add(requirement);
+        // the addition extends the index shared with the current snapshot, so it is applied and published in one step (never retried)
+        synchronized (this) {
+            registry.set(registry.get().with(requirement, methodMatcher, pathMatcher));
+        }
 
         return requirement;
     }
@@ -50,8 +56,17 @@ public class RequirementsImpl implements Requirements {
     /**
      * Clears the configured requirements.
      */
-    public void clear() {
-        requirements.clear();
+    public synchronized void clear() {
+        registry.set(RequestRegistry.empty());
+    }
+
+    /**
+     * Retrieves the configured requirements.
+     *
+     * @return an immutable list of the configured requirements
+     */
+    public List<ErsatzRequestRequirement> getRequirements() {
+        return registry.get().getItems();
     }
 
     /**
@@ -61,15 +76,9 @@ public class RequirementsImpl implements Requirements {
      * @return a value of true if the configured requirements are met
      */
     public boolean check(final ClientRequest clientRequest) {
-        if (!requirements.isEmpty()) {
-            val applicable = requirements.stream().filter(r -> r.matches(clientRequest)).toList();
-            if (!applicable.isEmpty()) {
-                return applicable.stream().allMatch(r -> r.check(clientRequest));
-            } else {
-                return true;
-            }
-        } else {
-            return true;
-        }
+        // the requirements are met when no applicable requirement fails its check
+        return registry.get().find(
+            clientRequest.getMethod(), clientRequest.getPath(), r -> r.matches(clientRequest) && !r.check(clientRequest)
+        ).isEmpty();
     }
 }
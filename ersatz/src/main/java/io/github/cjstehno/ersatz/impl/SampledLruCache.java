@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe cache which holds (approximately) at most the configured number of entries. Reads are lock-free - rather than maintaining a
+ * shared access order, each entry records the time it was last accessed, and when the cache exceeds its capacity a small sample of its entries
+ * is inspected and the least-recently-used of them is evicted. This approximates least-recently-used eviction without serializing the reads.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class SampledLruCache<K, V> {
+
+    private static final int SAMPLE_SIZE = 8;
+    private final Map<K, Slot<V>> entries = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    /**
+     * Creates a new cache with the given capacity.
+     *
+     * @param capacity the maximum number of cached entries
+     */
+    SampledLruCache(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Retrieves the cached value for the given key, marking it as recently used.
+     *
+     * @param key the key
+     * @return the cached value, or null if there is none
+     */
+    V get(final K key) {
+        val slot = entries.get(key);
+        if (slot == null) {
+            return null;
+        }
+
+        slot.accessed = System.nanoTime();
+        return slot.value;
+    }
+
+    /**
+     * Caches the given value for the given key, evicting a least-recently-used entry if the cache is over its capacity.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    void put(final K key, final V value) {
+        entries.put(key, new Slot<>(value));
+
+        if (entries.size() > capacity) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        Map.Entry<K, Slot<V>> eldest = null;
+
+        int sampled = 0;
+        for (final Map.Entry<K, Slot<V>> entry : entries.entrySet()) {
+            if (eldest == null || entry.getValue().accessed - eldest.getValue().accessed < 0) {
+                eldest = entry;
+            }
+
+            if (++sampled == SAMPLE_SIZE) {
+                break;
+            }
+        }
+
+        if (eldest != null) {
+            entries.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Slot<V> {
+
+        private final V value;
+        private volatile long accessed = System.nanoTime();
+    }
+}
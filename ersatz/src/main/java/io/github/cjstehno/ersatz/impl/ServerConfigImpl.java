@@ -16,12 +16,14 @@
 package io.github.cjstehno.ersatz.impl;
 
 import io.github.cjstehno.ersatz.cfg.Expectations;
+import io.github.cjstehno.ersatz.cfg.RecordingConfig;
 import io.github.cjstehno.ersatz.cfg.Requirements;
 import io.github.cjstehno.ersatz.cfg.ServerConfig;
 import io.github.cjstehno.ersatz.encdec.DecodingContext;
 import io.github.cjstehno.ersatz.encdec.RequestDecoders;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
 import lombok.Getter;
+import lombok.val;
 
 import java.net.URL;
 import java.util.concurrent.TimeUnit;
@@ -37,6 +39,9 @@ public class ServerConfigImpl implements ServerConfig {
     private static final int DEFAULT_WORKER_THREADS = 16;
     private static final int DEFAULT_IO_THREADS = 2;
     private static final int EPHEMERAL_PORT = 0;
+    private static final int DEFAULT_FORWARD_CONNECTIONS = 5;
+    private static final long DEFAULT_FORWARD_TIMEOUT = 10_000;
+    private static final int DEFAULT_FORWARD_CONCURRENCY = 256;
     private boolean httpsEnabled;
     private boolean autoStartEnabled = true;
     private boolean mismatchToConsole;
@@ -48,11 +53,17 @@ public class ServerConfigImpl implements ServerConfig {
     private final ResponseEncoders globalEncoders = new ResponseEncoders();
     @Getter private final ExpectationsImpl expectations;
     @Getter private final RequirementsImpl requirements;
+    @Getter private final UnmatchedRequests unmatchedRequests = new UnmatchedRequests();
     private Runnable starter;
     private long timeout;
     private boolean logResponseContent;
     private int ioThreads = DEFAULT_IO_THREADS;
     private int workerThreads = DEFAULT_WORKER_THREADS;
+    private int forwardConnections = DEFAULT_FORWARD_CONNECTIONS;
+    private long forwardTimeout = DEFAULT_FORWARD_TIMEOUT;
+    private int forwardConcurrency = DEFAULT_FORWARD_CONCURRENCY;
+    private RecordingConfigImpl recordingConfig;
+    @Getter private final ForwardCache forwardCache = new ForwardCache();
 
     /**
      * Creates a new empty configuration instance.
@@ -159,11 +170,12 @@ public class ServerConfigImpl implements ServerConfig {
     }
 
     /**
-     * Used to clear out the configured expectations and requirements.
+     * Used to clear out the configured expectations and requirements, as well as the retained unmatched requests.
      */
     public void clearExpectations() {
         expectations.clear();
         requirements.clear();
+        unmatchedRequests.clear();
     }
 
     /**
@@ -193,6 +205,42 @@ public class ServerConfigImpl implements ServerConfig {
         return workerThreads;
     }
 
+    /**
+     * Retrieves the size of the connection pool used by forwarded requests. Defaults to 5.
+     *
+     * @return the maximum number of idle pooled connections
+     */
+    public int getForwardConnections() {
+        return forwardConnections;
+    }
+
+    /**
+     * Retrieves the maximum number of concurrent forwarded requests. Defaults to 256.
+     *
+     * @return the maximum number of concurrent forwarded requests
+     */
+    public int getForwardConcurrency() {
+        return forwardConcurrency;
+    }
+
+    /**
+     * Retrieves the timeout applied to forwarded requests, in milliseconds. Defaults to 10 seconds.
+     *
+     * @return the forwarded request timeout (ms)
+     */
+    public long getForwardTimeout() {
+        return forwardTimeout;
+    }
+
+    /**
+     * Retrieves the forwarded request recording configuration.
+     *
+     * @return the recording configuration, or null if recording is not configured
+     */
+    public RecordingConfigImpl getRecordingConfig() {
+        return recordingConfig;
+    }
+
     /**
      * Used to enable/disable the auto-start feature, which will start the server after any call to either of the <code>expectations</code>
      * configuration methods. With this setting enabled, any other calls to the <code>start()</code> method are ignored. Further configuration is
@@ -302,6 +350,51 @@ public class ServerConfigImpl implements ServerConfig {
         return this;
     }
 
+    @Override public ServerConfig unmatchedHistory(final int size) {
+        unmatchedRequests.capacity(size);
+        return this;
+    }
+
+    @Override public ServerConfig matchCache(final int size) {
+        expectations.matchCache(size);
+        return this;
+    }
+
+    @Override public ServerConfig forwardConnections(final int size) {
+        forwardConnections = size;
+        return this;
+    }
+
+    @Override public ServerConfig forwardConcurrency(final int maxRequests) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("The forward concurrency must be at least 1.");
+        }
+        forwardConcurrency = maxRequests;
+        return this;
+    }
+
+    @Override public ServerConfig forwardTimeout(final int value, final TimeUnit units) {
+        forwardTimeout = units.toMillis(value);
+        return this;
+    }
+
+    @Override public ServerConfig forwardRecording(final Consumer<RecordingConfig> config) {
+        val recording = new RecordingConfigImpl();
+        config.accept(recording);
+
+        if (recording.getFile() == null) {
+            throw new IllegalArgumentException("A recording file must be configured.");
+        }
+
+        recordingConfig = recording;
+        return this;
+    }
+
+    @Override public ServerConfig forwardCache(final int size, final int ttl, final TimeUnit units, final int maxContentSize) {
+        forwardCache.configure(size, units.toMillis(ttl), maxContentSize);
+        return this;
+    }
+
     @Override public ServerConfig requirements(final Consumer<Requirements> requires) {
         requires.accept(requirements);
         return this;
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.ThrottleConfig;
+
+import static java.lang.String.format;
+
+/**
+ * Default implementation of the <code>ThrottleConfig</code> interface.
+ */
+public class ThrottleConfigImpl implements ThrottleConfig {
+
+    private static final long DEFAULT_BYTES_PER_SECOND = 1024;
+    private long bytesPerSecond = DEFAULT_BYTES_PER_SECOND;
+    private long timeToFirstByte;
+    private double jitter;
+
+    /**
+     * Used to specify the rate at which the response content is written.
+     *
+     * @param value the number of bytes per second (must be greater than zero)
+     * @return a reference to the config
+     */
+    public ThrottleConfig bytesPerSecond(final long value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("The bytes per second must be greater than zero.");
+        }
+        bytesPerSecond = value;
+        return this;
+    }
+
+    /**
+     * Used to specify the delay before the first byte of the response content is written.
+     *
+     * @param value the time-to-first-byte in milliseconds
+     * @return a reference to the config
+     */
+    public ThrottleConfig timeToFirstByte(final long value) {
+        timeToFirstByte = value;
+        return this;
+    }
+
+    /**
+     * Used to specify a random jitter applied to the pacing of the writes, as a fraction of the pacing interval.
+     *
+     * @param value the jitter fraction (between 0 and 1)
+     * @return a reference to the config
+     */
+    public ThrottleConfig jitter(final double value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException("The jitter must be between 0 and 1.");
+        }
+        jitter = value;
+        return this;
+    }
+
+    /**
+     * Used to retrieve the rate at which the response content is written (defaults to 1024).
+     *
+     * @return the number of bytes per second
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Used to retrieve the time-to-first-byte delay.
+     *
+     * @return the time-to-first-byte in milliseconds
+     */
+    public long getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    /**
+     * Used to retrieve the pacing jitter.
+     *
+     * @return the jitter fraction
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    @Override public String toString() {
+        return format("ThrottleConfig(bytesPerSecond:%d, timeToFirstByte:%d, jitter:%s)", bytesPerSecond, timeToFirstByte, jitter);
+    }
+}
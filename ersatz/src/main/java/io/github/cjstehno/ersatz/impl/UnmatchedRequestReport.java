@@ -15,6 +15,7 @@
  */
 package io.github.cjstehno.ersatz.impl;
 
+import io.github.cjstehno.ersatz.cfg.Request;
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -39,9 +40,18 @@ public class UnmatchedRequestReport implements Report {
 
     private final AtomicReference<String> cache = new AtomicReference<>();
     private final ClientRequest request;
-    private final List<ErsatzRequest> expectations;
+    private final List<? extends Request> expectations;
     private final List<ErsatzRequestRequirement> requirements;
 
+    /**
+     * Retrieves the unmatched request.
+     *
+     * @return the unmatched request
+     */
+    public ClientRequest getRequest() {
+        return request;
+    }
+
     @Override public String render() {
         if (cache.get() == null) {
             val out = new StringBuilder();
@@ -136,7 +146,7 @@ public class UnmatchedRequestReport implements Report {
         out.append("# Expectations\n\n");
 
         for (int index = 0; index < expectations.size(); index++) {
-            val req = expectations.get(index);
+            val req = (ErsatzRequest) expectations.get(index);
             val count = req.getRequestMatchers().size();
 
             out.append("Expectation %d (%d matchers):\n".formatted(index, count));
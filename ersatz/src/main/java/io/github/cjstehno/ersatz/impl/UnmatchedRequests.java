@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.cfg.Request;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Records the requests which did not match any expectation (or failed the requirements).
+ * <p>
+ * Recording a mismatch only captures a copy of the request (see {@link CapturedClientRequest}) into a bounded ring buffer of the most recent
+ * unmatched requests - the (expensive) rendering of the report is performed on a separate reporting thread, and is rate-limited, so that a
+ * flood of mismatched requests does not dominate the request handling threads. Reports which exceed the rate limit are not rendered, but they
+ * are counted, and still recorded in the ring buffer - the count is logged with the next rendered report, or once the rate-limit window has
+ * passed (or on shutdown), whichever comes first.
+ */
+@Slf4j
+public class UnmatchedRequests {
+
+    /**
+     * The default number of unmatched requests retained.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private static final int REPORTS_PER_SECOND = 10;
+    private static final long WINDOW_NANOS = SECONDS.toNanos(1);
+    private static final long SHUTDOWN_TIMEOUT = 5;
+
+    private volatile Ring ring = new Ring(DEFAULT_CAPACITY);
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+    private final AtomicLong renderedCount = new AtomicLong();
+    private final AtomicLong suppressedCount = new AtomicLong();
+    private ScheduledThreadPoolExecutor reporter;
+
+    /**
+     * Configures the number of unmatched requests retained. Any currently retained requests are discarded.
+     *
+     * @param capacity the number of unmatched requests to be retained
+     */
+    public void capacity(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The unmatched request capacity must be at least 1.");
+        }
+        ring = new Ring(capacity);
+    }
+
+    /**
+     * Records an unmatched request, and schedules the rendering of its report (subject to the rate limit).
+     *
+     * @param request      the unmatched request
+     * @param expectations the configured expectations (an immutable snapshot, retained as-is)
+     * @param requirements the configured requirements
+     * @param toConsole    whether the report should also be written to the console
+     */
+    public void record(
+        final ClientRequest request, final List<? extends Request> expectations, final List<ErsatzRequestRequirement> requirements,
+        final boolean toConsole
+    ) {
+        val report = new UnmatchedRequestReport(CapturedClientRequest.capture(request), expectations, requirements);
+        ring.add(report);
+
+        if (log.isWarnEnabled() || toConsole) {
+            if (!permitted() || !schedule(() -> render(report, toConsole))) {
+                suppress();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the reports for the retained unmatched requests, oldest first.
+     *
+     * @return an immutable list of the unmatched request reports
+     */
+    public List<UnmatchedRequestReport> getReports() {
+        return ring.toList();
+    }
+
+    /**
+     * Discards all retained unmatched requests.
+     */
+    public void clear() {
+        ring = new Ring(ring.slots.length());
+    }
+
+    /**
+     * Shuts down the reporting thread, waiting (for a bounded time) for the reports already scheduled to be rendered, and logs the count of any
+     * reports which were not rendered due to the rate limit. A new reporting thread is started if needed.
+     */
+    public void shutdown() {
+        final ScheduledThreadPoolExecutor stopping;
+        synchronized (this) {
+            stopping = reporter;
+            reporter = null;
+        }
+
+        if (stopping != null) {
+            stopping.shutdown();
+            try {
+                if (!stopping.awaitTermination(SHUTDOWN_TIMEOUT, SECONDS)) {
+                    log.warn(
+                        "Unmatched request reporting did not complete within {} seconds - the remaining reports were not rendered.",
+                        SHUTDOWN_TIMEOUT
+                    );
+                    stopping.shutdownNow();
+                }
+            } catch (final InterruptedException ie) {
+                stopping.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        flushSuppressed();
+    }
+
+    /**
+     * Retrieves the number of unmatched request reports which have been rendered.
+     *
+     * @return the number of rendered reports
+     */
+    long getRenderedCount() {
+        return renderedCount.get();
+    }
+
+    /**
+     * Retrieves the number of unmatched request reports which were not rendered, due to the rate limit.
+     *
+     * @return the number of suppressed reports
+     */
+    long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    private boolean permitted() {
+        val now = System.nanoTime();
+        val start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= REPORTS_PER_SECOND;
+    }
+
+    // the first report suppressed in a window schedules the logging of the suppressed count, in case no later report is rendered
+    private void suppress() {
+        suppressedCount.incrementAndGet();
+        if (suppressed.incrementAndGet() == 1) {
+            try {
+                reporter().schedule(this::flushSuppressed, WINDOW_NANOS, NANOSECONDS);
+            } catch (final RejectedExecutionException ree) {
+                // the reporter is being shut down, which will log the count
+            }
+        }
+    }
+
+    private boolean schedule(final Runnable rendering) {
+        try {
+            reporter().execute(rendering);
+            return true;
+        } catch (final RejectedExecutionException ree) {
+            // the reporter is being shut down
+            return false;
+        }
+    }
+
+    private synchronized ScheduledThreadPoolExecutor reporter() {
+        if (reporter == null) {
+            reporter = new ScheduledThreadPoolExecutor(1, runnable -> {
+                val thread = new Thread(runnable, "ersatz-unmatched-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // a pending flush of the suppressed count is performed directly by the shutdown, rather than waiting for it
+            reporter.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        return reporter;
+    }
+
+    private void render(final UnmatchedRequestReport report, final boolean toConsole) {
+        flushSuppressed();
+
+        val rendered = report.render();
+        log.warn(rendered);
+        renderedCount.incrementAndGet();
+
+        if (toConsole) {
+            System.out.println(rendered);
+        }
+    }
+
+    private void flushSuppressed() {
+        val skipped = suppressed.getAndSet(0);
+        if (skipped > 0) {
+            log.warn("Unmatched request reporting was rate-limited: {} report(s) were not rendered.", skipped);
+        }
+    }
+
+    private static final class Ring {
+
+        private final AtomicReferenceArray<UnmatchedRequestReport> slots;
+        private final AtomicLong next = new AtomicLong();
+
+        private Ring(final int capacity) {
+            slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        private void add(final UnmatchedRequestReport report) {
+            slots.set((int) (next.getAndIncrement() % slots.length()), report);
+        }
+
+        private List<UnmatchedRequestReport> toList() {
+            val count = next.get();
+            val list = new ArrayList<UnmatchedRequestReport>(slots.length());
+
+            for (long index = Math.max(0, count - slots.length()); index < count; index++) {
+                val report = slots.get((int) (index % slots.length()));
+                if (report != null) {
+                    list.add(report);
+                }
+            }
+
+            return unmodifiableList(list);
+        }
+    }
+}
@@ -21,19 +21,24 @@ import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.collection.IsMapContaining.hasKey;
 
 /**
- * Matcher for matching the existence of a key in a map.
+ * Matcher for matching the existence of a key in a map. When created with a literal key name (and a value lookup function), the key is looked up
+ * directly, rather than scanning the map keys.
  */
 public class MapKeyMatcher extends BaseMatcher<ClientRequest> {
 
     private final String label;
+    private final String name;
+    private final boolean negated;
     private final Matcher<?> keyMatcher;
     private final Function<ClientRequest, Map<String, ?>> mapProvider;
+    private final BiFunction<ClientRequest, String, ?> valueLookup;
 
     /**
      * Creates a map key matcher.
@@ -45,13 +50,37 @@ public class MapKeyMatcher extends BaseMatcher<ClientRequest> {
      */
     public MapKeyMatcher(
         final String label, final Matcher<String> nameMatcher, final boolean negated, final Function<ClientRequest, Map<String, ?>> mapProvider
+    ) {
+        this(label, null, nameMatcher, negated, mapProvider, null);
+    }
+
+    /**
+     * Creates a map key matcher for a literal key name, which looks up the named value directly rather than scanning the map keys. The name
+     * matcher must match the same names as the lookup function - it is used for the description.
+     *
+     * @param label       the description prefix (label)
+     * @param name        the literal key name
+     * @param nameMatcher the key name matcher
+     * @param negated     whether the match is negated
+     * @param mapProvider the provider of the data map
+     * @param valueLookup the function used to look up the value for a name (returning null if there is none)
+     */
+    public MapKeyMatcher(
+        final String label, final String name, final Matcher<String> nameMatcher, final boolean negated,
+        final Function<ClientRequest, Map<String, ?>> mapProvider, final BiFunction<ClientRequest, String, ?> valueLookup
     ) {
         this.label = label;
+        this.name = name;
+        this.negated = negated;
         this.keyMatcher = negated ? not(hasKey(nameMatcher)) : hasKey(nameMatcher);
         this.mapProvider = mapProvider;
+        this.valueLookup = valueLookup;
     }
 
     @Override public boolean matches(final Object actual) {
+        if (name != null && valueLookup != null) {
+            return negated == (valueLookup.apply((ClientRequest) actual, name) == null);
+        }
         return keyMatcher.matches(mapProvider.apply((ClientRequest) actual));
     }
 
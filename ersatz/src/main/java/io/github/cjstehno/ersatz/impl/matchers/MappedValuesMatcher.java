@@ -16,7 +16,6 @@
 package io.github.cjstehno.ersatz.impl.matchers;
 
 import io.github.cjstehno.ersatz.server.ClientRequest;
-import lombok.RequiredArgsConstructor;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -24,6 +23,7 @@ import org.hamcrest.Matcher;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static java.util.Arrays.asList;
@@ -31,16 +31,63 @@ import static java.util.Arrays.asList;
 /**
  * A matcher used to match a map with String keys mapped to a Deque of Strings. This is a common pattern for various
  * data elements in a request.
+ * <p>
+ * When the matcher is created with a literal name (and a values lookup function), the values are looked up directly by name and passed to the
+ * values matcher as-is, rather than scanning (and copying) the whole map.
  */
-@RequiredArgsConstructor
 public class MappedValuesMatcher extends BaseMatcher<ClientRequest> {
 
     private final String label;
+    private final String name;
     private final Matcher<String> nameMatcher;
     private final Matcher<Iterable<? super String>> valuesMatcher;
     private final Function<ClientRequest, Map<String, Deque<String>>> mapProvider;
+    private final BiFunction<ClientRequest, String, Deque<String>> valuesLookup;
+
+    /**
+     * Creates a mapped values matcher which scans the map provided for the request, matching entries by the name matcher.
+     *
+     * @param label         the description prefix (label)
+     * @param nameMatcher   the name matcher
+     * @param valuesMatcher the values matcher
+     * @param mapProvider   the provider of the data map
+     */
+    public MappedValuesMatcher(
+        final String label, final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valuesMatcher,
+        final Function<ClientRequest, Map<String, Deque<String>>> mapProvider
+    ) {
+        this(label, null, nameMatcher, valuesMatcher, mapProvider, null);
+    }
+
+    /**
+     * Creates a mapped values matcher for a literal name, which looks up the values of the named entry directly. The name matcher must match the
+     * same names as the lookup function - it is used for the description.
+     *
+     * @param label         the description prefix (label)
+     * @param name          the literal name
+     * @param nameMatcher   the name matcher
+     * @param valuesMatcher the values matcher
+     * @param mapProvider   the provider of the data map
+     * @param valuesLookup  the function used to look up the values for a name (returning null if there are none)
+     */
+    public MappedValuesMatcher(
+        final String label, final String name, final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valuesMatcher,
+        final Function<ClientRequest, Map<String, Deque<String>>> mapProvider, final BiFunction<ClientRequest, String, Deque<String>> valuesLookup
+    ) {
+        this.label = label;
+        this.name = name;
+        this.nameMatcher = nameMatcher;
+        this.valuesMatcher = valuesMatcher;
+        this.mapProvider = mapProvider;
+        this.valuesLookup = valuesLookup;
+    }
 
     @Override public boolean matches(final Object actual) {
+        if (name != null && valuesLookup != null) {
+            final var values = valuesLookup.apply((ClientRequest) actual, name);
+            return values != null && valuesMatcher.matches(values);
+        }
+
         return mapProvider.apply((ClientRequest) actual).entrySet().stream()
             .filter(ent -> nameMatcher.matches(ent.getKey()))
             .anyMatch(ent -> valuesMatcher.matches(new ArrayDeque<>(asList(ent.getValue().toArray(new String[0])))));
@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl.matchers;
+
+import lombok.val;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * A compiled request path template, such as <code>/users/{id}/orders</code>. The path is split into its "/"-delimited segments, each of which is
+ * either a literal value or a named variable (a segment wrapped in curly braces). A variable segment matches any single non-empty path segment,
+ * and its value is captured under the variable name.
+ * <p>
+ * A template may also be created from a literal path, in which case no segments are treated as variables.
+ */
+public final class PathTemplate extends BaseMatcher<String> {
+
+    private static final String SEPARATOR = "/";
+    private final String template;
+    private final String[] segments;
+    private final boolean[] variables;
+
+    private PathTemplate(final String template, final String[] segments, final boolean[] variables) {
+        this.template = template;
+        this.segments = segments;
+        this.variables = variables;
+    }
+
+    /**
+     * Compiles the provided path template. Segments of the form <code>{name}</code> are treated as variables.
+     *
+     * @param template the path template
+     * @return the compiled template
+     * @throws IllegalArgumentException if a variable segment is malformed or a variable name is used more than once
+     */
+    public static PathTemplate compile(final String template) {
+        val parts = split(template);
+        val vars = new boolean[parts.length];
+        val names = new HashSet<String>();
+
+        for (int s = 0; s < parts.length; s++) {
+            val part = parts[s];
+            if (part.startsWith("{") && part.endsWith("}")) {
+                val name = part.substring(1, part.length() - 1).trim();
+                if (name.isEmpty() || !names.add(name)) {
+                    throw new IllegalArgumentException("Invalid or duplicate variable (" + part + ") in path template: " + template);
+                }
+                parts[s] = name;
+                vars[s] = true;
+
+            } else if (part.contains("{") || part.contains("}")) {
+                throw new IllegalArgumentException("Variables must span a full path segment (" + part + ") in path template: " + template);
+            }
+        }
+
+        return new PathTemplate(template, parts, vars);
+    }
+
+    /**
+     * Creates a template from a literal path - none of its segments are treated as variables.
+     *
+     * @param path the literal path
+     * @return the path template
+     */
+    public static PathTemplate literal(final String path) {
+        val parts = split(path);
+        return new PathTemplate(path, parts, new boolean[parts.length]);
+    }
+
+    /**
+     * Splits the provided request path into its "/"-delimited segments. Empty segments (e.g. from a leading or trailing "/") are retained so
+     * that the segments may be joined back into the original path.
+     *
+     * @param path the request path
+     * @return the path segments
+     */
+    public static String[] split(final String path) {
+        return path.split(SEPARATOR, -1);
+    }
+
+    /**
+     * Retrieves the number of segments in the template.
+     *
+     * @return the segment count
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Retrieves the segment at the specified index - this will be the literal segment value, or the variable name for variable segments.
+     *
+     * @param index the segment index
+     * @return the segment value or variable name
+     */
+    public String getSegment(final int index) {
+        return segments[index];
+    }
+
+    /**
+     * Determines whether the segment at the specified index is a variable.
+     *
+     * @param index the segment index
+     * @return true if the segment is a variable
+     */
+    public boolean isVariable(final int index) {
+        return variables[index];
+    }
+
+    /**
+     * Matches the provided request path against the template, returning the captured variable values.
+     *
+     * @param path the request path
+     * @return the captured variables (name to value), or <code>null</code> if the path does not match the template
+     */
+    public Map<String, String> match(final String path) {
+        val parts = path != null ? split(path) : null;
+        if (parts == null || parts.length != segments.length) {
+            return null;
+        }
+
+        Map<String, String> captured = emptyMap();
+
+        for (int s = 0; s < parts.length; s++) {
+            if (!matchesSegment(s, parts[s])) {
+                return null;
+
+            } else if (variables[s]) {
+                if (captured.isEmpty()) {
+                    captured = new LinkedHashMap<>();
+                }
+                captured.put(segments[s], parts[s]);
+            }
+        }
+
+        return captured.isEmpty() ? captured : unmodifiableMap(captured);
+    }
+
+    private boolean matchesSegment(final int index, final String part) {
+        return variables[index] ? !part.isEmpty() : segments[index].equals(part);
+    }
+
+    @Override public boolean matches(final Object actual) {
+        return actual instanceof String && match((String) actual) != null;
+    }
+
+    @Override public void describeTo(final Description description) {
+        description.appendText("a path matching template ").appendValue(template);
+    }
+}
@@ -16,7 +16,6 @@
 package io.github.cjstehno.ersatz.match;
 
 import io.github.cjstehno.ersatz.encdec.DecoderChain;
-import io.github.cjstehno.ersatz.encdec.DecodingContext;
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -67,15 +66,7 @@ public abstract class BodyMatcher extends BaseMatcher<ClientRequest> {
         private Object decode(final ClientRequest request) {
             val decoder = getDecoderChain().resolve(contentType);
             if (decoder != null) {
-                return decoder.apply(
-                    request.getBody(),
-                    new DecodingContext(
-                        request.getContentLength(),
-                        request.getContentType(),
-                        request.getCharacterEncoding(),
-                        getDecoderChain()
-                    )
-                );
+                return request.getDecodedBody(decoder, getDecoderChain());
             } else {
                 throw new IllegalStateException("No decoder found for \"" + contentType + "\" - Did you configure one?");
             }
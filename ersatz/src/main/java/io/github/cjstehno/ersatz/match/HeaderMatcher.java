@@ -22,6 +22,8 @@ import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 
+import java.util.Optional;
+
 import static io.github.cjstehno.ersatz.cfg.ContentType.CONTENT_TYPE_HEADER;
 import static io.github.cjstehno.ersatz.util.BasicAuth.basicAuthHeaderValue;
 import static io.github.cjstehno.ersatz.util.HttpHeaders.AUTHORIZATION;
@@ -42,7 +44,7 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
      * @return the header matcher
      */
     public static HeaderMatcher headerMatching(final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valueMatcher) {
-        return new HeaderMatches(nameMatcher, valueMatcher);
+        return new HeaderMatches(null, nameMatcher, valueMatcher);
     }
 
     /**
@@ -53,7 +55,7 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
      * @return the header matcher
      */
     public static HeaderMatcher headerMatching(final String name, final Matcher<Iterable<? super String>> valueMatcher) {
-        return headerMatching(equalToIgnoringCase(name), valueMatcher);
+        return new HeaderMatches(name, equalToIgnoringCase(name), valueMatcher);
     }
 
     /**
@@ -74,7 +76,7 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
      * @return the header matcher
      */
     public static HeaderMatcher headerExists(final String name) {
-        return headerExists(equalToIgnoringCase(name));
+        return new HasHeaderMatching(name, equalToIgnoringCase(name), false);
     }
 
     /**
@@ -84,7 +86,7 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
      * @return the header matcher
      */
     public static HeaderMatcher headerExists(final Matcher<String> nameMatcher) {
-        return new HasHeaderMatching(nameMatcher, false);
+        return new HasHeaderMatching(null, nameMatcher, false);
     }
 
     /**
@@ -94,7 +96,7 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
      * @return the header matcher
      */
     public static HeaderMatcher headerDoesNotExist(final String name) {
-        return headerDoesNotExist(equalToIgnoringCase(name));
+        return new HasHeaderMatching(name, equalToIgnoringCase(name), true);
     }
 
     /**
@@ -104,7 +106,7 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
      * @return the header matcher
      */
     public static HeaderMatcher headerDoesNotExist(final Matcher<String> nameMatcher) {
-        return new HasHeaderMatching(nameMatcher, true);
+        return new HasHeaderMatching(null, nameMatcher, true);
     }
 
     /**
@@ -139,13 +141,25 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
         return headerMatching(AUTHORIZATION, hasItem(basicAuthHeaderValue(username, password)));
     }
 
+    /**
+     * Retrieves the literal (case-insensitive) name of the header inspected by this matcher, if the matcher was created with one. A matcher
+     * created with a name matcher (or a custom matcher implementation) may inspect any header, and will not provide a name.
+     *
+     * @return the literal header name, if any
+     */
+    public Optional<String> getHeaderName() {
+        return Optional.empty();
+    }
+
     private static class HeaderMatches extends HeaderMatcher {
 
+        private final String name;
         private final MappedValuesMatcher matcherDelegate;
 
-        private HeaderMatches(final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valueMatcher) {
+        private HeaderMatches(final String name, final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valueMatcher) {
+            this.name = name;
             matcherDelegate = new MappedValuesMatcher(
-                "Request header", nameMatcher, valueMatcher, ClientRequest::getHeaders
+                "Request header", name, nameMatcher, valueMatcher, ClientRequest::getHeaders, ClientRequest::getHeaderValues
             );
         }
 
@@ -153,6 +167,10 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
             return matcherDelegate.matches(actual);
         }
 
+        @Override public Optional<String> getHeaderName() {
+            return Optional.ofNullable(name);
+        }
+
         @Override public void describeTo(final Description description) {
             matcherDelegate.describeTo(description);
         }
@@ -160,16 +178,22 @@ public abstract class HeaderMatcher extends BaseMatcher<ClientRequest> {
 
     private static class HasHeaderMatching extends HeaderMatcher {
 
+        private final String name;
         private final MapKeyMatcher matcherDelegate;
 
-        private HasHeaderMatching(final Matcher<String> nameMatcher, final boolean negated) {
-            matcherDelegate = new MapKeyMatcher("Header", nameMatcher, negated, ClientRequest::getHeaders);
+        private HasHeaderMatching(final String name, final Matcher<String> nameMatcher, final boolean negated) {
+            this.name = name;
+            matcherDelegate = new MapKeyMatcher("Header", name, nameMatcher, negated, ClientRequest::getHeaders, ClientRequest::getHeaderValues);
         }
 
         @Override public boolean matches(final Object actual) {
             return matcherDelegate.matches(actual);
         }
 
+        @Override public Optional<String> getHeaderName() {
+            return Optional.ofNullable(name);
+        }
+
         @Override public void describeTo(final Description description) {
             matcherDelegate.describeTo(description);
         }
@@ -17,13 +17,20 @@ package io.github.cjstehno.ersatz.match;
 
 import io.github.cjstehno.ersatz.cfg.HttpMethod;
 import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.ANY;
 import static java.util.Arrays.stream;
+import static java.util.Collections.unmodifiableSet;
 import static org.hamcrest.CoreMatchers.any;
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -31,10 +38,21 @@ import static org.hamcrest.CoreMatchers.equalTo;
 /**
  * A matcher used to match the HTTP method of a request.
  */
-@RequiredArgsConstructor(staticName = "methodMatching")
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class HttpMethodMatcher extends BaseMatcher<ClientRequest> {
 
     private final Matcher<HttpMethod> matcher;
+    private final Set<HttpMethod> literalMethods;
+
+    /**
+     * Creates a matcher to match the request method using the provided matcher.
+     *
+     * @param matcher the request method matcher
+     * @return the method matcher
+     */
+    public static HttpMethodMatcher methodMatching(final Matcher<HttpMethod> matcher) {
+        return new HttpMethodMatcher(matcher, null);
+    }
 
     /**
      * Creates a matcher to match any o the specified request methods.
@@ -44,15 +62,29 @@ public class HttpMethodMatcher extends BaseMatcher<ClientRequest> {
      */
     @SuppressWarnings("unchecked")
     public static HttpMethodMatcher methodMatching(final HttpMethod... methods) {
-        return methodMatching(
+        final var literals = stream(methods).anyMatch(m -> m == ANY) ? EnumSet.allOf(HttpMethod.class) : EnumSet.noneOf(HttpMethod.class);
+        literals.addAll(List.of(methods));
+
+        return new HttpMethodMatcher(
             anyOf(
                 stream(methods)
                     .map(m -> m == ANY ? any(HttpMethod.class) : equalTo(m))
                     .toList().toArray(new Matcher[0])
-            )
+            ),
+            unmodifiableSet(literals)
         );
     }
 
+    /**
+     * Retrieves the literal request methods matched by this matcher, if they are known. A matcher configured with <code>ANY</code> will contain
+     * all the methods, while matchers created from an arbitrary Hamcrest matcher will return an empty value.
+     *
+     * @return the optional set of literal request methods
+     */
+    public Optional<Set<HttpMethod>> getLiteralMethods() {
+        return Optional.ofNullable(literalMethods);
+    }
+
     @Override public boolean matches(final Object actual) {
         return matcher.matches(((ClientRequest) actual).getMethod());
     }
@@ -15,22 +15,42 @@
  */
 package io.github.cjstehno.ersatz.match;
 
+import io.github.cjstehno.ersatz.impl.matchers.PathTemplate;
 import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.any;
 
 /**
  * Matcher used to match the request path.
  */
-@RequiredArgsConstructor(staticName = "pathMatching")
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class PathMatcher extends BaseMatcher<ClientRequest> {
 
     private final Matcher<String> matcher;
+    private final PathTemplate template;
+
+    /**
+     * Configures a matcher expecting a request path matching the provided matcher.
+     *
+     * @param matcher the path matcher
+     * @return the path matcher
+     */
+    public static PathMatcher pathMatching(final Matcher<String> matcher) {
+        return new PathMatcher(matcher, null);
+    }
 
     /**
      * Configures a matcher expecting a request path equal to the provided path. If "*" is used, it will match any
@@ -40,7 +60,20 @@ public class PathMatcher extends BaseMatcher<ClientRequest> {
      * @return the path matcher
      */
     public static PathMatcher pathMatching(final String path) {
-        return pathMatching("*".equals(path) ? any(String.class) : equalTo(path));
+        return "*".equals(path) ? anyPath() : new PathMatcher(equalTo(path), PathTemplate.literal(path));
+    }
+
+    /**
+     * Configures a matcher expecting a request path matching the provided path template. The template is a path where any segment may be
+     * a named variable wrapped in curly braces, e.g. <code>/users/{id}/orders</code> - a variable segment will match any single non-empty path
+     * segment. The values captured by the variables are made available on the matched request as its path variables.
+     *
+     * @param template the path template
+     * @return the path matcher
+     */
+    public static PathMatcher pathTemplate(final String template) {
+        final var compiled = PathTemplate.compile(template);
+        return new PathMatcher(compiled, compiled);
     }
 
     /**
@@ -52,6 +85,38 @@ public class PathMatcher extends BaseMatcher<ClientRequest> {
         return pathMatching(any(String.class));
     }
 
+    /**
+     * Retrieves the "/"-delimited segments of the path template matched by this matcher, if it is known - a literal segment is provided as its
+     * value, while a variable segment is provided as <code>null</code> (it matches any single non-empty path segment). Matchers configured with an
+     * explicit path string (other than the "*" wildcard) or a path template will have template segments; matchers created from an arbitrary
+     * Hamcrest matcher will return an empty value.
+     *
+     * @return the optional (unmodifiable) template segments
+     */
+    public Optional<List<String>> getTemplateSegments() {
+        if (template == null) {
+            return Optional.empty();
+        }
+
+        final var segments = new ArrayList<String>(template.getSegmentCount());
+        for (int s = 0; s < template.getSegmentCount(); s++) {
+            segments.add(template.isVariable(s) ? null : template.getSegment(s));
+        }
+        return Optional.of(unmodifiableList(segments));
+    }
+
+    /**
+     * Resolves the path variables captured from the path of the provided request. An empty map is returned if the matcher was not configured
+     * with a path template or the request path does not match it.
+     *
+     * @param request the client request
+     * @return the captured path variables
+     */
+    public Map<String, String> pathVariables(final ClientRequest request) {
+        final var captured = template != null ? template.match(request.getPath()) : null;
+        return captured != null ? captured : emptyMap();
+    }
+
     @Override public boolean matches(final Object actual) {
         return matcher.matches(((ClientRequest) actual).getPath());
     }
@@ -39,7 +39,7 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
      * @return the query param matcher
      */
     public static QueryParamMatcher queryMatching(final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valueMatcher) {
-        return new QueryParamMatches(nameMatcher, valueMatcher);
+        return new QueryParamMatches(null, nameMatcher, valueMatcher);
     }
 
     /**
@@ -51,7 +51,7 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
      * @return the query param matcher
      */
     public static QueryParamMatcher queryMatching(final String name, final Matcher<Iterable<? super String>> valueMatcher) {
-        return queryMatching(equalTo(name), valueMatcher);
+        return new QueryParamMatches(name, equalTo(name), valueMatcher);
     }
 
     /**
@@ -73,7 +73,7 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
      * @return the query param matcher
      */
     public static QueryParamMatcher queryExists(final String name) {
-        return queryExists(equalTo(name));
+        return new QueryHasParamMatching(name, equalTo(name), false);
     }
 
     /**
@@ -83,7 +83,7 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
      * @return the query param matcher
      */
     public static QueryParamMatcher queryExists(final Matcher<String> nameMatcher) {
-        return new QueryHasParamMatching(nameMatcher, false);
+        return new QueryHasParamMatching(null, nameMatcher, false);
     }
 
     /**
@@ -93,7 +93,7 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
      * @return the query param matcher
      */
     public static QueryParamMatcher queryDoesNotExist(final String name) {
-        return queryDoesNotExist(equalTo(name));
+        return new QueryHasParamMatching(name, equalTo(name), true);
     }
 
     /**
@@ -103,7 +103,7 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
      * @return the query param matcher
      */
     public static QueryParamMatcher queryDoesNotExist(final Matcher<String> nameMatcher) {
-        return new QueryHasParamMatching(nameMatcher, true);
+        return new QueryHasParamMatching(null, nameMatcher, true);
     }
 
     /**
@@ -114,16 +114,16 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
      * @return the query param matcher
      */
     public static QueryParamMatcher queryHasParamMatching(final Matcher<String> nameMatcher) {
-        return new QueryHasParamMatching(nameMatcher, false);
+        return new QueryHasParamMatching(null, nameMatcher, false);
     }
 
     private static class QueryParamMatches extends QueryParamMatcher {
 
         private final MappedValuesMatcher matcherDelegate;
 
-        private QueryParamMatches(final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valueMatcher) {
+        private QueryParamMatches(final String name, final Matcher<String> nameMatcher, final Matcher<Iterable<? super String>> valueMatcher) {
             matcherDelegate = new MappedValuesMatcher(
-                "Query param", nameMatcher, valueMatcher, ClientRequest::getQueryParams
+                "Query param", name, nameMatcher, valueMatcher, ClientRequest::getQueryParams, ClientRequest::getQueryValues
             );
         }
 
@@ -140,8 +140,10 @@ public abstract class QueryParamMatcher extends BaseMatcher<ClientRequest> {
 
         private final MapKeyMatcher matcherDelegate;
 
-        private QueryHasParamMatching(final Matcher<String> nameMatcher, final boolean negated) {
-            matcherDelegate = new MapKeyMatcher("Query param", nameMatcher, negated, ClientRequest::getQueryParams);
+        private QueryHasParamMatching(final String name, final Matcher<String> nameMatcher, final boolean negated) {
+            matcherDelegate = new MapKeyMatcher(
+                "Query param", name, nameMatcher, negated, ClientRequest::getQueryParams, ClientRequest::getQueryValues
+            );
         }
 
         @Override public boolean matches(final Object actual) {
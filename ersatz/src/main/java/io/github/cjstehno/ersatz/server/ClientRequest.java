@@ -17,9 +17,14 @@ package io.github.cjstehno.ersatz.server;
 
 import io.github.cjstehno.ersatz.cfg.HttpMethod;
 import io.github.cjstehno.ersatz.encdec.Cookie;
+import io.github.cjstehno.ersatz.encdec.DecoderChain;
+import io.github.cjstehno.ersatz.encdec.DecodingContext;
 
 import java.util.Deque;
 import java.util.Map;
+import java.util.function.BiFunction;
+
+import static java.util.Collections.emptyMap;
 
 /**
  * An abstraction around the underlying HTTP server request that aids in matching and working with requests.
@@ -47,6 +52,16 @@ public interface ClientRequest {
      */
     String getPath();
 
+    /**
+     * Retrieves the variables captured from the request path by the path template of the matched expectation (see
+     * <code>PathMatcher.pathTemplate(String)</code>). The map will be empty if the request was not matched by a path template.
+     *
+     * @return the captured path variables (name to value)
+     */
+    default Map<String, String> getPathVariables() {
+        return emptyMap();
+    }
+
     /**
      * Retrieves the URL query string parameters for the request.
      *
@@ -54,6 +69,18 @@ public interface ClientRequest {
      */
     Map<String, Deque<String>> getQueryParams();
 
+    /**
+     * Retrieves the values of the URL query string parameter with the given name, without building any intermediate collections where the
+     * implementation allows it. The returned values are read-only - implementations should return an unmodifiable view, so that a matcher or
+     * listener cannot change the request.
+     *
+     * @param name the query parameter name
+     * @return the query parameter values, or null if the parameter does not exist
+     */
+    default Deque<String> getQueryValues(final String name) {
+        return getQueryParams().get(name);
+    }
+
     /**
      * Retrieves the request headers.
      *
@@ -61,6 +88,23 @@ public interface ClientRequest {
      */
     Map<String, Deque<String>> getHeaders();
 
+    /**
+     * Retrieves the values of the request header with the given (case-insensitive) name, without building any intermediate collections where
+     * the implementation allows it. The returned values are read-only - implementations should return an unmodifiable view, so that a matcher or
+     * listener cannot change the request.
+     *
+     * @param name the header name
+     * @return the header values, or null if the header does not exist
+     */
+    default Deque<String> getHeaderValues(final String name) {
+        for (final Map.Entry<String, Deque<String>> header : getHeaders().entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
     /**
      * Retrieves the cookies associated with the request.
      *
@@ -75,6 +119,19 @@ public interface ClientRequest {
      */
     byte[] getBody();
 
+    /**
+     * Retrieves the body content decoded by the provided decoder function, with a decoding context based on this request and the provided
+     * decoder chain. Implementations may cache the decoded content for the lifetime of the request, so that each distinct decoding (decoder and
+     * equivalent decoder chain) is only performed once, no matter how many body matchers are evaluated against the request.
+     *
+     * @param decoder      the resolved body content decoder
+     * @param decoderChain the decoder chain the decoder was resolved from
+     * @return the decoded body content
+     */
+    default Object getDecodedBody(final BiFunction<byte[], DecodingContext, Object> decoder, final DecoderChain decoderChain) {
+        return decoder.apply(getBody(), new DecodingContext(getContentLength(), getContentType(), getCharacterEncoding(), decoderChain));
+    }
+
     /**
      * Retrieves request parameters specified in the body content, if any.
      *
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.HashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Locale.ROOT;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Utilities used to negotiate and produce the pre-compressed variants of response content (see <code>RenderedResponse</code>).
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class ContentEncodings {
+
+    /**
+     * The gzip content encoding.
+     */
+    static final String GZIP = "gzip";
+
+    /**
+     * The deflate (zlib) content encoding.
+     */
+    static final String DEFLATE = "deflate";
+
+    private static final String ANY = "*";
+    private static final String QUALITY = "q=";
+
+    /**
+     * Determines the supported content encoding accepted by the provided <code>Accept-Encoding</code> header value, if any. The gzip encoding is
+     * preferred when both encodings are accepted with the same quality.
+     *
+     * @param acceptEncoding the accept-encoding header value (may be null)
+     * @return the accepted encoding (gzip or deflate), or null if neither is accepted
+     */
+    static String negotiate(final String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+
+        val qualities = new HashMap<String, Double>();
+        for (final String token : acceptEncoding.split(",")) {
+            val parts = token.split(";");
+            qualities.put(parts[0].trim().toLowerCase(ROOT), parts.length > 1 ? quality(parts[1]) : 1.0);
+        }
+
+        val fallback = qualities.getOrDefault(ANY, 0.0);
+        val gzip = qualities.getOrDefault(GZIP, fallback);
+        val deflate = qualities.getOrDefault(DEFLATE, fallback);
+
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    private static double quality(final String param) {
+        val value = param.trim();
+        try {
+            return value.startsWith(QUALITY) ? Double.parseDouble(value.substring(QUALITY.length())) : 1.0;
+        } catch (final NumberFormatException nfe) {
+            return 0.0;
+        }
+    }
+
+    /**
+     * Compresses the provided content with the specified encoding.
+     *
+     * @param content  the content to be compressed (its position is not modified)
+     * @param encoding the content encoding (gzip or deflate)
+     * @return a read-only direct buffer containing the compressed content
+     */
+    static ByteBuffer compress(final ByteBuffer content, final String encoding) {
+        return compress(content, encoding, true);
+    }
+
+    /**
+     * Compresses the provided content with the specified encoding.
+     *
+     * @param content  the content to be compressed (its position is not modified)
+     * @param encoding the content encoding (gzip or deflate)
+     * @param direct   whether the compressed content is to be held in a direct buffer (rather than a heap buffer)
+     * @return a read-only buffer containing the compressed content
+     */
+    static ByteBuffer compress(final ByteBuffer content, final String encoding, final boolean direct) {
+        val out = new ByteArrayOutputStream();
+
+        try (final OutputStream compressed = GZIP.equals(encoding) ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) {
+            Channels.newChannel(compressed).write(content.duplicate());
+        } catch (final IOException ex) {
+            throw new IllegalStateException("Unable to compress content: " + ex.getMessage(), ex);
+        }
+
+        val bytes = out.toByteArray();
+        return direct ? ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer() : ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+}
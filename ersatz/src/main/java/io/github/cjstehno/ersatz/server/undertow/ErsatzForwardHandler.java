@@ -17,41 +17,85 @@ package io.github.cjstehno.ersatz.server.undertow;
 
 import io.github.cjstehno.ersatz.cfg.Response;
 import io.github.cjstehno.ersatz.impl.ErsatzForwardResponse;
+import io.github.cjstehno.ersatz.impl.ForwardCache;
+import io.github.cjstehno.ersatz.impl.RecordingConfigImpl;
 import io.github.cjstehno.ersatz.server.ClientRequest;
+import io.github.cjstehno.ersatz.util.StatusCode;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.SameThreadExecutor;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import okhttp3.OkHttpClient;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import java.nio.ByteBuffer;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.lang.String.join;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Locale.ROOT;
 
 /**
  * An Ersatz Undertow handler used to handle request forwarding to gather response data from an external server URI.
  * <p>
  * This implementation utilizes the <a href="https://square.github.io/okhttp/">OkHttp</a> library to make its forwarded
  * requests. An attempt was made to use the built-in JDK HttpClient, however, it was overly restrictive and was too much
- * effort to make it work with HTTPS requests.
+ * effort to make it work with HTTPS requests. The clients are shared by all forwarded requests to the same target (see
+ * {@link ForwardClients}), so that their connections are reused.
+ * <p>
+ * The request and response content are streamed in both directions (in fixed-size buffers), rather than being read fully into memory, so that
+ * large content passes through with bounded memory use and the response content reaches the client as soon as it arrives.
+ * <p>
+ * The forwarded requests are made asynchronously - the exchange is dispatched, and it is completed by the callback of the forwarded request,
+ * so that no server worker thread is held while waiting for the forward target. A failed forwarded request responds with a Bad Gateway (502)
+ * status, or a Gateway Timeout (504) status if it timed out.
+ * <p>
+ * If forward recording is configured (see {@link ForwardRecordings}), the forwarded responses are either recorded, or the recorded responses are
+ * replayed in place of forwarding the requests - a request without a recorded response responds with a Bad Gateway (502) status, with the
+ * missing request fingerprint as its content. When recording with the default fingerprint, the digest of the request content is computed as it
+ * is streamed to the forward target, and responses with content larger than the configured maximum body size are not recorded.
+ * <p>
+ * If the forward cache is enabled (see {@link ForwardCache}), repeated <code>GET</code> requests are served from the cached responses while they
+ * are fresh, and stale responses are revalidated with conditional requests to the forward target. A request with a <code>no-cache</code>
+ * directive always revalidates the cached response, and one with a <code>no-store</code> directive bypasses the cache. The responses to requests
+ * with credentials are only cached (and served) if they are explicitly shareable. Only the content of the responses which will be stored is
+ * captured, so responses which are not cacheable (or too large) are streamed with bounded memory use.
  */
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE) @Slf4j
 public class ErsatzForwardHandler implements ErsatzHandler {
 
+    // the headers describing the framing of a forwarded response, which are not copied when it is sent again
+    static final Set<String> FRAMING_HEADERS = Set.of("content-length", "transfer-encoding", "connection", "keep-alive");
     private static final Set<String> REQUESTS_WITH_BODY = Set.of("post", "put", "patch");
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private final ForwardClients clients;
+    private final ForwardRecordings recordings;
+    private final ForwardCache cache;
     private final ErsatzHandler next;
 
     /**
@@ -64,79 +108,313 @@ public class ErsatzForwardHandler implements ErsatzHandler {
      * @throws Exception if there is a problem handling the request/response
      */
     public void handleRequest(final HttpServerExchange exchange, final ClientRequest clientRequest, final Response ersatzResponse) throws Exception {
-        if (ersatzResponse instanceof ErsatzForwardResponse) {
-            val fullTargetUri = resolveTargetUri(exchange, ersatzResponse);
+        if (!(ersatzResponse instanceof ErsatzForwardResponse)) {
+            next.handleRequest(exchange, clientRequest, ersatzResponse);
+        } else if (recordings != null && recordings.isReplaying()) {
+            replay(exchange, clientRequest, recordings.fingerprint(clientRequest));
+        } else {
+            forward(exchange, clientRequest, (ErsatzForwardResponse) ersatzResponse);
+        }
+    }
+
+    private void forward(final HttpServerExchange exchange, final ClientRequest clientRequest, final ErsatzForwardResponse forwardResponse) {
+        val fullTargetUri = resolveTargetUri(exchange, forwardResponse);
+        val cacheable = cache.isEnabled() && isCacheable(exchange);
+        val cached = cacheable ? cache.find(fullTargetUri, requestHeaders(exchange)) : null;
+
+        // a no-cache request may be served from the cache, but only once the cached response has been revalidated
+        if (cached != null && cached.isFresh() && !requestDirectives(exchange).containsKey("no-cache")) {
+            log.info("Serving cached response for: {}", fullTargetUri);
+            cache.hit();
+            sendCached(exchange, cached);
+
+        } else {
             log.info("Request forwarding to: {}", fullTargetUri);
 
-            val client = configureClient(clientRequest.getScheme().equalsIgnoreCase("https"));
+            val client = clients.client(forwardResponse.getProxyTargetUri(), clientRequest.getScheme().equalsIgnoreCase("https"));
 
             val requestMethod = exchange.getRequestMethod().toString();
             val hasBody = REQUESTS_WITH_BODY.contains(requestMethod.toLowerCase());
 
-            val requestBuilder = new Request.Builder()
-                .method(exchange.getRequestMethod().toString(), hasBody ? RequestBody.create(clientRequest.getBody()) : null)
-                .url(fullTargetUri);
+            // the default fingerprint of a request with content is computed as the content is streamed
+            val streamedFingerprint = recordings != null && hasBody && recordings.hasDefaultFingerprint()
+                ? new StreamedFingerprint(RecordingConfigImpl.requestKey(clientRequest))
+                : null;
+
+            val requestBody = hasBody ? new StreamingRequestBody(exchange, clientRequest, streamedFingerprint) : null;
+            val requestBuilder = new Request.Builder().method(requestMethod, requestBody).url(fullTargetUri);
 
             // copy request headers
             exchange.getRequestHeaders().forEach(header -> {
                 requestBuilder.header(header.getHeaderName().toString(), join(";", header));
             });
 
-            try (val response = client.newCall(requestBuilder.build()).execute()) {
-                // copy response headers
-                response.headers().forEach(pair -> {
-                    exchange.getResponseHeaders().putAll(new HttpString(pair.getFirst()), response.headers(pair.getFirst()));
-                });
+            // revalidate the stale cached response
+            val revalidating = cached != null && cached.isRevalidatable() ? cached : null;
+            if (revalidating != null) {
+                if (!revalidating.getEtag().isEmpty()) {
+                    requestBuilder.header(Headers.IF_NONE_MATCH_STRING, revalidating.getEtag());
+                }
+                if (!revalidating.getLastModified().isEmpty()) {
+                    requestBuilder.header(Headers.IF_MODIFIED_SINCE_STRING, revalidating.getLastModified());
+                }
+            }
 
-                exchange.setStatusCode(response.code());
-                exchange.getResponseSender().send(ByteBuffer.wrap(response.body().bytes()));
+            final Supplier<String> key;
+            if (streamedFingerprint != null) {
+                key = streamedFingerprint::fingerprint;
+            } else if (recordings != null) {
+                val fingerprint = recordings.fingerprint(clientRequest);
+                key = () -> fingerprint;
+            } else {
+                key = null;
             }
 
+            val callback = new ForwardCallback(exchange, recordings, key, cacheable ? cache : null, fullTargetUri, revalidating);
+
+            val call = client.newCall(requestBuilder.build());
+            exchange.dispatch(SameThreadExecutor.INSTANCE, () -> call.enqueue(callback));
+        }
+    }
+
+    private void replay(final HttpServerExchange exchange, final ClientRequest clientRequest, final String key) throws Exception {
+        val recorded = recordings.replay(key);
+        if (recorded != null) {
+            log.info("Replaying recorded response for: {}", key);
+            next.handleRequest(exchange, clientRequest, recorded);
         } else {
-            next.handleRequest(exchange, clientRequest, ersatzResponse);
+            log.warn("No recorded response for: {}", key);
+            exchange.setStatusCode(StatusCode.BAD_GATEWAY.getValue());
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/plain; charset=utf-8");
+            exchange.getResponseSender().send("No recorded response for: " + key, UTF_8);
         }
     }
 
-    private static String resolveTargetUri(final HttpServerExchange exchange, final Response response) {
+    private static String resolveTargetUri(final HttpServerExchange exchange, final ErsatzForwardResponse response) {
         val queryString = exchange.getQueryString();
-        return ((ErsatzForwardResponse) response).getProxyTargetUri() + exchange.getRequestPath() + (!queryString.isEmpty() ? "?" + queryString : "");
+        return response.getProxyTargetUri() + exchange.getRequestPath() + (!queryString.isEmpty() ? "?" + queryString : "");
     }
 
-    // We're just going to ignore HTTPS for forwarded requests
-    private static OkHttpClient configureClient(final boolean https) throws KeyManagementException, NoSuchAlgorithmException {
-        val builder = new OkHttpClient.Builder();
+    // only GET requests without their own conditions or a no-store directive are served from (or stored in) the cache
+    private static boolean isCacheable(final HttpServerExchange exchange) {
+        val headers = exchange.getRequestHeaders();
+        if (!Methods.GET.equals(exchange.getRequestMethod()) || headers.contains(Headers.RANGE)) {
+            return false;
+        }
 
-        if (https) {
-            // Create a trust manager that does not validate certificate chains
-            final var trustAllCerts = new TrustManager[]{
-                new X509TrustManager() {
-                    @Override
-                    public void checkClientTrusted(final X509Certificate[] chain, final String authType) throws CertificateException {
-                    }
+        if (headers.contains(Headers.IF_NONE_MATCH) || headers.contains(Headers.IF_MODIFIED_SINCE)) {
+            return false;
+        }
+
+        return !requestDirectives(exchange).containsKey("no-store");
+    }
+
+    private static Map<String, String> requestDirectives(final HttpServerExchange exchange) {
+        val values = exchange.getRequestHeaders().get(Headers.CACHE_CONTROL);
+        return ForwardCache.directives(values != null ? join(",", values) : null);
+    }
+
+    private static Function<String, String> requestHeaders(final HttpServerExchange exchange) {
+        return name -> {
+            val values = exchange.getRequestHeaders().get(name);
+            return values != null ? join(",", values) : null;
+        };
+    }
+
+    private static void sendCached(final HttpServerExchange exchange, final ForwardCache.Entry cached) {
+        exchange.setStatusCode(cached.getStatus());
+        cached.getHeaders().forEach((name, values) -> {
+            if (!FRAMING_HEADERS.contains(name.toLowerCase(ROOT))) {
+                exchange.getResponseHeaders().putAll(new HttpString(name), values);
+            }
+        });
+        exchange.setResponseContentLength(cached.getBody().length);
+
+        try (val output = exchange.getOutputStream()) {
+            output.write(cached.getBody());
+        } catch (final IOException ex) {
+            log.error("Unable to send cached response: {}", ex.getMessage(), ex);
+        }
+    }
 
-                    @Override
-                    public void checkServerTrusted(final X509Certificate[] chain, final String authType) throws CertificateException {
+    private static void copy(final BufferedSource source, final OutputStream output, final OutputStream capture) throws IOException {
+        try (output) {
+            val buffer = new byte[BUFFER_SIZE];
+
+            int count;
+            while ((count = source.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+                output.flush();
+
+                if (capture != null) {
+                    capture.write(buffer, 0, count);
+                }
+            }
+        }
+    }
+
+    // Completes the dispatched exchange with the response of the forwarded request (recording and caching it, if enabled).
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class ForwardCallback implements Callback {
+
+        private final HttpServerExchange exchange;
+        private final ForwardRecordings recordings;
+        private final Supplier<String> key;
+        private final ForwardCache cache;
+        private final String cacheKey;
+        private final ForwardCache.Entry revalidating;
+
+        @Override public void onResponse(final Call call, final okhttp3.Response response) {
+            try (response) {
+                val headers = new LinkedHashMap<String, List<String>>();
+                response.headers().forEach(pair -> headers.computeIfAbsent(pair.getFirst(), n -> new ArrayList<>()).add(pair.getSecond()));
+
+                if (revalidating != null && response.code() == StatusCode.NOT_MODIFIED.getValue()) {
+                    log.info("Serving revalidated cached response for: {}", cacheKey);
+                    val renewed = cache.revalidated(cacheKey, revalidating, headers);
+                    cache.hit();
+                    sendCached(exchange, renewed);
+                } else {
+                    sendForwarded(response, headers);
+                }
+
+            } catch (final IOException ex) {
+                log.error("Unable to send forwarded response: {}", ex.getMessage(), ex);
+            } finally {
+                exchange.endExchange();
+            }
+        }
+
+        private void sendForwarded(final okhttp3.Response response, final Map<String, List<String>> headers) throws IOException {
+            if (cache != null) {
+                cache.miss();
+            }
+
+            // copy response headers
+            headers.forEach((name, values) -> exchange.getResponseHeaders().putAll(new HttpString(name), values));
+
+            exchange.setStatusCode(response.code());
+
+            // the content is only captured if it will be recorded or stored (the recorded and cached content are limited in size)
+            val storable = cache != null && cache.isStorable(response.code(), headers, requestHeaders(exchange));
+            val recordLimit = recordings != null ? recordings.getMaxBodySize() : -1;
+            val storeLimit = storable ? cache.getMaxContentSize() : -1;
+            val capture = recordings != null || storable ? new CappedCapture(Math.max(recordLimit, storeLimit)) : null;
+            copy(response.body().source(), exchange.getOutputStream(), capture);
+
+            if (recordings != null) {
+                if (!capture.isOverflowed() && capture.size() <= recordLimit) {
+                    recordings.record(key.get(), response.code(), headers, capture.toByteArray());
+                } else {
+                    log.warn("Not recording the forwarded response for: {} - its content is larger than {} bytes.", key.get(), recordLimit);
+                }
+            }
+
+            if (storable && !capture.isOverflowed() && capture.size() <= storeLimit) {
+                cache.store(cacheKey, response.code(), headers, capture.toByteArray(), requestHeaders(exchange));
+            } else if (cache != null) {
+                cache.evict(cacheKey);
+            }
+        }
+
+        @Override public void onFailure(final Call call, final IOException ex) {
+            log.error("Request forwarding failed: {}", ex.getMessage(), ex);
+
+            if (!exchange.isResponseStarted()) {
+                val status = ex instanceof InterruptedIOException ? StatusCode.GATEWAY_TIMEOUT : StatusCode.BAD_GATEWAY;
+                exchange.setStatusCode(status.getValue());
+            }
+            exchange.endExchange();
+        }
+    }
+
+    // Captures the forwarded response content, up to a size limit - once the limit is exceeded, the captured content is discarded.
+    private static final class CappedCapture extends ByteArrayOutputStream {
+
+        private final int limit;
+        @Getter private boolean overflowed;
+
+        private CappedCapture(final int limit) {
+            this.limit = limit;
+        }
+
+        @Override public synchronized void write(final byte[] bytes, final int offset, final int length) {
+            if (overflowed || (long) count + length > limit) {
+                overflowed = true;
+                reset();
+            } else {
+                super.write(bytes, offset, length);
+            }
+        }
+    }
+
+    // Computes the default fingerprint of a forwarded request from the digest of its content, as the content is streamed.
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class StreamedFingerprint {
+
+        private final String requestKey;
+        private final MessageDigest digest = RecordingConfigImpl.bodyDigest();
+        private volatile long length;
+
+        private InputStream digesting(final InputStream input) {
+            return new DigestInputStream(input, digest) {
+                @Override public int read() throws IOException {
+                    val value = super.read();
+                    if (value >= 0) {
+                        length++;
                     }
+                    return value;
+                }
 
-                    @Override public X509Certificate[] getAcceptedIssuers() {
-                        return new X509Certificate[0];
+                @Override public int read(final byte[] bytes, final int offset, final int count) throws IOException {
+                    val read = super.read(bytes, offset, count);
+                    if (read > 0) {
+                        length += read;
                     }
+                    return read;
                 }
             };
+        }
+
+        private String fingerprint() {
+            return RecordingConfigImpl.defaultFingerprint(requestKey, length > 0 ? digest.digest() : null);
+        }
+    }
+
+    // The request content is streamed from the exchange as it is written to the forwarded request.
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class StreamingRequestBody extends RequestBody {
+
+        private final HttpServerExchange exchange;
+        private final ClientRequest clientRequest;
+        private final StreamedFingerprint fingerprint;
 
-            // Install the all-trusting trust manager
-            val sslContext = SSLContext.getInstance("SSL");
-            sslContext.init(null, trustAllCerts, new SecureRandom());
+        @Override public MediaType contentType() {
+            val contentType = clientRequest.getContentType();
+            return contentType != null ? MediaType.parse(contentType) : null;
+        }
 
-            // Create an ssl socket factory with our all-trusting manager
-            val sslSocketFactory = sslContext.getSocketFactory();
+        @Override public long contentLength() {
+            return exchange.getRequestContentLength();
+        }
 
-            builder.sslSocketFactory(
-                sslSocketFactory,
-                (X509TrustManager) trustAllCerts[0]
-            ).hostnameVerifier((s, sslSession) -> true);
+        @Override public boolean isOneShot() {
+            return true;
         }
 
-        return builder.build();
+        @Override public void writeTo(final BufferedSink sink) throws IOException {
+            try (val source = Okio.source(fingerprint != null ? fingerprint.digesting(bodyStream()) : bodyStream())) {
+                sink.writeAll(source);
+            }
+        }
+
+        private InputStream bodyStream() {
+            if (clientRequest instanceof UndertowClientRequest undertowRequest) {
+                return undertowRequest.getBodyStream();
+            }
+
+            val body = clientRequest.getBody();
+            return new ByteArrayInputStream(body != null ? body : new byte[0]);
+        }
     }
 }
@@ -16,22 +16,20 @@
 package io.github.cjstehno.ersatz.server.undertow;
 
 import io.github.cjstehno.ersatz.cfg.Response;
-import io.github.cjstehno.ersatz.encdec.Cookie;
-import io.github.cjstehno.ersatz.impl.ChunkingConfigImpl;
 import io.github.cjstehno.ersatz.impl.ErsatzResponse;
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import io.github.cjstehno.ersatz.util.StatusCode;
+import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
-import io.undertow.server.handlers.CookieImpl;
+import io.undertow.util.SameThreadExecutor;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 
-import static io.github.cjstehno.ersatz.server.undertow.ResponseChunker.prepareChunks;
-import static io.undertow.util.HttpString.tryFromString;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -41,7 +39,6 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 @Slf4j @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 class ErsatzHttpHandler implements ErsatzHandler {
 
-    private static final String TRANSFER_ENCODING = "Transfer-encoding";
     private static final String NO_HEADERS = "<no-headers>";
     private static final byte[] EMPTY_RESPONSE = new byte[0];
     private final boolean logResponseContent;
@@ -55,32 +52,63 @@ class ErsatzHttpHandler implements ErsatzHandler {
 
         } else {
             val ersatzResponse = (ErsatzResponse) response;
+            val delay = ersatzResponse.nextDelay();
 
-            applyResponseDelay(ersatzResponse);
+            if (delay > 0) {
+                log.trace("Delaying the response for {} ms...", delay);
 
-            exchange.setStatusCode(response.getCode());
+                // the delay is scheduled on the IO thread timer so that no thread is held while waiting - when it fires, the response is sent
+                // from a worker thread (the exchange is blocking), which will also end the exchange
+                exchange.dispatch(SameThreadExecutor.INSTANCE, () -> exchange.getIoThread().executeAfter(
+                    () -> exchange.dispatch((HttpHandler) ex -> sendResponse(ex, ersatzResponse)),
+                    delay,
+                    MILLISECONDS
+                ));
 
-            applyResponseHeaders(exchange, ersatzResponse);
+            } else {
+                sendResponse(exchange, ersatzResponse);
+            }
+        }
+    }
 
-            applyResponseCookies(exchange, ersatzResponse);
+    private void sendResponse(final HttpServerExchange exchange, final ErsatzResponse response) throws IOException {
+        val rendered = response.isOneOff()
+            ? RenderedResponse.renderOneOff(response)
+            : response.getRendered(RenderedResponse.class, RenderedResponse::render);
+        rendered.applyTo(exchange);
 
-            final var responseHeaders = exchange.getResponseHeaders() != null ? exchange.getResponseHeaders() : NO_HEADERS;
-            final ChunkingConfigImpl chunking = ersatzResponse.getChunkingConfig();
+        if (rendered.getFile() != null) {
+            log.debug("File-Response({}; {}; {}): {}", exchange.getProtocol(), exchange.getRequestURL(), renderHeaders(exchange), rendered.getFile());
+            FileResponseSender.send(exchange, rendered.getFile());
 
-            if (response.getContent().length > 0 && chunking != null) {
+        } else if (rendered.getStream() != null) {
+            log.debug("Streaming-Response({}; {}; {})", exchange.getProtocol(), exchange.getRequestURL(), renderHeaders(exchange));
+            StreamingResponseSender.send(exchange, rendered.getStream());
+
+        } else if (rendered.isChunked()) {
+            if (log.isDebugEnabled()) {
                 log.debug(
                     "Chunked-Response({}; {}; {}; {}): {}",
-                    exchange.getProtocol(), exchange.getRequestURL(), responseHeaders, chunking, renderResponse(response)
+                    exchange.getProtocol(), exchange.getRequestURL(), renderHeaders(exchange), rendered.getChunking(), renderResponse(response)
                 );
-                sendChunkedResponse(exchange, response.getContent(), chunking);
+            }
+            sendChunkedResponse(exchange, rendered);
 
-            } else {
-                log.debug("Response({}; {}; {}): {}", exchange.getProtocol(), exchange.getRequestURL(), responseHeaders, renderResponse(response));
-                sendFullResponse(exchange, response.getContent());
+        } else {
+            if (log.isDebugEnabled()) {
+                log.debug(
+                    "Response({}; {}; {}): {}",
+                    exchange.getProtocol(), exchange.getRequestURL(), renderHeaders(exchange), renderResponse(response)
+                );
             }
+            sendFullResponse(exchange, rendered);
         }
     }
 
+    private static Object renderHeaders(final HttpServerExchange exchange) {
+        return exchange.getResponseHeaders() != null ? exchange.getResponseHeaders() : NO_HEADERS;
+    }
+
     private String renderResponse(final Response response) {
         final var bytes = response.getContent();
 
@@ -101,53 +129,22 @@ class ErsatzHttpHandler implements ErsatzHandler {
         );
     }
 
-    private void sendChunkedResponse(final HttpServerExchange exchange, final byte[] responseContent, final ChunkingConfigImpl chunking) {
-        final var chunks = prepareChunks(responseContent, chunking.getChunks());
-        exchange.getResponseSender().send(ByteBuffer.wrap(chunks.remove(0)), new ResponseChunker(chunks, chunking.getDelay()));
-    }
+    private void sendChunkedResponse(final HttpServerExchange exchange, final RenderedResponse rendered) {
+        val chunker = new ResponseChunker(rendered.getContent(), rendered.getChunkBoundaries(), rendered.getChunking().getDelay());
 
-    private void sendFullResponse(final HttpServerExchange exchange, final byte[] responseContent) {
-        exchange.getResponseSender().send(ByteBuffer.wrap(responseContent));
-    }
-
-    private void applyResponseDelay(final ErsatzResponse response) {
-        if (response.getDelay() > 0) {
-            try {
-                log.trace("Delaying the response for {} ms...", response.getDelay());
-
-                MILLISECONDS.sleep(response.getDelay());
-
-            } catch (InterruptedException e) {
-                // ignore
-            }
-        }
+        // the chunks are sent outside of the handler call, the chunker will end the exchange after the last one
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> chunker.start(exchange.getResponseSender()));
     }
 
-    private void applyResponseHeaders(final HttpServerExchange exchange, final ErsatzResponse response) {
-        response.getHeaders().forEach((k, v) -> {
-            v.forEach(value -> exchange.getResponseHeaders().add(tryFromString(k), value));
-        });
-
-        if (response.getChunkingConfig() != null) {
-            exchange.getResponseHeaders().add(tryFromString(TRANSFER_ENCODING), "chunked");
+    private void sendFullResponse(final HttpServerExchange exchange, final RenderedResponse rendered) {
+        if (rendered.getThrottle() != null) {
+            ThrottledResponseSender.send(exchange, rendered.negotiateContent(exchange), rendered.getThrottle());
+        } else {
+            exchange.getResponseSender().send(rendered.negotiateContent(exchange));
         }
     }
 
-    private void applyResponseCookies(final HttpServerExchange exchange, final ErsatzResponse response) {
-        response.getCookies().forEach((k, v) -> {
-            if (v instanceof final Cookie ersatzCookie) {
-                val cookie = new CookieImpl(k, ersatzCookie.getValue());
-                cookie.setPath(ersatzCookie.getPath());
-                cookie.setDomain(ersatzCookie.getDomain());
-                cookie.setMaxAge(ersatzCookie.getMaxAge());
-                cookie.setSecure(ersatzCookie.isSecure());
-                cookie.setVersion(ersatzCookie.getVersion());
-                cookie.setHttpOnly(ersatzCookie.isHttpOnly());
-                cookie.setComment(ersatzCookie.getComment());
-                exchange.setResponseCookie(cookie);
-            } else {
-                exchange.setResponseCookie(new CookieImpl(k, v.toString()));
-            }
-        });
+    private void sendFullResponse(final HttpServerExchange exchange, final byte[] responseContent) {
+        exchange.getResponseSender().send(ByteBuffer.wrap(responseContent));
     }
 }
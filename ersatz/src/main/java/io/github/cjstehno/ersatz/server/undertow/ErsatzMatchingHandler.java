@@ -18,7 +18,7 @@ package io.github.cjstehno.ersatz.server.undertow;
 import io.github.cjstehno.ersatz.impl.ErsatzRequest;
 import io.github.cjstehno.ersatz.impl.ExpectationsImpl;
 import io.github.cjstehno.ersatz.impl.RequirementsImpl;
-import io.github.cjstehno.ersatz.impl.UnmatchedRequestReport;
+import io.github.cjstehno.ersatz.impl.UnmatchedRequests;
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import io.github.cjstehno.ersatz.util.StatusCode;
 import io.undertow.server.HttpHandler;
@@ -35,7 +35,7 @@ import static io.github.cjstehno.ersatz.server.UnderlyingServer.NOT_FOUND_BODY;
 /**
  * An Undertow <code>HttpHandler</code> used to start the Ersatz handling chain, but checking the request against its
  * requirements and configured matchers. If the request satisfies the matchers, control is handed off to the next handler
- * in the chain, otherwise a mismatch is reported.
+ * in the chain, otherwise a mismatch is recorded (and reported asynchronously).
  */
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE) @Slf4j
 public class ErsatzMatchingHandler implements HttpHandler {
@@ -44,6 +44,7 @@ public class ErsatzMatchingHandler implements HttpHandler {
     private final RequirementsImpl requirements;
     private final ExpectationsImpl expectations;
     private final boolean reportToConsole;
+    private final UnmatchedRequests unmatchedRequests;
     private final ErsatzHandler next;
 
     @Override public void handleRequest(final HttpServerExchange exchange) throws Exception {
@@ -62,10 +63,13 @@ public class ErsatzMatchingHandler implements HttpHandler {
                 try {
                     val ersatzRequest = (ErsatzRequest) req;
 
+                    // bind the variables captured by a path template (if any)
+                    clientRequest.setPathVariables(ersatzRequest.getPathMatcher().pathVariables(clientRequest));
+
                     // handle the matching request
-                    next.handleRequest(exchange, clientRequest, ersatzRequest.getCurrentResponse());
+                    next.handleRequest(exchange, clientRequest, ersatzRequest.getCurrentResponse(clientRequest));
 
-                    // mark it as accepted
+                    // mark it as accepted - a delayed (or chunked) response is sent asynchronously, so it is marked before it is written
                     ersatzRequest.mark(clientRequest);
 
                 } catch (final Exception ex) {
@@ -79,17 +83,8 @@ public class ErsatzMatchingHandler implements HttpHandler {
     }
 
     private void handleMismatch(final HttpServerExchange exchange, final ClientRequest clientRequest) {
-        val report = new UnmatchedRequestReport(
-            clientRequest,
-            expectations.getRequests().stream().map(r -> (ErsatzRequest) r).toList(),
-            requirements.getRequirements()
-        );
-
-        log.warn(report.render());
-
-        if (reportToConsole) {
-            System.out.println(report.render());
-        }
+        // the report is captured here (with the immutable expectation and requirement snapshots), but rendered asynchronously
+        unmatchedRequests.record(clientRequest, expectations.getRequests(), requirements.getRequirements(), reportToConsole);
 
         exchange.setStatusCode(StatusCode.NOT_FOUND.getValue()).getResponseSender().send(NOT_FOUND_BODY);
     }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.ByteRange;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import lombok.NoArgsConstructor;
+import lombok.val;
+import org.xnio.channels.Channels;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static io.undertow.util.Headers.ACCEPT_RANGES;
+import static io.undertow.util.Headers.CONTENT_RANGE;
+import static io.undertow.util.Headers.RANGE;
+import static java.nio.file.StandardOpenOption.READ;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Used to send file response content. The file content is transferred directly from the file channel to the response channel, which allows the
+ * underlying server to use <code>sendfile</code> (zero-copy) where the connection supports it - the content is never loaded into memory.
+ * <p>
+ * A request with a single byte-range (<code>Range</code> header) is sent the requested part of the file as a Partial Content (206) response, or
+ * a Range Not Satisfiable (416) response if the range is outside the file. A request with multiple byte-ranges is sent the whole file, as an OK
+ * (200) response. Ranges are only applied to OK (200) responses.
+ * <p>
+ * The file content is always sent as-is, it is never compressed by the server (even when the client accepts a compressed encoding) - the
+ * exchange is marked with the {@link #UNENCODED} attachment, which disables the on-the-fly encoding of the server (see
+ * <code>UndertowUnderlyingServer</code>), so that the content is transferred directly and the range headers describe the sent bytes.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class FileResponseSender {
+
+    /**
+     * Attached to an exchange whose response content must not be encoded (compressed) on the fly by the server.
+     */
+    static final AttachmentKey<Boolean> UNENCODED = AttachmentKey.create(Boolean.class);
+
+    private static final String BYTES = "bytes";
+
+    /**
+     * Sends the content of the file (or the requested range of it) as the response content. This blocks until the content has been written, so
+     * it must be called from a worker thread.
+     *
+     * @param exchange the server exchange
+     * @param file     the file to be sent
+     * @throws IOException if there is a problem reading the file or writing the response
+     */
+    static void send(final HttpServerExchange exchange, final Path file) throws IOException {
+        try (val source = FileChannel.open(file, READ)) {
+            val length = source.size();
+            long start = 0;
+            long count = length;
+
+            exchange.getResponseHeaders().put(ACCEPT_RANGES, BYTES);
+
+            // only a single range is supported (as with the Undertow resource handler) - a multi-range request is sent the whole file
+            val range = exchange.getStatusCode() == StatusCodes.OK ? ByteRange.parse(exchange.getRequestHeaders().getFirst(RANGE)) : null;
+            val result = range != null && range.getRanges() == 1 ? range.getResponseResult(length, null, null, null) : null;
+            if (result != null) {
+                exchange.setStatusCode(result.getStatusCode());
+                exchange.getResponseHeaders().put(CONTENT_RANGE, result.getContentRange());
+                start = result.getStart();
+                count = result.getStatusCode() == StatusCodes.PARTIAL_CONTENT ? result.getContentLength() : 0;
+            }
+
+            exchange.setResponseContentLength(count);
+
+            exchange.putAttachment(UNENCODED, true);
+
+            val sink = exchange.getResponseChannel();
+            if (count > 0 && !Methods.HEAD.equals(exchange.getRequestMethod())) {
+                Channels.transferBlocking(sink, source, start, count);
+            }
+            sink.shutdownWrites();
+            Channels.flushBlocking(sink);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import lombok.val;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * The HTTP clients used for request forwarding - one client for each forward target and scheme. The clients are created on first use and
+ * share a single connection pool (with keep-alive) and dispatcher, so that forwarded requests reuse their upstream connections rather than
+ * opening a new one for each request. HTTP/2 is negotiated with targets which support it.
+ * <p>
+ * The forwarded requests are made asynchronously, and the shared dispatcher limits the number of concurrent requests (in total, and for each
+ * target host) to the configured maximum - well above the default limits of the client, allowing many concurrent forwarded requests to the same
+ * target. Each forwarded response is written to the client from a dispatcher thread, so a slow client holds one of these request slots until
+ * its response has been written.
+ * <p>
+ * The clients are shut down (releasing their pooled connections and threads) with the server.
+ */
+final class ForwardClients {
+
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private final Map<String, OkHttpClient> clients = new ConcurrentHashMap<>();
+    private final OkHttpClient shared;
+
+    /**
+     * Creates the forwarding clients, with the given connection pool size, concurrency limit and timeout.
+     *
+     * @param poolSize    the maximum number of idle connections kept alive in the pool
+     * @param maxRequests the maximum number of concurrent forwarded requests
+     * @param timeout     the connection, read and write timeout of the forwarded requests (ms)
+     */
+    ForwardClients(final int poolSize, final int maxRequests, final long timeout) {
+        val dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+
+        shared = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(poolSize, KEEP_ALIVE_MINUTES, MINUTES))
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(timeout, MILLISECONDS)
+            .readTimeout(timeout, MILLISECONDS)
+            .writeTimeout(timeout, MILLISECONDS)
+            .build();
+    }
+
+    /**
+     * Retrieves the client for the given forward target and scheme. The client of a secure (HTTPS) request does not verify the certificates
+     * or host name of the target.
+     *
+     * @param targetUri the forward target URI
+     * @param https     whether the forwarded request is secure
+     * @return the client
+     */
+    OkHttpClient client(final URI targetUri, final boolean https) {
+        return clients.computeIfAbsent((https ? "https|" : "http|") + targetUri, key -> {
+            val builder = shared.newBuilder();
+
+            // We're just going to ignore HTTPS for forwarded requests
+            if (https) {
+                builder.sslSocketFactory(TrustAll.SOCKET_FACTORY, TrustAll.TRUST_MANAGER).hostnameVerifier((s, sslSession) -> true);
+            }
+
+            return builder.build();
+        });
+    }
+
+    /**
+     * Shuts down the clients, releasing the pooled connections and the dispatcher threads.
+     */
+    void shutdown() {
+        clients.clear();
+        shared.dispatcher().executorService().shutdown();
+        shared.connectionPool().evictAll();
+    }
+
+    // the all-trusting SSL configuration is created once, when first needed
+    private static final class TrustAll {
+
+        static final X509TrustManager TRUST_MANAGER = new X509TrustManager() {
+            @Override public void checkClientTrusted(final X509Certificate[] chain, final String authType) {
+                // trusted
+            }
+
+            @Override public void checkServerTrusted(final X509Certificate[] chain, final String authType) {
+                // trusted
+            }
+
+            @Override public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        };
+
+        static final SSLSocketFactory SOCKET_FACTORY = socketFactory();
+
+        private static SSLSocketFactory socketFactory() {
+            try {
+                val sslContext = SSLContext.getInstance("SSL");
+                sslContext.init(null, new TrustManager[]{TRUST_MANAGER}, new SecureRandom());
+                return sslContext.getSocketFactory();
+            } catch (final GeneralSecurityException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
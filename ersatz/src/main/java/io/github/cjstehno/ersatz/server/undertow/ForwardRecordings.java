@@ -0,0 +1,272 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import io.github.cjstehno.ersatz.cfg.RecordingConfig;
+import io.github.cjstehno.ersatz.cfg.Response;
+import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
+import io.github.cjstehno.ersatz.impl.ErsatzResponse;
+import io.github.cjstehno.ersatz.impl.RecordingConfigImpl;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Locale.ROOT;
+
+/**
+ * The recorded responses of forwarded requests, persisted in an append-only file. Each record holds the request fingerprint (its key) along
+ * with the status code, headers and body content of the recorded response.
+ * <p>
+ * The file is scanned when it is opened, to build an index of the record positions by key (a later record for the same key replaces an earlier
+ * one). The records themselves are only read when they are replayed - each one is read once, as an <code>ErsatzResponse</code> which is then
+ * reused. A trailing partial record (e.g. from an interrupted recording) is discarded when the file is opened.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE) @Slf4j
+final class ForwardRecordings implements Closeable {
+
+    private static final int MAGIC = 0x45525a52;
+    private static final int RECORD_OVERHEAD = 256;
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    private final Map<String, Response> replayed = new ConcurrentHashMap<>();
+    private final FileChannel channel;
+    private final RecordingConfig.Mode mode;
+    private final Function<ClientRequest, String> fingerprint;
+    @Getter private final int maxBodySize;
+    private long end;
+
+    /**
+     * Opens the recordings configured by the given recording configuration, creating the recording file if it does not exist.
+     *
+     * @param config the recording configuration
+     * @return the opened recordings
+     * @throws IOException if there is a problem opening the recording file, or it is not a recording file
+     */
+    static ForwardRecordings open(final RecordingConfigImpl config) throws IOException {
+        val recordings = new ForwardRecordings(
+            FileChannel.open(config.getFile(), CREATE, READ, WRITE), config.getMode(), config.getFingerprint(), config.getMaxBodySize()
+        );
+        try {
+            recordings.load();
+        } catch (final IOException ex) {
+            recordings.close();
+            throw ex;
+        }
+
+        log.info("Opened {} forward recordings ({}) from: {}", recordings.index.size(), recordings.mode, config.getFile());
+        return recordings;
+    }
+
+    /**
+     * Determines whether the recorded responses are replayed, rather than the requests being forwarded.
+     *
+     * @return true if the recorded responses are replayed
+     */
+    boolean isReplaying() {
+        return mode == RecordingConfig.Mode.REPLAY;
+    }
+
+    /**
+     * Computes the fingerprint (the recording key) of the given request.
+     *
+     * @param clientRequest the client request
+     * @return the request fingerprint
+     */
+    String fingerprint(final ClientRequest clientRequest) {
+        return fingerprint.apply(clientRequest);
+    }
+
+    /**
+     * Determines whether the default fingerprint function is used - its body content digest may be computed as the request content is streamed
+     * (see <code>RecordingConfigImpl::defaultFingerprint(String, byte[])</code>), rather than by reading the content into memory.
+     *
+     * @return true if the default fingerprint function is used
+     */
+    boolean hasDefaultFingerprint() {
+        return fingerprint == RecordingConfigImpl.DEFAULT_FINGERPRINT;
+    }
+
+    /**
+     * Retrieves the recorded response for the given key.
+     *
+     * @param key the recording key
+     * @return the recorded response, or null if there is none
+     * @throws IOException if there is a problem reading the recording
+     */
+    Response replay(final String key) throws IOException {
+        val position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+
+        var response = replayed.get(key);
+        if (response == null) {
+            response = read(position);
+            replayed.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Appends a recorded response to the recording file.
+     *
+     * @param key     the recording key
+     * @param status  the response status code
+     * @param headers the response headers
+     * @param body    the response body content
+     * @throws IOException if there is a problem writing the recording
+     */
+    synchronized void record(final String key, final int status, final Map<String, List<String>> headers, final byte[] body) throws IOException {
+        val bytes = new ByteArrayOutputStream(body.length + RECORD_OVERHEAD);
+        val out = new DataOutputStream(bytes);
+
+        out.writeInt(0); // the record length - applied below
+        writeString(out, key);
+        out.writeInt(status);
+        out.writeInt(headers.values().stream().mapToInt(List::size).sum());
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (final String value : header.getValue()) {
+                writeString(out, header.getKey());
+                writeString(out, value);
+            }
+        }
+        out.writeInt(body.length);
+        out.write(body);
+
+        val record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.limit() - Integer.BYTES);
+
+        while (record.hasRemaining()) {
+            channel.write(record, end + record.position());
+        }
+
+        index.put(key, end);
+        replayed.remove(key);
+        end += record.limit();
+
+        log.debug("Recorded forwarded response ({}) for: {}", status, key);
+    }
+
+    @Override public void close() throws IOException {
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        val size = channel.size();
+        if (size == 0) {
+            val magic = ByteBuffer.allocate(Integer.BYTES).putInt(0, MAGIC);
+            while (magic.hasRemaining()) {
+                channel.write(magic, magic.position());
+            }
+            end = Integer.BYTES;
+            return;
+        }
+
+        if (readInt(0) != MAGIC) {
+            throw new IOException("The file is not a forward recording file.");
+        }
+
+        long position = Integer.BYTES;
+        while (position + 2 * Integer.BYTES <= size) {
+            val length = readInt(position);
+            if (length <= 0 || position + Integer.BYTES + length > size) {
+                break;
+            }
+
+            val key = new byte[readInt(position + Integer.BYTES)];
+            readFully(ByteBuffer.wrap(key), position + 2 * Integer.BYTES);
+            index.put(new String(key, UTF_8), position);
+
+            position += Integer.BYTES + length;
+        }
+
+        if (position < size) {
+            log.warn("Discarding a partial forward recording ({} bytes).", size - position);
+            channel.truncate(position);
+        }
+        end = position;
+    }
+
+    private Response read(final long position) throws IOException {
+        val record = ByteBuffer.allocate(readInt(position));
+        readFully(record, position + Integer.BYTES);
+        record.flip();
+
+        readString(record); // the key
+
+        val response = new ErsatzResponse(new ResponseEncoders());
+        response.code(record.getInt());
+
+        val headerCount = record.getInt();
+        for (int h = 0; h < headerCount; h++) {
+            val name = readString(record);
+            val value = readString(record);
+            if (!ErsatzForwardHandler.FRAMING_HEADERS.contains(name.toLowerCase(ROOT))) {
+                response.header(name, value);
+            }
+        }
+
+        val body = new byte[record.getInt()];
+        record.get(body);
+        response.body(body);
+
+        return response;
+    }
+
+    private int readInt(final long position) throws IOException {
+        val buffer = ByteBuffer.allocate(Integer.BYTES);
+        readFully(buffer, position);
+        return buffer.getInt(0);
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the forward recording file.");
+            }
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        val bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        val bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
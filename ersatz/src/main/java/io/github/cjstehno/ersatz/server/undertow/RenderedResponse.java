@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import io.github.cjstehno.ersatz.encdec.Cookie;
+import io.github.cjstehno.ersatz.encdec.StreamingContent;
+import io.github.cjstehno.ersatz.impl.ChunkingConfigImpl;
+import io.github.cjstehno.ersatz.impl.ErsatzResponse;
+import io.github.cjstehno.ersatz.impl.ThrottleConfigImpl;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.CookieImpl;
+import io.undertow.util.HttpString;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.undertow.util.Headers.ACCEPT_ENCODING;
+import static io.undertow.util.Headers.ACCEPT_ENCODING_STRING;
+import static io.undertow.util.Headers.CONTENT_ENCODING;
+import static io.undertow.util.Headers.VARY;
+import static io.undertow.util.HttpString.tryFromString;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * The pre-rendered (wire) form of a configured response - the header names are interned, the cookies are built and the content is held in a
+ * read-only direct buffer, along with its compressed variants (file and streaming content is instead read when sent). A response is rendered on
+ * first use (see <code>ErsatzResponse::getRendered</code>) and then shared by every request it is sent for, so nothing in here may be modified
+ * once rendered.
+ * <p>
+ * A one-off response (see <code>ErsatzResponse::isOneOff</code>) is rendered for the single request it is sent for, with its content held in a
+ * heap buffer and compressed when sent, rather than in a direct buffer with cached compressed variants - which would only be discarded.
+ */
+@RequiredArgsConstructor(access = PRIVATE)
+final class RenderedResponse {
+
+    private static final HttpString TRANSFER_ENCODING = tryFromString("Transfer-encoding");
+    private static final List<String> CHUNKED = List.of("chunked");
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+
+    private final int code;
+    private final Map<HttpString, List<String>> headers;
+    private final List<io.undertow.server.handlers.Cookie> cookies;
+    private final ByteBuffer content;
+    @Getter private final ChunkingConfigImpl chunking;
+    @Getter private final int[] chunkBoundaries;
+    @Getter private final Path file;
+    @Getter private final StreamingContent stream;
+    @Getter private final ThrottleConfigImpl throttle;
+    private final boolean compressible;
+    private final Map<String, ByteBuffer> variants;
+
+    /**
+     * Renders the provided response into its shared wire form.
+     *
+     * @param response the configured response
+     * @return the rendered response
+     */
+    static RenderedResponse render(final ErsatzResponse response) {
+        return render(response, true);
+    }
+
+    /**
+     * Renders the provided one-off response, for sending once.
+     *
+     * @param response the configured response
+     * @return the rendered response
+     */
+    static RenderedResponse renderOneOff(final ErsatzResponse response) {
+        return render(response, false);
+    }
+
+    private static RenderedResponse render(final ErsatzResponse response, final boolean shared) {
+        val headers = new LinkedHashMap<HttpString, List<String>>();
+        response.getHeaders().forEach((k, v) -> headers.computeIfAbsent(tryFromString(k), n -> new ArrayList<>()).addAll(v));
+
+        // file and streaming content is only read when sent, and is never chunked
+        val file = response.getFile();
+        val stream = response.getStream();
+        val inMemory = file == null && stream == null;
+        val throttle = inMemory ? response.getThrottleConfig() : null;
+
+        // throttling takes precedence over chunking
+        val chunking = inMemory && throttle == null ? response.getChunkingConfig() : null;
+        if (chunking != null) {
+            headers.computeIfAbsent(TRANSFER_ENCODING, n -> new ArrayList<>()).addAll(CHUNKED);
+        }
+
+        val cookies = new ArrayList<io.undertow.server.handlers.Cookie>(response.getCookies().size());
+        response.getCookies().forEach((k, v) -> cookies.add(renderCookie(k, v)));
+
+        val bytes = inMemory ? response.getContent() : EMPTY_CONTENT;
+        val content = shared
+            ? ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer()
+            : ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+
+        // the in-memory (un-chunked) content may be sent pre-compressed, unless it is already encoded
+        val compressible = inMemory && chunking == null && bytes.length > 0 && !headers.containsKey(CONTENT_ENCODING);
+        if (compressible) {
+            headers.computeIfAbsent(VARY, n -> new ArrayList<>()).add(ACCEPT_ENCODING_STRING);
+        }
+
+        return new RenderedResponse(
+            response.getCode(),
+            unmodifiableMap(headers),
+            unmodifiableList(cookies),
+            content,
+            chunking,
+            chunking != null ? chunking.getBoundaries(bytes.length) : null,
+            file,
+            stream,
+            throttle,
+            compressible,
+            shared ? new ConcurrentHashMap<>() : null
+        );
+    }
+
+    /**
+     * Applies the status code, headers and cookies of the response to the exchange.
+     *
+     * @param exchange the server exchange
+     */
+    void applyTo(final HttpServerExchange exchange) {
+        exchange.setStatusCode(code);
+
+        val responseHeaders = exchange.getResponseHeaders();
+        headers.forEach(responseHeaders::addAll);
+
+        for (final var cookie : cookies) {
+            exchange.setResponseCookie(cookie);
+        }
+    }
+
+    /**
+     * Used to retrieve a view of the response content for sending - the shared content buffer itself is never modified.
+     *
+     * @return a read-only buffer containing the response content
+     */
+    ByteBuffer getContent() {
+        return content.duplicate();
+    }
+
+    /**
+     * Used to retrieve the response content to be sent for the exchange - if the client accepts a supported content encoding (gzip or deflate),
+     * the pre-compressed variant of the content is provided, and the <code>Content-Encoding</code> header is applied. Each compressed variant of a
+     * shared response is created once, when first needed - a one-off response is compressed as it is sent.
+     *
+     * @param exchange the server exchange
+     * @return a read-only buffer containing the (possibly compressed) response content
+     */
+    ByteBuffer negotiateContent(final HttpServerExchange exchange) {
+        if (compressible) {
+            val encoding = ContentEncodings.negotiate(exchange.getRequestHeaders().getFirst(ACCEPT_ENCODING));
+            if (encoding != null) {
+                exchange.getResponseHeaders().put(CONTENT_ENCODING, encoding);
+                if (variants == null) {
+                    return ContentEncodings.compress(content, encoding, false);
+                }
+                return variants.computeIfAbsent(encoding, e -> ContentEncodings.compress(content, e)).duplicate();
+            }
+        }
+
+        return getContent();
+    }
+
+    /**
+     * Determines whether the response is to be sent as chunked content.
+     *
+     * @return true if the response content is chunked
+     */
+    boolean isChunked() {
+        return chunking != null && content.capacity() > 0;
+    }
+
+    private static io.undertow.server.handlers.Cookie renderCookie(final String name, final Object value) {
+        if (value instanceof final Cookie ersatzCookie) {
+            val cookie = new CookieImpl(name, ersatzCookie.getValue());
+            cookie.setPath(ersatzCookie.getPath());
+            cookie.setDomain(ersatzCookie.getDomain());
+            cookie.setMaxAge(ersatzCookie.getMaxAge());
+            cookie.setSecure(ersatzCookie.isSecure());
+            cookie.setVersion(ersatzCookie.getVersion());
+            cookie.setHttpOnly(ersatzCookie.isHttpOnly());
+            cookie.setComment(ersatzCookie.getComment());
+            return cookie;
+        } else {
+            return new CookieImpl(name, value.toString());
+        }
+    }
+}
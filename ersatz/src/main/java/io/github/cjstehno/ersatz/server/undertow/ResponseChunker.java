@@ -19,80 +19,74 @@ import io.undertow.io.IoCallback;
 import io.undertow.io.Sender;
 import io.undertow.server.HttpServerExchange;
 import lombok.RequiredArgsConstructor;
-import lombok.val;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
-import java.util.List;
 
-import static java.lang.System.arraycopy;
+import static io.undertow.io.IoCallback.END_EXCHANGE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static lombok.AccessLevel.PACKAGE;
 
 /**
  * Undertow server callback used to provide the delayed chunked content.
+ * <p>
+ * The chunks are read-only slices of the shared response content buffer, bounded by the chunk boundaries computed once for the response (see
+ * <code>ChunkingConfigImpl::getBoundaries</code>) - the content is never copied.
+ * <p>
+ * The delay between chunks is scheduled on the IO thread timer, so that no thread is held while waiting - when it fires, the next chunk is
+ * sent from a worker thread (the sender is blocking). The exchange is expected to be dispatched, as it is ended once the last chunk is sent.
  */
-@RequiredArgsConstructor(access = PACKAGE)
+@RequiredArgsConstructor(access = PACKAGE) @Slf4j
 class ResponseChunker implements IoCallback {
 
-    private final List<byte[]> chunks;
+    private final ByteBuffer content;
+    private final int[] boundaries;
     private final int delay;
+    private int index;
+
+    /**
+     * Sends the first chunk of the content, the remaining chunks are sent by this callback.
+     *
+     * @param sender the response sender
+     */
+    void start(final Sender sender) {
+        sendNext(sender);
+    }
 
     @Override
     public void onComplete(final HttpServerExchange exchange, final Sender sender) {
-        if (chunks != null && !chunks.isEmpty()) {
-            rest();
-            sender.send(ByteBuffer.wrap(chunks.remove(0)), this);
+        if (index >= boundaries.length - 1) {
+            END_EXCHANGE.onComplete(exchange, sender);
+
+        } else if (delay > 0) {
+            exchange.getIoThread().executeAfter(() -> exchange.dispatch(() -> sendNext(sender)), delay, MILLISECONDS);
+
+        } else {
+            sendNext(sender);
         }
     }
 
-    private void rest() {
-        if (delay > 0) {
-            try {
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                // ignore
-            }
-        }
+    private void sendNext(final Sender sender) {
+        sender.send(slice(content, boundaries, index++), this);
     }
 
     @Override
     public void onException(final HttpServerExchange exchange, final Sender sender, final IOException exception) {
-        exception.printStackTrace();
+        log.error("Unable to send response chunk: {}", exception.getMessage(), exception);
+        END_EXCHANGE.onException(exchange, sender, exception);
     }
 
     /**
-     * Splits the provided string of content into the specified number of chunks. Any remaining characters will be spread out over the chunks to
-     * keep the sizes as even as possible.
+     * Creates a read-only view of the specified chunk of the content. The position and limit of the content buffer are not used or modified, so
+     * a single content buffer may be shared by concurrent responses.
      *
-     * @param content the content array to be chunked
-     * @param chunks  the number of chunks
-     * @return a List&lt;String&gt; containing the chunk data
+     * @param content    the content buffer
+     * @param boundaries the chunk boundaries (offsets) in the content, the last being the content length
+     * @param index      the index of the chunk
+     * @return a read-only buffer containing the chunk data
      */
-    @SuppressWarnings("ReassignedVariable")
-    public static List<byte[]> prepareChunks(final byte[] content, final int chunks) {
-        val chunkLen = content.length / chunks;
-        int remainder = content.length % chunks;
-
-        final List<byte[]> chunked = new LinkedList<>();
-
-        int index = 0;
-
-        for (int n = 0; n < chunks; n++) {
-            int extra = 0;
-            if (remainder > 0) {
-                extra = 1;
-                --remainder;
-            }
-
-            val len = chunkLen + extra;
-            val chunk = new byte[len];
-            arraycopy(content, index, chunk, 0, len);
-            chunked.add(chunk);
-
-            index += len;
-        }
-
-        return chunked;
+    static ByteBuffer slice(final ByteBuffer content, final int[] boundaries, final int index) {
+        return content.slice(boundaries[index], boundaries[index + 1] - boundaries[index]).asReadOnlyBuffer();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import io.github.cjstehno.ersatz.encdec.StreamingContent;
+import io.undertow.io.AsyncSenderImpl;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.SameThreadExecutor;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Flow;
+
+import static io.undertow.io.IoCallback.END_EXCHANGE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Used to send streaming response content (see <code>StreamingContent</code>). The content is written with the asynchronous sender, so a slow
+ * client never holds a server thread, and with back-pressure - the next part of the content is only read (or requested from the publisher) once
+ * the previous part has been written, so the memory used is constant regardless of the content length.
+ * <p>
+ * The exchange is dispatched while the content is streamed, and it is ended once the content is complete (or on error). A content channel which
+ * has no content available (a read of zero bytes, e.g. a non-blocking channel) is read again after a short delay on the IO thread timer, so that
+ * no worker thread spins while waiting for it.
+ */
+@NoArgsConstructor(access = PRIVATE) @Slf4j
+final class StreamingResponseSender {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final long EMPTY_READ_DELAY = 10;
+
+    /**
+     * Starts sending the streaming content. The content is sent after the current handler call returns.
+     *
+     * @param exchange the server exchange
+     * @param content  the streaming content
+     */
+    static void send(final HttpServerExchange exchange, final StreamingContent content) {
+        final Sender sender = new AsyncSenderImpl(exchange);
+
+        if (content.getPublisher() != null) {
+            exchange.dispatch(SameThreadExecutor.INSTANCE, () -> content.getPublisher().subscribe(new PublisherWriter(exchange, sender)));
+        } else {
+            // the channel is read from a worker thread, since the read may block
+            exchange.dispatch(() -> new ChannelWriter(exchange, sender, content.getChannel().get()).writeNext());
+        }
+    }
+
+    private static void fail(final HttpServerExchange exchange, final Sender sender, final Throwable error) {
+        log.error("Unable to stream the response content: {}", error.getMessage(), error);
+        END_EXCHANGE.onException(exchange, sender, error instanceof IOException io ? io : new IOException(error));
+    }
+
+    /**
+     * Writes the content of a channel, one buffer at a time - the buffer is re-filled once its content has been written.
+     */
+    @RequiredArgsConstructor(access = PRIVATE)
+    private static final class ChannelWriter implements IoCallback {
+
+        private final HttpServerExchange exchange;
+        private final Sender sender;
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private void writeNext() {
+            try {
+                buffer.clear();
+
+                val read = channel.read(buffer);
+                if (read == 0) {
+                    exchange.getIoThread().executeAfter(() -> exchange.dispatch(this::writeNext), EMPTY_READ_DELAY, MILLISECONDS);
+                } else if (read < 0) {
+                    channel.close();
+                    END_EXCHANGE.onComplete(exchange, sender);
+                } else {
+                    buffer.flip();
+                    sender.send(buffer, this);
+                }
+
+            } catch (final IOException ex) {
+                closeQuietly();
+                fail(exchange, sender, ex);
+            }
+        }
+
+        @Override public void onComplete(final HttpServerExchange exchange, final Sender sender) {
+            // the write may complete on the IO thread, the next read is done on a worker thread
+            exchange.dispatch(this::writeNext);
+        }
+
+        @Override public void onException(final HttpServerExchange exchange, final Sender sender, final IOException exception) {
+            closeQuietly();
+            fail(exchange, sender, exception);
+        }
+
+        private void closeQuietly() {
+            try {
+                channel.close();
+            } catch (final IOException ex) {
+                log.debug("Unable to close the content channel: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the buffers published by a publisher - one buffer is requested at a time, once the previous buffer has been written. The next
+     * buffer is always requested from a new task, never from within the previous write.
+     */
+    @RequiredArgsConstructor(access = PRIVATE)
+    private static final class PublisherWriter implements Flow.Subscriber<ByteBuffer>, IoCallback {
+
+        private final HttpServerExchange exchange;
+        private final Sender sender;
+        private Flow.Subscription subscription;
+        private boolean writing;
+        private boolean completed;
+
+        @Override public synchronized void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override public synchronized void onNext(final ByteBuffer item) {
+            writing = true;
+            sender.send(item, this);
+        }
+
+        @Override public synchronized void onError(final Throwable throwable) {
+            fail(exchange, sender, throwable);
+        }
+
+        @Override public synchronized void onComplete() {
+            completed = true;
+
+            // the response is ended once the last buffer has been written
+            if (!writing) {
+                END_EXCHANGE.onComplete(exchange, sender);
+            }
+        }
+
+        @Override public synchronized void onComplete(final HttpServerExchange exchange, final Sender sender) {
+            writing = false;
+
+            if (completed) {
+                END_EXCHANGE.onComplete(exchange, sender);
+            } else {
+                // the write may have completed within onNext - the next buffer is requested from the IO thread task queue (rather than on the
+                // current stack), so that a synchronous publisher does not recurse once per buffer
+                exchange.getIoThread().execute(() -> subscription.request(1));
+            }
+        }
+
+        @Override public synchronized void onException(final HttpServerExchange exchange, final Sender sender, final IOException exception) {
+            subscription.cancel();
+            fail(exchange, sender, exception);
+        }
+    }
+}
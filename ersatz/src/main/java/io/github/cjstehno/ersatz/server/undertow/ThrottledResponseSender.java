@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import io.github.cjstehno.ersatz.impl.ThrottleConfigImpl;
+import io.undertow.io.AsyncSenderImpl;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.SameThreadExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.undertow.io.IoCallback.END_EXCHANGE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Used to send bandwidth-throttled response content (see <code>ThrottleConfig</code>). The content is written in slices, each sized to be
+ * written once per pacing interval (a tenth of a second, for rates of at least ten bytes per second) at the configured rate. The pacing is
+ * scheduled on the IO thread timer and the slices are written with the asynchronous sender, so no thread is held while a response is throttled.
+ * <p>
+ * The exchange is dispatched while the content is sent, and it is ended once the content is complete (or on error).
+ */
+@RequiredArgsConstructor(access = PRIVATE) @Slf4j
+final class ThrottledResponseSender implements IoCallback {
+
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final long INTERVALS_PER_SECOND = 10;
+
+    private final HttpServerExchange exchange;
+    private final Sender sender;
+    private final ByteBuffer content;
+    private final int sliceSize;
+    private final long interval;
+    private final double jitter;
+
+    /**
+     * Starts sending the throttled content. The content is sent after the current handler call returns.
+     *
+     * @param exchange the server exchange
+     * @param content  the content to be sent (it will be consumed)
+     * @param throttle the throttling configuration
+     */
+    static void send(final HttpServerExchange exchange, final ByteBuffer content, final ThrottleConfigImpl throttle) {
+        val sliceSize = Math.max(1, throttle.getBytesPerSecond() / INTERVALS_PER_SECOND);
+        val interval = sliceSize * MILLIS_PER_SECOND / throttle.getBytesPerSecond();
+
+        exchange.setResponseContentLength(content.remaining());
+
+        val throttled = new ThrottledResponseSender(
+            exchange, new AsyncSenderImpl(exchange), content, (int) sliceSize, interval, throttle.getJitter()
+        );
+
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> throttled.schedule(throttle.getTimeToFirstByte()));
+    }
+
+    private void schedule(final long delay) {
+        if (delay > 0) {
+            exchange.getIoThread().executeAfter(this::sendNext, delay, MILLISECONDS);
+        } else {
+            sendNext();
+        }
+    }
+
+    private void sendNext() {
+        val length = Math.min(sliceSize, content.remaining());
+        val slice = content.slice(content.position(), length);
+        content.position(content.position() + length);
+
+        sender.send(slice, this);
+    }
+
+    private long nextInterval() {
+        if (jitter > 0) {
+            return Math.round(interval * (1 + jitter * ThreadLocalRandom.current().nextDouble(-1, 1)));
+        }
+        return interval;
+    }
+
+    @Override public void onComplete(final HttpServerExchange exchange, final Sender sender) {
+        if (content.hasRemaining()) {
+            schedule(nextInterval());
+        } else {
+            END_EXCHANGE.onComplete(exchange, sender);
+        }
+    }
+
+    @Override public void onException(final HttpServerExchange exchange, final Sender sender, final IOException exception) {
+        log.error("Unable to send throttled response content: {}", exception.getMessage(), exception);
+        END_EXCHANGE.onException(exchange, sender, exception);
+    }
+}
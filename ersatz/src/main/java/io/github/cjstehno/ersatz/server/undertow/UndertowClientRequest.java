@@ -17,32 +17,51 @@ package io.github.cjstehno.ersatz.server.undertow;
 
 import io.github.cjstehno.ersatz.cfg.HttpMethod;
 import io.github.cjstehno.ersatz.encdec.Cookie;
+import io.github.cjstehno.ersatz.encdec.DecoderChain;
+import io.github.cjstehno.ersatz.encdec.DecodingContext;
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import io.undertow.server.HttpServerExchange;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 
 import static io.github.cjstehno.ersatz.cfg.ContentType.CONTENT_TYPE_HEADER;
 import static io.undertow.util.QueryParameterUtils.parseQueryString;
 import static java.lang.String.format;
+import static java.lang.System.identityHashCode;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
 
 /**
  * The primary <code>ClientRequest</code> implementation used to wrap and expose the important parts of the underlying Undertow request context.
+ * <p>
+ * The request data (method, headers, cookies, query and body parameters) is resolved lazily, at most once per exchange, into unmodifiable
+ * copies (including the value deques) which are shared by all subsequent calls - the request is matched against many matchers, none of which may
+ * change it. Similarly, the decoded body content is cached for each distinct decoding.
  */
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 class UndertowClientRequest implements ClientRequest {
 
     private final HttpServerExchange exchange;
     private AtomicReference<byte[]> content;
+    private HttpMethod method;
+    private Map<String, Deque<String>> queryParams;
+    private Map<String, Deque<String>> headers;
+    private Map<String, Cookie> cookies;
+    private Map<String, Deque<String>> bodyParameters;
+    private Map<DecodingKey, Object> decodedBodies;
+    private Map<String, String> pathVariables = emptyMap();
 
     /**
      * Used to retrieve the request scheme, generally HTTP or HTTPS.
@@ -59,7 +78,10 @@ class UndertowClientRequest implements ClientRequest {
      * @return the HTTP method for the request
      */
     @Override public HttpMethod getMethod() {
-        return HttpMethod.valueOf(exchange.getRequestMethod().toString());
+        if (method == null) {
+            method = HttpMethod.valueOf(exchange.getRequestMethod().toString());
+        }
+        return method;
     }
 
     /**
@@ -71,13 +93,44 @@ class UndertowClientRequest implements ClientRequest {
         return exchange.getRequestPath();
     }
 
+    /**
+     * Retrieves the variables captured from the request path by the path template of the matched expectation.
+     *
+     * @return the captured path variables
+     */
+    @Override public Map<String, String> getPathVariables() {
+        return pathVariables;
+    }
+
+    /**
+     * Used to bind the path variables captured by the matched expectation.
+     *
+     * @param pathVariables the captured path variables
+     */
+    void setPathVariables(final Map<String, String> pathVariables) {
+        this.pathVariables = pathVariables;
+    }
+
     /**
      * Retrieves the URL query string parameters for the request.
      *
      * @return the query string parameters
      */
     @Override public Map<String, Deque<String>> getQueryParams() {
-        return exchange.getQueryParameters();
+        if (queryParams == null) {
+            queryParams = snapshot(exchange.getQueryParameters());
+        }
+        return queryParams;
+    }
+
+    /**
+     * Retrieves a read-only view of the values of the given query parameter, directly from the exchange query parameters.
+     *
+     * @param name the query parameter name
+     * @return the query parameter values, or null if the parameter does not exist
+     */
+    @Override public Deque<String> getQueryValues(final String name) {
+        return UnmodifiableDeque.of(exchange.getQueryParameters().get(name));
     }
 
     /**
@@ -86,13 +139,28 @@ class UndertowClientRequest implements ClientRequest {
      * @return the request headers
      */
     @Override public Map<String, Deque<String>> getHeaders() {
-        final var map = new LinkedHashMap<String, Deque<String>>();
+        if (headers == null) {
+            final var map = new LinkedHashMap<String, Deque<String>>();
 
-        exchange.getRequestHeaders().forEach(header -> {
-            map.computeIfAbsent(header.getHeaderName().toString(), s -> new ArrayDeque<>()).addAll(header);
-        });
+            exchange.getRequestHeaders().forEach(header -> {
+                map.computeIfAbsent(header.getHeaderName().toString(), s -> new ArrayDeque<>()).addAll(header);
+            });
 
-        return map;
+            map.replaceAll((name, values) -> UnmodifiableDeque.of(values));
+            headers = unmodifiableMap(map);
+        }
+
+        return headers;
+    }
+
+    /**
+     * Retrieves a read-only view of the values of the given header, directly from the (case-insensitive) exchange header map.
+     *
+     * @param name the header name
+     * @return the header values, or null if the header does not exist
+     */
+    @Override public Deque<String> getHeaderValues(final String name) {
+        return UnmodifiableDeque.of(exchange.getRequestHeaders().get(name));
     }
 
     /**
@@ -101,10 +169,17 @@ class UndertowClientRequest implements ClientRequest {
      * @return the request cookies
      */
     @Override public Map<String, Cookie> getCookies() {
-        val cookies = new LinkedHashMap<String, Cookie>();
+        if (cookies == null) {
+            cookies = unmodifiableMap(resolveCookies());
+        }
+        return cookies;
+    }
+
+    private Map<String, Cookie> resolveCookies() {
+        val map = new LinkedHashMap<String, Cookie>();
 
         exchange.requestCookies().forEach(c -> {
-            cookies.put(
+            map.put(
                 c.getName(),
                 new Cookie(
                     c.getValue(),
@@ -119,7 +194,7 @@ class UndertowClientRequest implements ClientRequest {
             );
         });
 
-        return cookies;
+        return map;
     }
 
     /**
@@ -136,9 +211,55 @@ class UndertowClientRequest implements ClientRequest {
         return content.get();
     }
 
+    /**
+     * Retrieves the body content decoded by the provided decoder function. The decoded content is cached, so that each distinct decoding (the
+     * same decoder and decoder chain instances) is performed at most once per exchange.
+     *
+     * @param decoder      the resolved body content decoder
+     * @param decoderChain the decoder chain the decoder was resolved from
+     * @return the decoded body content
+     */
+    @Override public Object getDecodedBody(final BiFunction<byte[], DecodingContext, Object> decoder, final DecoderChain decoderChain) {
+        if (decodedBodies == null) {
+            decodedBodies = new HashMap<>();
+        }
+
+        val key = new DecodingKey(decoder, decoderChain);
+        if (!decodedBodies.containsKey(key)) {
+            decodedBodies.put(key, ClientRequest.super.getDecodedBody(decoder, decoderChain));
+        }
+
+        return decodedBodies.get(key);
+    }
+
+    /**
+     * Retrieves the body content as a stream. If the body content has already been read (e.g. by a request matcher) the stream reads the retained
+     * content, otherwise the content is streamed directly from the request, without being retained.
+     *
+     * @return the body content stream
+     */
+    InputStream getBodyStream() {
+        if (content != null) {
+            val body = content.get();
+            return new ByteArrayInputStream(body != null ? body : new byte[0]);
+        }
+
+        return exchange.getInputStream();
+    }
+
     @Override public Map<String, Deque<String>> getBodyParameters() {
-        final var body = getBody();
-        return body != null ? parseQueryString(new String(body, UTF_8), UTF_8.displayName()) : emptyMap();
+        if (bodyParameters == null) {
+            final var body = getBody();
+            bodyParameters = body != null ? snapshot(parseQueryString(new String(body, UTF_8), UTF_8.displayName())) : emptyMap();
+        }
+        return bodyParameters;
+    }
+
+    // copies the values into an unmodifiable map of unmodifiable deques, so that the snapshot is independent of the exchange
+    private static Map<String, Deque<String>> snapshot(final Map<String, Deque<String>> values) {
+        val map = new LinkedHashMap<String, Deque<String>>();
+        values.forEach((name, vals) -> map.put(name, UnmodifiableDeque.of(new ArrayDeque<>(vals))));
+        return unmodifiableMap(map);
     }
 
     @Override
@@ -188,4 +309,20 @@ class UndertowClientRequest implements ClientRequest {
         final var header = exchange.getRequestHeaders().get(CONTENT_TYPE_HEADER);
         return header != null ? header.getFirst() : null;
     }
-}
\ No newline at end of file
+
+    // the decodings are identified by the decoder and decoder chain instances (regardless of their own notions of equality)
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE) @SuppressWarnings("ClassCanBeRecord")
+    private static final class DecodingKey {
+
+        private final BiFunction<byte[], DecodingContext, Object> decoder;
+        private final DecoderChain decoderChain;
+
+        @Override public boolean equals(final Object other) {
+            return other instanceof final DecodingKey key && decoder == key.decoder && decoderChain == key.decoderChain;
+        }
+
+        @Override public int hashCode() {
+            return 31 * identityHashCode(decoder) + identityHashCode(decoderChain);
+        }
+    }
+}
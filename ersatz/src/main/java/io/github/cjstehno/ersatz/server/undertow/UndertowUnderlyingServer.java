@@ -51,6 +51,8 @@ public class UndertowUnderlyingServer implements UnderlyingServer {
     private static final int UNSPECIFIED_PORT = -1;
     private final ServerConfigImpl serverConfig;
     private Undertow server;
+    private ForwardClients forwardClients;
+    private ForwardRecordings forwardRecordings;
     private int actualHttpPort = UNSPECIFIED_PORT;
     private int actualHttpsPort = UNSPECIFIED_PORT;
 
@@ -77,6 +79,11 @@ public class UndertowUnderlyingServer implements UnderlyingServer {
                 log.debug("HTTPS listener enabled and configured.");
             }
 
+            forwardClients = new ForwardClients(
+                serverConfig.getForwardConnections(), serverConfig.getForwardConcurrency(), serverConfig.getForwardTimeout()
+            );
+            forwardRecordings = openRecordings();
+
             server = builder.setHandler(
                 new WebSocketHandler(
                     new BlockingHandler(new EncodingHandler(
@@ -85,14 +92,20 @@ public class UndertowUnderlyingServer implements UnderlyingServer {
                                 serverConfig.getRequirements(),
                                 serverConfig.getExpectations(),
                                 serverConfig.isMismatchToConsole(),
+                                serverConfig.getUnmatchedRequests(),
                                 new ErsatzForwardHandler(
+                                    forwardClients,
+                                    forwardRecordings,
+                                    serverConfig.getForwardCache(),
                                     new ErsatzHttpHandler(
                                         serverConfig.isLogResponseContent()
                                     )
                                 )
                             )
                         ),
-                        new ContentEncodingRepository().addEncodingHandler("gzip", new GzipEncodingProvider(), GZIP_HANDLER_PRIORITY)
+                        new ContentEncodingRepository().addEncodingHandler(
+                            "gzip", new GzipEncodingProvider(), GZIP_HANDLER_PRIORITY, ex -> ex.getAttachment(FileResponseSender.UNENCODED) == null
+                        )
                     )),
                     serverConfig
                 )
@@ -125,6 +138,9 @@ public class UndertowUnderlyingServer implements UnderlyingServer {
             actualHttpsPort = UNSPECIFIED_PORT;
 
             server.stop();
+            forwardClients.shutdown();
+            closeRecordings();
+            serverConfig.getUnmatchedRequests().shutdown();
 
             server = null;
         }
@@ -150,6 +166,30 @@ public class UndertowUnderlyingServer implements UnderlyingServer {
         log.debug("Applied ports (http:{}, https:{}).", actualHttpPort, actualHttpsPort);
     }
 
+    private ForwardRecordings openRecordings() {
+        val config = serverConfig.getRecordingConfig();
+        if (config == null) {
+            return null;
+        }
+
+        try {
+            return ForwardRecordings.open(config);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void closeRecordings() {
+        if (forwardRecordings != null) {
+            try {
+                forwardRecordings.close();
+            } catch (final IOException ex) {
+                log.warn("Unable to close the forward recordings: {}", ex.getMessage());
+            }
+            forwardRecordings = null;
+        }
+    }
+
     private SSLContext sslContext() {
         try {
             KeyStore keyStore = KeyStore.getInstance("JKS");
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.util.AbstractCollection;
+import java.util.Deque;
+import java.util.Iterator;
+
+import static java.util.Collections.unmodifiableCollection;
+
+/**
+ * A read-only view of a <code>Deque</code> - the request values are exposed as deques (see <code>ClientRequest</code>), and the JDK provides no
+ * unmodifiable deque. All of the mutating operations throw an <code>UnsupportedOperationException</code>.
+ *
+ * @param <E> the type of the elements
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class UnmodifiableDeque<E> extends AbstractCollection<E> implements Deque<E> {
+
+    private final Deque<E> deque;
+
+    /**
+     * Creates a read-only view of the given deque.
+     *
+     * @param deque the deque (may be null)
+     * @param <E>   the type of the elements
+     * @return the read-only view, or null if the deque is null
+     */
+    static <E> Deque<E> of(final Deque<E> deque) {
+        return deque == null || deque instanceof UnmodifiableDeque ? deque : new UnmodifiableDeque<>(deque);
+    }
+
+    @Override public Iterator<E> iterator() {
+        return unmodifiableCollection(deque).iterator();
+    }
+
+    @Override public Iterator<E> descendingIterator() {
+        val descending = deque.descendingIterator();
+        return new Iterator<>() {
+            @Override public boolean hasNext() {
+                return descending.hasNext();
+            }
+
+            @Override public E next() {
+                return descending.next();
+            }
+        };
+    }
+
+    @Override public int size() {
+        return deque.size();
+    }
+
+    @Override public boolean contains(final Object o) {
+        return deque.contains(o);
+    }
+
+    @Override public E getFirst() {
+        return deque.getFirst();
+    }
+
+    @Override public E getLast() {
+        return deque.getLast();
+    }
+
+    @Override public E peekFirst() {
+        return deque.peekFirst();
+    }
+
+    @Override public E peekLast() {
+        return deque.peekLast();
+    }
+
+    @Override public E element() {
+        return deque.element();
+    }
+
+    @Override public E peek() {
+        return deque.peek();
+    }
+
+    @Override public void addFirst(final E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public void addLast(final E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean offerFirst(final E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean offerLast(final E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public E removeFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public E removeLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public E pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public E pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean removeFirstOccurrence(final Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean removeLastOccurrence(final Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean add(final E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean offer(final E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public E remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public E poll() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public void push(final E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public E pop() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public boolean remove(final Object o) {
+        throw new UnsupportedOperationException();
+    }
+}
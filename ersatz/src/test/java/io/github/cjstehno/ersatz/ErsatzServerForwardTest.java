@@ -15,6 +15,7 @@
  */
 package io.github.cjstehno.ersatz;
 
+import io.github.cjstehno.ersatz.cfg.RecordingConfig;
 import io.github.cjstehno.ersatz.cfg.ServerConfig;
 import io.github.cjstehno.ersatz.junit.ApplyServerConfig;
 import io.github.cjstehno.ersatz.junit.SharedErsatzServerExtension;
@@ -24,13 +25,23 @@ import io.github.cjstehno.ersatz.util.JsonEncDec;
 import lombok.val;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static io.github.cjstehno.ersatz.cfg.ContentType.APPLICATION_JSON;
+import static io.github.cjstehno.ersatz.cfg.ContentType.TEXT_PLAIN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -41,6 +52,7 @@ public class ErsatzServerForwardTest {
         cfg.decoder(APPLICATION_JSON, JsonEncDec.jsonDecoder);
         cfg.encoder(APPLICATION_JSON, Map.class, JsonEncDec.jsonEncoder);
         cfg.https();
+        cfg.forwardConnections(2);
     }
 
     @SuppressWarnings("unused") private Client client;
@@ -231,4 +243,288 @@ public class ErsatzServerForwardTest {
             assertTrue(server.verify());
         }
     }
+
+    @ParameterizedTest @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void streamingLargeContent(final boolean secure, final ErsatzServer server) throws Exception {
+        val requestContent = "0123456789abcdef".repeat(128 * 1024);
+        val responseContent = "fedcba9876543210".repeat(256 * 1024);
+        val received = new AtomicReference<String>();
+
+        try (val targetServer = new ErsatzServer(ErsatzServerForwardTest::serverConfig)) {
+            targetServer.expectations(expect -> {
+                expect.POST("/endpoint/large", req -> {
+                    req.secure(secure);
+                    req.called();
+                    req.dynamicResponder((cr, res) -> {
+                        received.set(new String(cr.getBody(), UTF_8));
+                        res.body(responseContent, TEXT_PLAIN);
+                    });
+                });
+            });
+
+            server.expectations(expect -> {
+                expect.POST("/endpoint/large", req -> {
+                    req.secure(secure);
+                    req.called();
+                    req.forward(targetServer.getUrl(secure));
+                });
+            });
+
+            try (val response = client.post("/endpoint/large", RequestBody.create(requestContent, MediaType.get(TEXT_PLAIN.getValue())), secure)) {
+                assertEquals(200, response.code());
+                assertEquals(responseContent, response.body().string());
+            }
+
+            assertEquals(requestContent, received.get());
+            assertTrue(server.verify());
+            assertTrue(targetServer.verify());
+        }
+    }
+
+    @Test
+    void recordAndReplay(@TempDir final Path dir) throws Exception {
+        val file = dir.resolve("forwarded.rec");
+        final String targetUrl;
+
+        try (val targetServer = new ErsatzServer()) {
+            targetServer.expectations(expect -> {
+                expect.GET("/endpoint/recorded", req -> {
+                    req.called(1);
+                    req.query("id", "1");
+                    req.responder(res -> res.header("X-Origin", "target").body("recorded-1", TEXT_PLAIN));
+                });
+            });
+            targetUrl = targetServer.getHttpUrl();
+
+            try (val recorder = new ErsatzServer(cfg -> cfg.forwardRecording(rec -> rec.file(file).mode(RecordingConfig.Mode.RECORD)))) {
+                recorder.expectations(expect -> expect.GET("/endpoint/recorded").forward(targetUrl));
+
+                try (val response = new Client(recorder.getHttpUrl(), recorder.getHttpUrl(), false).get("/endpoint/recorded?id=1")) {
+                    assertEquals(200, response.code());
+                    assertEquals("recorded-1", response.body().string());
+                }
+            }
+
+            assertTrue(targetServer.verify());
+        }
+
+        // the target server is no longer running
+        try (val replayer = new ErsatzServer(cfg -> cfg.forwardRecording(rec -> rec.file(file)))) {
+            replayer.expectations(expect -> expect.GET("/endpoint/recorded").called(2).forward(targetUrl));
+
+            val replayClient = new Client(replayer.getHttpUrl(), replayer.getHttpUrl(), false);
+            try (val response = replayClient.get("/endpoint/recorded?id=1")) {
+                assertEquals(200, response.code());
+                assertEquals("target", response.header("X-Origin"));
+                assertEquals("recorded-1", response.body().string());
+            }
+
+            try (val response = replayClient.get("/endpoint/recorded?id=2")) {
+                assertEquals(502, response.code());
+                assertEquals("No recorded response for: GET /endpoint/recorded {id=[2]}", response.body().string());
+            }
+
+            assertTrue(replayer.verify());
+        }
+    }
+
+    @Test @DisplayName("record and replay with streamed request content")
+    void recordAndReplayStreamed(@TempDir final Path dir) throws Exception {
+        val file = dir.resolve("forwarded.rec");
+        final String targetUrl;
+
+        try (val targetServer = new ErsatzServer()) {
+            targetServer.expectations(expect -> {
+                expect.POST("/endpoint/recorded", req -> {
+                    req.called(2);
+                    req.dynamicResponder((cr, res) -> res.body("recorded-" + new String(cr.getBody(), UTF_8), TEXT_PLAIN));
+                });
+                expect.GET("/endpoint/large", req -> {
+                    req.called(1);
+                    req.responder(res -> res.body("x".repeat(1000), TEXT_PLAIN));
+                });
+            });
+            targetUrl = targetServer.getHttpUrl();
+
+            val recording = (Consumer<RecordingConfig>) rec -> rec.file(file).mode(RecordingConfig.Mode.RECORD).maxBodySize(100);
+            try (val recorder = new ErsatzServer(cfg -> cfg.forwardRecording(recording))) {
+                recorder.expectations(expect -> {
+                    expect.POST("/endpoint/recorded").forward(targetUrl);
+                    expect.GET("/endpoint/large").forward(targetUrl);
+                });
+
+                val recordClient = new Client(recorder.getHttpUrl(), recorder.getHttpUrl(), false);
+                for (val content : new String[]{"alpha", "bravo"}) {
+                    try (val response = recordClient.post("/endpoint/recorded", RequestBody.create(content, MediaType.get(TEXT_PLAIN.getValue())))) {
+                        assertEquals(200, response.code());
+                        assertEquals("recorded-" + content, response.body().string());
+                    }
+                }
+
+                // the response content is larger than the maximum recorded body size, so it is forwarded but not recorded
+                try (val response = recordClient.get("/endpoint/large")) {
+                    assertEquals(200, response.code());
+                    assertEquals(1000, response.body().string().length());
+                }
+            }
+
+            assertTrue(targetServer.verify());
+        }
+
+        // the fingerprints computed from the streamed content match those computed from the content in memory
+        try (val replayer = new ErsatzServer(cfg -> cfg.forwardRecording(rec -> rec.file(file)))) {
+            replayer.expectations(expect -> {
+                expect.POST("/endpoint/recorded").forward(targetUrl);
+                expect.GET("/endpoint/large").forward(targetUrl);
+            });
+
+            val replayClient = new Client(replayer.getHttpUrl(), replayer.getHttpUrl(), false);
+            for (val content : new String[]{"bravo", "alpha"}) {
+                try (val response = replayClient.post("/endpoint/recorded", RequestBody.create(content, MediaType.get(TEXT_PLAIN.getValue())))) {
+                    assertEquals(200, response.code());
+                    assertEquals("recorded-" + content, response.body().string());
+                }
+            }
+
+            try (val response = replayClient.get("/endpoint/large")) {
+                assertEquals(502, response.code());
+            }
+        }
+    }
+
+    @Test @DisplayName("forwarded responses are cached")
+    void forwardCache() throws Exception {
+        try (val targetServer = new ErsatzServer()) {
+            targetServer.expectations(expect -> {
+                expect.GET("/endpoint/fresh", req -> {
+                    req.called(1);
+                    req.responder(res -> res.header("Cache-Control", "max-age=60").body("fresh", TEXT_PLAIN));
+                });
+                expect.GET("/endpoint/validated", req -> {
+                    req.called(1);
+                    req.header("If-None-Match", "\"v1\"");
+                    req.responder(res -> res.code(304));
+                });
+                expect.GET("/endpoint/validated", req -> {
+                    req.called(1);
+                    req.responder(res -> res.header("Cache-Control", "no-cache").header("ETag", "\"v1\"").body("validated", TEXT_PLAIN));
+                });
+            });
+
+            try (val proxy = new ErsatzServer(cfg -> cfg.forwardCache(10))) {
+                proxy.expectations(expect -> expect.GET(startsWith("/endpoint")).forward(targetServer.getHttpUrl()));
+
+                val proxyClient = new Client(proxy.getHttpUrl(), proxy.getHttpUrl(), false);
+                for (final String path : new String[]{"/endpoint/fresh", "/endpoint/validated"}) {
+                    for (int i = 0; i < 2; i++) {
+                        try (val response = proxyClient.get(path)) {
+                            assertEquals(200, response.code());
+                            assertEquals(path.substring(path.lastIndexOf('/') + 1), response.body().string());
+                        }
+                    }
+                }
+
+                assertEquals(2, proxy.getForwardCacheHits());
+                assertEquals(2, proxy.getForwardCacheMisses());
+            }
+
+            assertTrue(targetServer.verify());
+        }
+    }
+
+    @Test @DisplayName("forward cache responses to requests with credentials")
+    void forwardCacheCredentials() throws Exception {
+        try (val targetServer = new ErsatzServer()) {
+            targetServer.expectations(expect -> {
+                for (final String token : new String[]{"alpha", "bravo"}) {
+                    expect.GET("/endpoint/token", req -> {
+                        req.called(1);
+                        req.header("Authorization", "Bearer " + token);
+                        req.responder(res -> res.header("Cache-Control", "max-age=60").body(token, TEXT_PLAIN));
+                    });
+                }
+                expect.GET("/endpoint/config", req -> {
+                    req.called(1);
+                    req.responder(res -> res.header("Cache-Control", "public, max-age=60").body("shared", TEXT_PLAIN));
+                });
+            });
+
+            try (val proxy = new ErsatzServer(cfg -> cfg.forwardCache(10))) {
+                proxy.expectations(expect -> expect.GET(startsWith("/endpoint")).forward(targetServer.getHttpUrl()));
+
+                // each caller is served its own response, unless the response is explicitly shareable
+                val proxyClient = new Client(proxy.getHttpUrl(), proxy.getHttpUrl(), false);
+                for (final String token : new String[]{"alpha", "bravo"}) {
+                    try (val response = proxyClient.get("/endpoint/token", builder -> builder.header("Authorization", "Bearer " + token))) {
+                        assertEquals(200, response.code());
+                        assertEquals(token, response.body().string());
+                    }
+
+                    try (val response = proxyClient.get("/endpoint/config", builder -> builder.header("Authorization", "Bearer " + token))) {
+                        assertEquals(200, response.code());
+                        assertEquals("shared", response.body().string());
+                    }
+                }
+
+                assertEquals(1, proxy.getForwardCacheHits());
+                assertEquals(3, proxy.getForwardCacheMisses());
+            }
+
+            assertTrue(targetServer.verify());
+        }
+    }
+
+    @Test @DisplayName("forward cache request directives and content size")
+    void forwardCacheDirectives() throws Exception {
+        try (val targetServer = new ErsatzServer()) {
+            targetServer.expectations(expect -> {
+                expect.GET("/endpoint/directives", req -> {
+                    req.called(1);
+                    req.header("If-None-Match", "\"v1\"");
+                    req.responder(res -> res.code(304));
+                });
+                expect.GET("/endpoint/directives", req -> {
+                    req.called(2);
+                    req.responder(res -> res.header("Cache-Control", "max-age=60").header("ETag", "\"v1\"").body("directives", TEXT_PLAIN));
+                });
+                expect.GET("/endpoint/large", req -> {
+                    req.called(2);
+                    req.responder(res -> res.header("Cache-Control", "max-age=60").body("large", TEXT_PLAIN));
+                });
+            });
+
+            try (val proxy = new ErsatzServer(cfg -> cfg.forwardCache(10, 60, SECONDS, 4))) {
+                proxy.expectations(expect -> expect.GET(startsWith("/endpoint")).forward(targetServer.getHttpUrl()));
+
+                // cached, then served from the cache (no-transform is not a caching directive), revalidated (no-cache) and bypassed (no-store)
+                val proxyClient = new Client(proxy.getHttpUrl(), proxy.getHttpUrl(), false);
+                for (final String cacheControl : new String[]{null, "no-transform", "no-cache", "no-store"}) {
+                    try (val response = proxyClient.get("/endpoint/directives", builder -> {
+                        if (cacheControl != null) {
+                            builder.header("Cache-Control", cacheControl);
+                        }
+                    })) {
+                        assertEquals(200, response.code());
+                        assertEquals("directives", response.body().string());
+                    }
+                }
+
+                assertEquals(2, proxy.getForwardCacheHits());
+                assertEquals(1, proxy.getForwardCacheMisses());
+
+                // the content is larger than the maximum content size, so it is never cached
+                for (int i = 0; i < 2; i++) {
+                    try (val response = proxyClient.get("/endpoint/large")) {
+                        assertEquals(200, response.code());
+                        assertEquals("large", response.body().string());
+                    }
+                }
+
+                assertEquals(2, proxy.getForwardCacheHits());
+                assertEquals(3, proxy.getForwardCacheMisses());
+            }
+
+            assertTrue(targetServer.verify());
+        }
+    }
 }
@@ -18,18 +18,26 @@ package io.github.cjstehno.ersatz;
 import io.github.cjstehno.ersatz.cfg.ServerConfig;
 import io.github.cjstehno.ersatz.junit.ApplyServerConfig;
 import io.github.cjstehno.ersatz.junit.ErsatzServerExtension;
+import io.github.cjstehno.ersatz.util.HttpClientExtension;
 import lombok.val;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.io.IOException;
+
+import static io.github.cjstehno.ersatz.TestAssertions.assertNotFound;
+import static io.github.cjstehno.ersatz.TestAssertions.assertOkWithString;
+import static io.github.cjstehno.ersatz.cfg.ContentType.TEXT_PLAIN;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@ExtendWith(ErsatzServerExtension.class)
+@ExtendWith({ErsatzServerExtension.class, HttpClientExtension.class})
 class ErsatzServerTest {
 
+    @SuppressWarnings("unused") private HttpClientExtension.Client client;
+
     @Test @DisplayName("verify url information") @ApplyServerConfig("infoConfig")
     void urlInformation(final ErsatzServer server) {
         assertEquals("http://localhost:8182", server.getHttpUrl());
@@ -78,4 +86,31 @@ class ErsatzServerTest {
             server.close();
         }
     }
+
+    @Test @DisplayName("unmatched requests") @ApplyServerConfig("unmatchedConfig")
+    void unmatchedRequests(final ErsatzServer server) throws IOException {
+        server.expectations(expect -> {
+            expect.GET("/alpha").responds().body("ok", TEXT_PLAIN);
+        });
+
+        assertOkWithString("ok", client.get("/alpha"));
+        assertTrue(server.getUnmatchedRequests().isEmpty());
+
+        assertNotFound(client.get("/bravo"));
+        assertNotFound(client.get("/charlie?q=1"));
+        assertNotFound(client.get("/delta"));
+
+        val unmatched = server.getUnmatchedRequests();
+        assertEquals(2, unmatched.size());
+        assertEquals("/charlie", unmatched.get(0).getPath());
+        assertEquals("1", unmatched.get(0).getQueryParams().get("q").getFirst());
+        assertEquals("/delta", unmatched.get(1).getPath());
+
+        server.clearExpectations();
+        assertTrue(server.getUnmatchedRequests().isEmpty());
+    }
+
+    @SuppressWarnings("unused") private void unmatchedConfig(final ServerConfig cfg) {
+        cfg.unmatchedHistory(2);
+    }
 }
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz;
+
+import io.github.cjstehno.ersatz.cfg.ServerConfig;
+import io.github.cjstehno.ersatz.junit.ApplyServerConfig;
+import io.github.cjstehno.ersatz.junit.SharedErsatzServerExtension;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import io.github.cjstehno.ersatz.util.HttpClientExtension;
+import io.github.cjstehno.ersatz.util.HttpClientExtension.Client;
+import lombok.val;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that delayed, chunked and forwarded responses do not hold the (single) server worker thread - the requests are in flight
+ * concurrently, rather than being handled one after the other.
+ */
+@ExtendWith({SharedErsatzServerExtension.class, HttpClientExtension.class})
+@ApplyServerConfig("serverConfig")
+class SingleWorkerUsageTest {
+
+    private static final int REQUEST_COUNT = 4;
+    private static final long DELAY = 500;
+    private static final long FORWARD_TIMEOUT = 1_000;
+    @SuppressWarnings("unused") private Client client;
+
+    @Test
+    @DisplayName("Multiple concurrent delayed calls do not hold the worker thread")
+    void multipleConcurrentDelayed(final ErsatzServer server) {
+        val inFlight = new InFlight();
+        server.expectations(expect -> expect.GET("/slow", req -> {
+            req.called(REQUEST_COUNT);
+            req.listener(inFlight);
+            req.responder(res -> res.delay(DELAY).code(200));
+        }));
+
+        val responses = inFlight.send(client, "/slow");
+
+        assertTrue(server.verify());
+        assertTrue(responses.stream().allMatch("200:"::equals));
+        inFlight.assertConcurrent();
+    }
+
+    @Test
+    @DisplayName("Multiple concurrent chunked calls do not hold the worker thread")
+    void multipleConcurrentChunked(final ErsatzServer server) {
+        val inFlight = new InFlight();
+        server.expectations(expect -> expect.GET("/chunky", req -> {
+            req.called(REQUEST_COUNT);
+            req.listener(inFlight);
+            req.responder(res -> res.chunked(chunk -> {
+                chunk.chunks(3);
+                chunk.delay((int) DELAY / 2);
+            }).body("some chunked content", "text/plain").code(200));
+        }));
+
+        val responses = inFlight.send(client, "/chunky");
+
+        assertTrue(server.verify());
+        assertTrue(responses.stream().allMatch("200:some chunked content"::equals));
+        inFlight.assertConcurrent();
+    }
+
+    @Test
+    @DisplayName("Multiple concurrent forwarded calls do not hold the worker thread")
+    void multipleConcurrentForwarded(final ErsatzServer server) {
+        try (val targetServer = new ErsatzServer().start()) {
+            val inFlight = new InFlight();
+            targetServer.expectations(expect -> expect.GET("/upstream", req -> {
+                req.called(REQUEST_COUNT);
+                req.listener(inFlight);
+                req.responder(res -> res.delay(DELAY).body("forwarded", "text/plain"));
+            }));
+
+            server.expects().GET("/upstream").called(REQUEST_COUNT).forward(targetServer.getHttpUrl());
+
+            val responses = inFlight.send(client, "/upstream");
+
+            assertTrue(server.verify());
+            assertTrue(targetServer.verify());
+            assertTrue(responses.stream().allMatch("200:forwarded"::equals));
+            inFlight.assertConcurrent();
+        }
+    }
+
+    @Test
+    @DisplayName("Forwarded call timeout")
+    void forwardedTimeout(final ErsatzServer server) throws IOException {
+        try (val targetServer = new ErsatzServer().start()) {
+            targetServer.expects().GET("/stalled").responds().delay(FORWARD_TIMEOUT * 3).body("late", "text/plain");
+
+            server.expects().GET("/stalled").called(1).forward(targetServer.getHttpUrl());
+
+            try (val response = client.get("/stalled")) {
+                assertEquals(504, response.code());
+            }
+
+            assertTrue(server.verify());
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static void serverConfig(final ServerConfig cfg) {
+        cfg.serverThreads(1, 1);
+        cfg.forwardTimeout((int) FORWARD_TIMEOUT, MILLISECONDS);
+    }
+
+    // Counts the requests accepted by the server, and captures the count when the first response is received by the client - if the requests
+    // were handled one after the other (holding the worker thread), the first response would be received before the others were accepted.
+    private static final class InFlight implements Consumer<ClientRequest> {
+
+        private final AtomicInteger accepted = new AtomicInteger();
+        private final AtomicInteger acceptedAtFirstResponse = new AtomicInteger(-1);
+
+        @Override public void accept(final ClientRequest clientRequest) {
+            accepted.incrementAndGet();
+        }
+
+        private List<String> send(final Client client, final String path) {
+            val responses = new CopyOnWriteArrayList<String>();
+            val executor = Executors.newFixedThreadPool(REQUEST_COUNT);
+            try {
+                for (int r = 0; r < REQUEST_COUNT; r++) {
+                    executor.execute(() -> responses.add(get(client, path)));
+                }
+
+                await().until(() -> responses.size() == REQUEST_COUNT);
+                return responses;
+
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private String get(final Client client, final String path) {
+            try (val response = client.get(path)) {
+                acceptedAtFirstResponse.compareAndSet(-1, accepted.get());
+                return response.code() + ":" + response.body().string();
+            } catch (final IOException e) {
+                return e.getMessage();
+            }
+        }
+
+        private void assertConcurrent() {
+            assertEquals(REQUEST_COUNT, acceptedAtFirstResponse.get(), "requests accepted before the first response");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.cfg;
+
+import lombok.val;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test @DisplayName("fixed")
+    void fixed() {
+        assertTrue(samples(Latency.fixed(150)).allMatch(d -> d == 150));
+    }
+
+    @Test @DisplayName("uniform")
+    void uniform() {
+        val samples = samples(Latency.uniform(100, 200)).toArray();
+
+        assertEquals(100, Arrays.stream(samples).min().orElseThrow());
+        assertEquals(200, Arrays.stream(samples).max().orElseThrow());
+        assertEquals(150, Arrays.stream(samples).average().orElseThrow(), 1.0);
+    }
+
+    @Test @DisplayName("normal")
+    void normal() {
+        val samples = samples(Latency.normal(100, 10)).toArray();
+
+        assertEquals(100, Arrays.stream(samples).average().orElseThrow(), 1.0);
+        assertEquals(100, percentile(samples, 0.5), 1.0);
+        assertTrue(samples(Latency.normal(10, 50)).allMatch(d -> d >= 0));
+    }
+
+    @Test @DisplayName("log-normal")
+    void logNormal() {
+        val samples = samples(Latency.logNormal(100, 0.5)).toArray();
+
+        assertEquals(100, percentile(samples, 0.5), 2.0);
+        assertTrue(percentile(samples, 0.99) > 250);
+    }
+
+    @Test @DisplayName("percentiles")
+    void percentiles() {
+        val samples = samples(Latency.percentiles(50, 200, 800, 2_000)).toArray();
+
+        assertEquals(50, percentile(samples, 0.5), 2.0);
+        assertEquals(200, percentile(samples, 0.9), 5.0);
+        assertEquals(800, percentile(samples, 0.99), 20.0);
+        assertTrue(Arrays.stream(samples).max().orElseThrow() <= 2_000);
+    }
+
+    @Test @DisplayName("invalid distributions")
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> Latency.uniform(200, 100));
+        assertThrows(IllegalArgumentException.class, () -> Latency.normal(100, -1));
+        assertThrows(IllegalArgumentException.class, () -> Latency.logNormal(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Latency.empirical(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> Latency.empirical(Map.of(1.5, 100L)));
+    }
+
+    private static LongStream samples(final Latency latency) {
+        val random = new Random(42);
+        return LongStream.range(0, SAMPLES).map(n -> latency.sample(random));
+    }
+
+    private static long percentile(final long[] samples, final double percentile) {
+        val sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (percentile * (sorted.length - 1))];
+    }
+}
@@ -18,9 +18,11 @@ package io.github.cjstehno.ersatz.expectations;
 import io.github.cjstehno.ersatz.ErsatzServer;
 import io.github.cjstehno.ersatz.InMemoryCookieJar;
 import io.github.cjstehno.ersatz.cfg.HttpMethod;
+import io.github.cjstehno.ersatz.cfg.Latency;
 import io.github.cjstehno.ersatz.cfg.ServerConfig;
 import io.github.cjstehno.ersatz.encdec.Encoders;
 import io.github.cjstehno.ersatz.encdec.ErsatzMultipartResponseContent;
+import io.github.cjstehno.ersatz.encdec.StreamingContent;
 import io.github.cjstehno.ersatz.junit.ApplyServerConfig;
 import io.github.cjstehno.ersatz.junit.SharedErsatzServerExtension;
 import io.github.cjstehno.ersatz.match.ErsatzMatchers;
@@ -46,12 +48,24 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.zip.InflaterInputStream;
 
 import static io.github.cjstehno.ersatz.TestAssertions.assertNotFound;
 import static io.github.cjstehno.ersatz.TestAssertions.assertOkWithString;
@@ -64,6 +78,7 @@ import static io.github.cjstehno.ersatz.encdec.Cookie.cookie;
 import static io.github.cjstehno.ersatz.encdec.MultipartResponseContent.multipartResponse;
 import static io.github.cjstehno.ersatz.match.CookieMatcher.cookieMatcher;
 import static io.github.cjstehno.ersatz.match.PathMatcher.pathMatching;
+import static io.github.cjstehno.ersatz.match.PathMatcher.pathTemplate;
 import static io.github.cjstehno.ersatz.match.PredicateMatcher.predicatedBy;
 import static io.github.cjstehno.ersatz.util.BasicAuth.basicAuth;
 import static io.github.cjstehno.ersatz.util.HttpClientExtension.Client.basicAuthHeader;
@@ -75,15 +90,18 @@ import static io.github.cjstehno.testthings.Resources.resourceToBytes;
 import static io.github.cjstehno.testthings.Resources.resourceToString;
 import static java.lang.System.currentTimeMillis;
 import static java.net.Proxy.Type.HTTP;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Locale.ROOT;
 import static java.util.stream.Collectors.toList;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertLinesMatch;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith({SharedErsatzServerExtension.class, HttpClientExtension.class}) @ApplyServerConfig("serverConfig")
@@ -214,6 +232,291 @@ public class ErsatzServerGetExpectationsTest {
         verify(server);
     }
 
+    @ParameterizedTest(name = "[{index}] File response: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void fileResponse(final boolean https, @TempDir final Path dir, final ErsatzServer server) throws IOException {
+        val file = Files.write(dir.resolve("artifact.bin"), resourceToBytes("/test-image.jpg"));
+
+        server.expectations(expect -> {
+            expect.GET("/artifact", req -> {
+                req.secure(https);
+                req.called(1);
+                req.responder(res -> res.file(file, IMAGE_JPG));
+            });
+        });
+
+        val response = client.get("/artifact", https);
+
+        assertEquals(200, response.code());
+        assertEquals("bytes", response.header("Accept-Ranges"));
+        assertArrayEquals(resourceToBytes("/test-image.jpg"), response.body().bytes());
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] File response range: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void fileResponseRange(final boolean https, @TempDir final Path dir, final ErsatzServer server) throws IOException {
+        val file = Files.writeString(dir.resolve("artifact.txt"), "0123456789abcdefghij");
+
+        server.expectations(expect -> {
+            expect.GET("/artifact", req -> {
+                req.secure(https);
+                req.called(4);
+                req.responder(res -> res.file(file, TEXT_PLAIN));
+            });
+        });
+
+        val partial = client.get("/artifact", builder -> builder.header("Range", "bytes=5-9"), https);
+        assertEquals(206, partial.code());
+        assertEquals("bytes 5-9/20", partial.header("Content-Range"));
+        assertEquals("56789", partial.body().string());
+
+        val suffix = client.get("/artifact", builder -> builder.header("Range", "bytes=-3"), https);
+        assertEquals(206, suffix.code());
+        assertEquals("hij", suffix.body().string());
+
+        val unsatisfiable = client.get("/artifact", builder -> builder.header("Range", "bytes=50-60"), https);
+        assertEquals(416, unsatisfiable.code());
+        assertEquals("bytes */20", unsatisfiable.header("Content-Range"));
+
+        // multiple ranges are not supported, so the whole file is sent
+        val multiple = client.get("/artifact", builder -> builder.header("Range", "bytes=0-1,5-6"), https);
+        assertEquals(200, multiple.code());
+        assertNull(multiple.header("Content-Range"));
+        assertEquals("0123456789abcdefghij", multiple.body().string());
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] File response is not compressed: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void fileResponseNotCompressed(final boolean https, @TempDir final Path dir, final ErsatzServer server) throws IOException {
+        val content = "0123456789abcdefghij".repeat(1000);
+        val file = Files.writeString(dir.resolve("artifact.txt"), content);
+
+        server.expectations(expect -> {
+            expect.GET("/artifact", req -> {
+                req.secure(https);
+                req.called(2);
+                req.responder(res -> res.file(file, TEXT_PLAIN));
+            });
+        });
+
+        // an explicit accept-encoding disables the transparent decompression of the client, so the raw bytes are received
+        try (val partial = client.get("/artifact", builder -> builder.header("Range", "bytes=100-199").header("Accept-Encoding", "gzip"), https)) {
+            assertEquals(206, partial.code());
+            assertNull(partial.header("Content-Encoding"));
+            assertEquals("bytes 100-199/20000", partial.header("Content-Range"));
+            assertEquals("100", partial.header("Content-Length"));
+            assertArrayEquals(content.substring(100, 200).getBytes(UTF_8), partial.body().bytes());
+        }
+
+        try (val full = client.get("/artifact", builder -> builder.header("Accept-Encoding", "gzip"), https)) {
+            assertEquals(200, full.code());
+            assertNull(full.header("Content-Encoding"));
+            assertArrayEquals(content.getBytes(UTF_8), full.body().bytes());
+        }
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] Streaming input-stream response: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void streamingInputStreamResponse(final boolean https, final ErsatzServer server) throws IOException {
+        val length = 4 * 1024 * 1024;
+
+        server.expectations(expect -> {
+            expect.GET("/stream", req -> {
+                req.secure(https);
+                req.called(1);
+                req.responder(res -> res.stream(StreamingContent.inputStream(() -> new InputStream() {
+                    private int remaining = length;
+
+                    @Override public int read() {
+                        return remaining-- > 0 ? 'a' + (remaining % 26) : -1;
+                    }
+                }), TEXT_PLAIN));
+            });
+        });
+
+        val response = client.get("/stream", https);
+
+        assertEquals(200, response.code());
+
+        val body = response.body().bytes();
+        assertEquals(length, body.length);
+        assertEquals('a' + ((length - 1) % 26), body[0]);
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] Streaming channel without available content: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void streamingChannelWithoutContent(final boolean https, final ErsatzServer server) throws IOException {
+        val reads = new AtomicInteger();
+
+        server.expectations(expect -> {
+            expect.GET("/polled", req -> {
+                req.secure(https);
+                req.called(1);
+                req.responder(res -> res.stream(StreamingContent.channel(() -> new ReadableByteChannel() {
+                    private int chunks = 3;
+                    private boolean open = true;
+
+                    // like a non-blocking channel, every other read has no content available
+                    @Override public int read(final ByteBuffer dst) {
+                        if (reads.incrementAndGet() % 2 == 1) {
+                            return 0;
+                        } else if (chunks == 0) {
+                            return -1;
+                        }
+
+                        chunks--;
+                        dst.put("chunk;".getBytes(UTF_8));
+                        return 6;
+                    }
+
+                    @Override public boolean isOpen() {
+                        return open;
+                    }
+
+                    @Override public void close() {
+                        open = false;
+                    }
+                }), TEXT_PLAIN));
+            });
+        });
+
+        val response = client.get("/polled", https);
+
+        assertEquals(200, response.code());
+        assertEquals("chunk;chunk;chunk;", response.body().string());
+
+        // each empty read is retried (after a delay) until the end of the content
+        assertEquals(8, reads.get());
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] Streaming published response: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void streamingPublishedResponse(final boolean https, final ErsatzServer server) throws IOException {
+        final Flow.Publisher<ByteBuffer> publisher = subscriber -> {
+            try (val events = new SubmissionPublisher<ByteBuffer>()) {
+                events.subscribe(subscriber);
+                for (int e = 0; e < 3; e++) {
+                    events.submit(ByteBuffer.wrap(("data: event-" + e + "\n\n").getBytes(UTF_8)));
+                }
+            }
+        };
+
+        server.expectations(expect -> {
+            expect.GET("/events", req -> {
+                req.secure(https);
+                req.called(2);
+                req.responder(res -> res.stream(StreamingContent.publisher(publisher), "text/event-stream"));
+            });
+        });
+
+        for (int r = 0; r < 2; r++) {
+            val response = client.get("/events", https);
+            assertEquals(200, response.code());
+            assertEquals("data: event-0\n\ndata: event-1\n\ndata: event-2\n\n", response.body().string());
+        }
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] Streaming synchronous published response: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void streamingSynchronousPublishedResponse(final boolean https, final ErsatzServer server) throws IOException {
+        val count = 100_000;
+        val item = "0123456789abcdef".getBytes(UTF_8);
+
+        // publishes the requested items synchronously, within the request call
+        final Flow.Publisher<ByteBuffer> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private int published;
+
+            @Override public void request(final long n) {
+                for (long i = 0; i < n && published < count; i++) {
+                    published++;
+                    subscriber.onNext(ByteBuffer.wrap(item));
+                }
+
+                if (published == count) {
+                    published++;
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override public void cancel() {
+                published = count + 1;
+            }
+        });
+
+        server.expectations(expect -> {
+            expect.GET("/published", req -> {
+                req.secure(https);
+                req.called(1);
+                req.responder(res -> res.stream(StreamingContent.publisher(publisher), TEXT_PLAIN));
+            });
+        });
+
+        val response = client.get("/published", https);
+        assertEquals(200, response.code());
+        assertEquals(count * item.length, response.body().bytes().length);
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] Streaming response back-pressure: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void streamingBackPressure(final boolean https, final ErsatzServer server) throws Exception {
+        val length = 64L * 1024 * 1024;
+        val consumed = 64 * 1024;
+        val read = new AtomicLong();
+
+        server.expectations(expect -> {
+            expect.GET("/pressure", req -> {
+                req.secure(https);
+                req.called(1);
+                req.responder(res -> res.stream(StreamingContent.inputStream(() -> new InputStream() {
+                    @Override public int read() {
+                        return read.get() < length ? (int) (read.getAndIncrement() % 26) + 'a' : -1;
+                    }
+
+                    @Override public int read(final byte[] bytes, final int offset, final int count) {
+                        val available = (int) Math.min(count, length - read.get());
+                        if (available <= 0) {
+                            return -1;
+                        }
+                        Arrays.fill(bytes, offset, offset + available, (byte) 'a');
+                        read.addAndGet(available);
+                        return available;
+                    }
+                }), TEXT_PLAIN));
+            });
+        });
+
+        // the content is not compressed, so that the server buffers are filled by the raw content
+        try (val response = client.get("/pressure", builder -> builder.header("Accept-Encoding", "identity"), https)) {
+            assertEquals(200, response.code());
+
+            val body = response.body().byteStream();
+            assertEquals(consumed, body.readNBytes(consumed).length);
+
+            // while the client is not reading, the content is only read ahead by the (bounded) buffered amount - not the whole content
+            Thread.sleep(500);
+            assertTrue(read.get() < length / 2, "read ahead: " + read.get());
+
+            assertEquals(length - consumed, body.transferTo(OutputStream.nullOutputStream()));
+            assertEquals(length, read.get());
+        }
+
+        verify(server);
+    }
+
     @ParameterizedTest(name = "[{index}] Multipart text: https({0})")
     @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
     void multipartText(final boolean https, final ErsatzServer server) throws IOException {
@@ -438,6 +741,52 @@ public class ErsatzServerGetExpectationsTest {
         verify(server);
     }
 
+    @ParameterizedTest(name = "[{index}] Delayed response with latency distribution: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void delayedResponseDistribution(final boolean https, final ErsatzServer server) throws IOException {
+        val response = server.expects().GET("/varied").secure(https).called(3).responds()
+            .delay(Latency.uniform(100, 300))
+            .body("Done", TEXT_PLAIN);
+
+        for (int r = 0; r < 3; r++) {
+            val started = currentTimeMillis();
+            assertOkWithString("Done", client.get("/varied", https));
+            assertTrue(currentTimeMillis() - started >= 90); // there is some wiggle room
+        }
+
+        verify(server);
+
+        val applied = response.getAppliedDelays();
+        assertEquals(3, applied.getCount());
+        assertTrue(applied.getMin() >= 100 && applied.getMax() <= 300);
+    }
+
+    @ParameterizedTest(name = "[{index}] Throttled response: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void throttledResponse(final boolean https, final ErsatzServer server) throws IOException {
+        val content = "0123456789".repeat(200);
+
+        server.expectations(e -> {
+            e.GET("/throttled").secure(https).called(1).responds().body(content, TEXT_PLAIN).throttled(throttle -> {
+                throttle.bytesPerSecond(2_000);
+                throttle.timeToFirstByte(200);
+                throttle.jitter(0.1);
+            });
+        });
+
+        // the throttling applies to the bytes on the wire, so the content is requested uncompressed
+        val started = currentTimeMillis();
+        val response = client.get("/throttled", builder -> builder.header("Accept-Encoding", "identity"), https);
+        val body = response.body().string();
+        val elapsed = currentTimeMillis() - started;
+
+        assertEquals(200, response.code());
+        assertEquals(content, body);
+        assertTrue(elapsed >= 900, "elapsed: " + elapsed); // 200 ms to first byte, then nine 100 ms intervals (with some wiggle room)
+
+        verify(server);
+    }
+
     @Test @DisplayName("proxied request should return proxy not original")
     void proxiedShouldReturnProxy(final ErsatzServer server) throws IOException {
         val proxyServer = new ErsatzServer(c -> c.expectations(e -> e.GET("/proxied").called(1).responds().body("forwarded").code(200)));
@@ -597,6 +946,64 @@ public class ErsatzServerGetExpectationsTest {
         verify(server);
     }
 
+    @ParameterizedTest(name = "[{index}] dynamic response: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void dynamicResponse(final boolean https, final ErsatzServer server) throws IOException {
+        val generated = new AtomicInteger();
+
+        server.expectations(expect -> {
+            expect.GET(pathTemplate("/users/{id}"), req -> {
+                req.secure(https);
+                req.called(4);
+                req.dynamicResponder(10, (cr, res) -> {
+                    generated.incrementAndGet();
+                    res.body("user-" + cr.getPathVariables().get("id") + cr.getQueryParams().getOrDefault("v", new ArrayDeque<>()), TEXT_PLAIN);
+                });
+            });
+        });
+
+        assertOkWithString("user-42[]", client.get("/users/42", https));
+        assertOkWithString("user-7[]", client.get("/users/7", https));
+        assertOkWithString("user-42[2]", client.get("/users/42?v=2", https));
+        assertOkWithString("user-42[]", client.get("/users/42", https));
+
+        assertEquals(3, generated.get());
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] uncached dynamic responses: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void dynamicResponseUncached(final boolean https, final ErsatzServer server) throws IOException {
+        val generated = new AtomicInteger();
+
+        server.expectations(expect -> {
+            expect.GET(pathTemplate("/items/{id}"), req -> {
+                req.secure(https);
+                req.dynamicResponder((cr, res) -> {
+                    generated.incrementAndGet();
+                    res.body("item-" + cr.getPathVariables().get("id"), TEXT_PLAIN);
+                });
+            });
+        });
+
+        // every other request is sent with the (transparent) gzip encoding of the client, so each one-off response is compressed as it is sent
+        for (int i = 0; i < 200; i++) {
+            val compressed = i % 2 == 0;
+            try (val response = client.get("/items/" + i, builder -> {
+                if (!compressed) {
+                    builder.header("Accept-Encoding", "identity");
+                }
+            }, https)) {
+                assertEquals(200, response.code());
+                assertEquals(compressed ? "gzip" : null, response.networkResponse().header(CONTENT_ENCODING));
+                assertEquals("item-" + i, response.body().string());
+            }
+        }
+
+        assertEquals(200, generated.get());
+    }
+
     @ParameterizedTest(name = "[{index}] Request matches but no response: https({0})")
     @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttpsWithContent")
     void withListener(final boolean https, final String responseContent, final ErsatzServer server) throws IOException {
@@ -623,6 +1030,60 @@ public class ErsatzServerGetExpectationsTest {
         verify(server);
     }
 
+    @ParameterizedTest(name = "[{index}] Request data snapshot: https({0})")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
+    void requestSnapshot(final boolean https, final ErsatzServer server) throws IOException {
+        val snapshot = new AtomicReference<String>();
+
+        server.expectations(expect -> {
+            expect.GET("/snapshot", req -> {
+                req.secure(https);
+                req.called(1);
+                req.query("alpha", "one");
+                req.header("bravo", "two");
+                req.listener(cr -> snapshot.set(
+                    // the request data is resolved once, and it cannot be changed
+                    (cr.getHeaders() == cr.getHeaders() && cr.getCookies() == cr.getCookies() && cr.getQueryParams() == cr.getQueryParams())
+                        + ":" + isReadOnly(() -> cr.getQueryParams().get("alpha").add("changed"))
+                        + ":" + isReadOnly(() -> cr.getHeaders().values().iterator().next().clear())
+                        + ":" + isReadOnly(() -> cr.getQueryValues("alpha").add("changed"))
+                        + ":" + isReadOnly(() -> cr.getHeaderValues("Bravo").clear())
+                ));
+                req.responds().code(200);
+            });
+        });
+
+        try (val response = client.get("/snapshot?alpha=one", builder -> builder.header("bravo", "two"), https)) {
+            assertEquals(200, response.code());
+        }
+
+        assertEquals("true:true:true:true:true", await().untilAtomic(snapshot, notNullValue()));
+
+        verify(server);
+    }
+
+    @ParameterizedTest(name = "[{index}] path template: https({0}) -> {1}")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttpsWithContent")
+    void withPathTemplate(final boolean https, final String responseContent, final ErsatzServer server) throws IOException {
+        val captured = new AtomicReference<Map<String, String>>();
+
+        server.expectations(expect -> {
+            expect.GET(pathTemplate("/users/{id}/orders/{order}"), req -> {
+                req.secure(https);
+                req.called(1);
+                req.listener(cr -> captured.set(cr.getPathVariables()));
+                req.responds().body(responseContent, TEXT_PLAIN);
+            });
+        });
+
+        assertOkWithString(responseContent, client.get("/users/42/orders/abc", https));
+        assertNotFound(client.get("/users/42/orders", https));
+
+        assertEquals(Map.of("id", "42", "order", "abc"), await().untilAtomic(captured, notNullValue()));
+
+        verify(server);
+    }
+
     @ParameterizedTest(name = "[{index}] Request matches but no response: https({0})")
     @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttps")
     void noResponseConfigured(final boolean https, final ErsatzServer server) throws IOException {
@@ -679,6 +1140,25 @@ public class ErsatzServerGetExpectationsTest {
         verify(server);
     }
 
+    @ParameterizedTest(name = "[{index}] Deflate compression supported: https({0}) -> {1}")
+    @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttpsWithContent")
+    void deflateSupported(final boolean https, final String responseText, final ErsatzServer server) throws IOException {
+        server.expectations(expect -> {
+            expect.GET("/deflate").secure(https).called(2).responds().body(responseText, TEXT_PLAIN);
+        });
+
+        for (int r = 0; r < 2; r++) {
+            val response = client.get("/deflate", builder -> builder.header("Accept-Encoding", "deflate"), https);
+
+            assertEquals(200, response.code());
+            assertEquals("deflate", response.header(CONTENT_ENCODING));
+            assertEquals("Accept-Encoding", response.header("Vary"));
+            assertEquals(responseText, new String(new InflaterInputStream(response.body().byteStream()).readAllBytes(), UTF_8));
+        }
+
+        verify(server);
+    }
+
     @Test void pathMatchingWithPredicate(final ErsatzServer server) throws IOException {
         server.expectations(expect -> {
             expect.GET(
@@ -741,4 +1221,13 @@ public class ErsatzServerGetExpectationsTest {
             return body.byteStream();
         }
     }
+
+    private static boolean isReadOnly(final Runnable mutation) {
+        try {
+            mutation.run();
+            return false;
+        } catch (final UnsupportedOperationException ex) {
+            return true;
+        }
+    }
 }
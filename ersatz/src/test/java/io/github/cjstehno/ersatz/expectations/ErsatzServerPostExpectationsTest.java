@@ -32,6 +32,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.github.cjstehno.ersatz.TestAssertions.assertOkWithString;
 import static io.github.cjstehno.ersatz.TestAssertions.assertStatusWithString;
@@ -51,12 +52,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 public class ErsatzServerPostExpectationsTest {
 
     private static final String TEXT_PAYLOAD = "this is some text!";
+    private static final String COUNTED_TEXT = "text/counted";
+    private static final AtomicInteger COUNTED_DECODINGS = new AtomicInteger();
 
     @SuppressWarnings("unused") private static void serverConfig(final ServerConfig cfg) {
         cfg.logResponseContent();
         cfg.https();
         cfg.decoder(TEXT_PLAIN, Decoders.string(UTF_8));
         cfg.decoder(APPLICATION_URLENCODED, Decoders.passthrough);
+        cfg.decoder(COUNTED_TEXT, (bytes, context) -> {
+            COUNTED_DECODINGS.incrementAndGet();
+            return Decoders.string(UTF_8).apply(bytes, context);
+        });
         cfg.encoder(TEXT_PLAIN, String.class, Encoders.text(UTF_8));
     }
 
@@ -94,6 +101,19 @@ public class ErsatzServerPostExpectationsTest {
         verify(server);
     }
 
+    @Test @DisplayName("body decoded once for multiple body matchers")
+    void decodedOnce(final ErsatzServer server) throws IOException {
+        server.expectations(expect -> {
+            expect.POST("/counted").body("other content", COUNTED_TEXT).responds().body("other", TEXT_PLAIN);
+            expect.POST("/counted").body(startsWith("different"), COUNTED_TEXT).responds().body("different", TEXT_PLAIN);
+            expect.POST("/counted").body(TEXT_PAYLOAD, COUNTED_TEXT).called(1).responds().body("counted", TEXT_PLAIN);
+        });
+
+        val before = COUNTED_DECODINGS.get();
+        assertOkWithString("counted", client.post("/counted", create(TEXT_PAYLOAD, parse(COUNTED_TEXT)), false));
+        assertEquals(before + 1, COUNTED_DECODINGS.get());
+    }
+
     @ParameterizedTest(name = "[{index}] path only: https({0}) -> {1}")
     @MethodSource("io.github.cjstehno.ersatz.TestArguments#httpAndHttpsWithContent")
     void withPath(final boolean https, final String responseText, final ErsatzServer server) throws IOException {
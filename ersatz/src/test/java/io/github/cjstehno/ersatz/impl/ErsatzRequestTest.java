@@ -36,6 +36,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -51,6 +52,10 @@ import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
@@ -262,6 +267,95 @@ class ErsatzRequestTest {
         assertArrayEquals(contentB.toString().getBytes(), resp.getContent());
     }
 
+    @Test @DisplayName("dynamic responder")
+    void dynamicResponder() {
+        request.responds().contentType("something/else").body("static");
+        request.dynamicResponder((cr, r) -> r.body(cr.getPath() + cr.getQueryParams().get("id"), "text/plain"));
+
+        assertArrayEquals("static".getBytes(), request.getCurrentResponse(clientRequest()).getContent());
+
+        request.mark(clientRequest());
+
+        assertArrayEquals("/testing[1]".getBytes(), request.getCurrentResponse(clientRequest().query("id", "1")).getContent());
+        assertArrayEquals("/testing[2]".getBytes(), request.getCurrentResponse(clientRequest().query("id", "2")).getContent());
+    }
+
+    @Test @DisplayName("dynamic responder without cache generates one-off responses")
+    void dynamicResponderOneOff() {
+        request.dynamicResponder((cr, r) -> r.body(cr.getPath(), "text/plain"));
+
+        final var first = (ErsatzResponse) request.getCurrentResponse(clientRequest());
+        final var second = (ErsatzResponse) request.getCurrentResponse(clientRequest());
+
+        assertNotSame(first, second);
+        assertTrue(first.isOneOff());
+        assertTrue(second.isOneOff());
+    }
+
+    @Test @DisplayName("dynamic responder with cache")
+    void dynamicResponderCached() {
+        final var generated = new AtomicInteger();
+        request.dynamicResponder(2, (cr, r) -> {
+            generated.incrementAndGet();
+            r.body(new String(cr.getBody()), "text/plain");
+        });
+
+        final var first = request.getCurrentResponse(clientRequest("alpha"));
+        assertSame(first, request.getCurrentResponse(clientRequest("alpha")));
+        assertArrayEquals("alpha".getBytes(), first.getContent());
+        assertFalse(((ErsatzResponse) first).isOneOff());
+        assertEquals(1, generated.get());
+
+        final var second = request.getCurrentResponse(clientRequest("bravo"));
+        assertArrayEquals("bravo".getBytes(), second.getContent());
+        assertEquals(2, generated.get());
+
+        // the least-recently-used response (bravo) is evicted
+        assertSame(first, request.getCurrentResponse(clientRequest("alpha")));
+        request.getCurrentResponse(clientRequest("charlie"));
+        assertSame(first, request.getCurrentResponse(clientRequest("alpha")));
+        assertEquals(3, generated.get());
+
+        request.getCurrentResponse(clientRequest("bravo"));
+        assertEquals(4, generated.get());
+    }
+
+    @Test @DisplayName("dynamic responder with cache key headers")
+    void dynamicResponderKeyHeaders() {
+        final var generated = new AtomicInteger();
+        request.dynamicResponder(10, Set.of("Accept"), (cr, r) -> {
+            generated.incrementAndGet();
+            r.body(cr.getHeaderValues("accept").getFirst(), "text/plain");
+        });
+
+        final var json = request.getCurrentResponse(clientRequest().header("Accept", "application/json"));
+        assertSame(json, request.getCurrentResponse(clientRequest().header("accept", "application/json")));
+        assertArrayEquals("application/json".getBytes(), json.getContent());
+
+        final var xml = request.getCurrentResponse(clientRequest().header("Accept", "application/xml"));
+        assertArrayEquals("application/xml".getBytes(), xml.getContent());
+        assertEquals(2, generated.get());
+    }
+
+    @Test @DisplayName("dynamic responder does not cache a response depending on other headers")
+    void dynamicResponderUnkeyedHeader() {
+        request.dynamicResponder(10, (cr, r) -> r.body(cr.getHeaderValues("Authorization").getFirst(), "text/plain"));
+
+        final var alpha = request.getCurrentResponse(clientRequest().header("Authorization", "Bearer alpha"));
+        final var bravo = request.getCurrentResponse(clientRequest().header("Authorization", "Bearer bravo"));
+
+        assertArrayEquals("Bearer alpha".getBytes(), alpha.getContent());
+        assertArrayEquals("Bearer bravo".getBytes(), bravo.getContent());
+        assertTrue(((ErsatzResponse) bravo).isOneOff());
+    }
+
+    @Test @DisplayName("dynamic responder requires the client request")
+    void dynamicResponderWithoutRequest() {
+        request.dynamicResponder((cr, r) -> r.body(new String(cr.getBody()), "text/plain"));
+
+        assertThrows(IllegalStateException.class, () -> request.getCurrentResponse());
+    }
+
     @Test @DisplayName("matching: not found")
     void matchingNotFound() throws IOException {
         server.expectations(e -> {
@@ -393,4 +487,10 @@ class ErsatzRequestTest {
         req.setPath("/testing");
         return req;
     }
+
+    private static MockClientRequest clientRequest(final String body) {
+        final var req = clientRequest();
+        req.setBody(body.getBytes());
+        return req;
+    }
 }
@@ -34,6 +34,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.github.cjstehno.ersatz.cfg.ContentType.APPLICATION_URLENCODED;
 import static io.github.cjstehno.ersatz.cfg.ContentType.IMAGE_PNG;
@@ -49,6 +50,7 @@ import static okhttp3.RequestBody.create;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith({SharedErsatzServerExtension.class, HttpClientExtension.class})
@@ -75,6 +77,29 @@ class ErsatzRequestWithContentTest {
         );
     }
 
+    @Test @DisplayName("body evaluated after cheaper matchers")
+    void bodyEvaluatedLast() {
+        val decodings = new AtomicInteger();
+        request.body(BODY_CONTENT, TEXT_PLAIN).decoder(TEXT_PLAIN, (bytes, ctx) -> {
+            decodings.incrementAndGet();
+            return Decoders.utf8String.apply(bytes, ctx);
+        });
+        request.header("X-Required", "true");
+
+        final var clientRequest = new MockClientRequest(POST);
+        clientRequest.setPath("/posting");
+        clientRequest.setBody(BODY_CONTENT.getBytes());
+        clientRequest.header("Content-Type", TEXT_PLAIN.getValue());
+
+        assertFalse(request.matches(clientRequest));
+        assertEquals(0, decodings.get());
+
+        assertTrue(request.matches(clientRequest.header("X-Required", "true")));
+        assertEquals(1, decodings.get());
+
+        assertEquals(4, request.getRequestMatchers().size());
+    }
+
     @Test @DisplayName("to string") @SuppressWarnings("checkstyle:LineLength")
     void string() {
         request.body("Some body", TEXT_PLAIN);
@@ -20,8 +20,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static io.github.cjstehno.ersatz.cfg.ContentType.APPLICATION_JSON;
 import static io.github.cjstehno.ersatz.cfg.ContentType.APPLICATION_XML;
@@ -54,6 +57,14 @@ class ErsatzResponseTest {
         assertArrayEquals(CONTENT_A.getBytes(), response.getContent());
     }
 
+    @Test @DisplayName("file content is not read into memory")
+    void fileContent() {
+        response.file(Path.of("does-not-exist.txt"), TEXT_PLAIN);
+
+        assertEquals(0, response.getContent().length);
+        assertEquals(Path.of("does-not-exist.txt"), response.getFile());
+    }
+
     @Test @DisplayName("content and content-type")
     void contentAndContentType() {
         response.body(CONTENT_A, "text/info");
@@ -164,4 +175,36 @@ class ErsatzResponseTest {
 
         assertArrayEquals("foo-baz".getBytes(), response.getContent());
     }
+
+    @Test @DisplayName("rendered form is reused until the response changes")
+    void rendered() {
+        response.body(CONTENT_A, TEXT_PLAIN);
+
+        final var renders = new AtomicInteger();
+        final Function<ErsatzResponse, String> renderer = r -> r.getCode() + ":" + renders.incrementAndGet();
+
+        assertEquals("200:1", response.getRendered(String.class, renderer));
+        assertEquals("200:1", response.getRendered(String.class, renderer));
+
+        response.code(201);
+
+        assertEquals("201:2", response.getRendered(String.class, renderer));
+        assertEquals(2, renders.get());
+    }
+
+    @Test @DisplayName("changing the encoders discards the encoded content")
+    void encodersChanged() {
+        response.body("foo", TEXT_PLAIN);
+
+        final var renders = new AtomicInteger();
+        final Function<ErsatzResponse, String> renderer = r -> new String(r.getContent()) + ":" + renders.incrementAndGet();
+
+        assertEquals("foo:1", response.getRendered(String.class, renderer));
+
+        response.encoder(TEXT_PLAIN, String.class, o -> (o + "-bar").getBytes());
+        assertEquals("foo-bar:2", response.getRendered(String.class, renderer));
+
+        response.encoders(ResponseEncoders.encoders(e -> e.register(TEXT_PLAIN, String.class, o -> (o + "-baz").getBytes())));
+        assertEquals("foo-baz:3", response.getRendered(String.class, renderer));
+    }
 }
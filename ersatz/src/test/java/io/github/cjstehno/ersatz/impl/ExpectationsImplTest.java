@@ -22,6 +22,9 @@ import io.github.cjstehno.ersatz.encdec.RequestDecoders;
 import io.github.cjstehno.ersatz.encdec.ResponseEncoders;
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import io.github.cjstehno.ersatz.server.MockClientRequest;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -30,7 +33,11 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.DELETE;
@@ -40,9 +47,14 @@ import static io.github.cjstehno.ersatz.cfg.HttpMethod.OPTIONS;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.PATCH;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.POST;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.PUT;
+import static io.github.cjstehno.ersatz.match.PathMatcher.pathTemplate;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
@@ -348,6 +360,43 @@ class ExpectationsImplTest {
         );
     }
 
+    @Test @DisplayName("matching preserves configuration order across indexed and un-indexed expectations")
+    void matchingOrder() {
+        final var first = expectations.GET(startsWith("/alp"));
+        final var second = expectations.GET("/alpha");
+        final var third = expectations.ANY("/alpha");
+        final var fourth = expectations.POST(startsWith("/alp"));
+
+        assertSame(first, expectations.findMatch(request(GET, "/alpha")).get());
+        assertSame(third, expectations.findMatch(request(PUT, "/alpha")).get());
+        assertSame(third, expectations.findMatch(request(POST, "/alpha")).get());
+        assertSame(fourth, expectations.findMatch(request(POST, "/alphabet")).get());
+        assertTrue(expectations.findMatch(request(PUT, "/alphabet")).isEmpty());
+
+        expectations.clear();
+        expectations.GET("/bravo");
+        final var fifth = expectations.GET("/alpha");
+
+        assertNotSame(second, expectations.findMatch(request(GET, "/alpha")).get());
+        assertSame(fifth, expectations.findMatch(request(GET, "/alpha")).get());
+    }
+
+    @Test @DisplayName("matching path templates")
+    void matchingTemplates() {
+        final var first = expectations.GET(pathTemplate("/users/{id}"));
+        final var second = expectations.GET("/users/admin");
+        final var third = expectations.GET(pathTemplate("/users/{id}/orders/{order}"));
+        final var fourth = expectations.GET(pathTemplate("/{type}/admin"));
+
+        assertSame(first, expectations.findMatch(request(GET, "/users/admin")).get());
+        assertSame(first, expectations.findMatch(request(GET, "/users/42")).get());
+        assertSame(third, expectations.findMatch(request(GET, "/users/42/orders/7")).get());
+        assertSame(fourth, expectations.findMatch(request(GET, "/groups/admin")).get());
+        assertTrue(expectations.findMatch(request(GET, "/users/")).isEmpty());
+        assertTrue(expectations.findMatch(request(POST, "/users/42")).isEmpty());
+        assertTrue(((ErsatzRequest) second).matches(request(GET, "/users/admin")));
+    }
+
     @Test @DisplayName("verification (success)")
     void verificationSuccess() {
         RequestWithContent req = (RequestWithContent) expectations.POST("/alpha").called(equalTo(1));
@@ -568,6 +617,136 @@ class ExpectationsImplTest {
         assertTrue(((ErsatzRequest) expectations.findMatch(cr).get()).matches(cr));
     }
 
+    @Test @DisplayName("reconfiguration while matching")
+    void reconfigureWhileMatching() {
+        final var running = new AtomicBoolean(true);
+        final var matching = CompletableFuture.runAsync(() -> {
+            while (running.get()) {
+                expectations.findMatch(request(GET));
+                expectations.getRequests().forEach(Object::toString);
+            }
+        });
+
+        for (int i = 0; i < 1_000; i++) {
+            expectations.GET(PATH, req -> req.header("alpha", "one").responds().code(200));
+            expectations.GET(OTHER_PATH).query("bravo", "two").responds().code(200);
+            if (i % 10 == 0) {
+                expectations.clear();
+            }
+        }
+
+        running.set(false);
+        matching.join();
+
+        assertTrue(expectations.findMatch(request(GET).header("alpha", "one")).isPresent());
+    }
+
+    @Test @DisplayName("match cache")
+    void matchCache() {
+        expectations.matchCache(10);
+
+        final var evaluations = new AtomicInteger();
+        final var request = expectations.GET(PATH).header("alpha", counting(hasItem("one"), evaluations));
+        expectations.GET(PATH).header("alpha", "two");
+
+        assertSame(request, expectations.findMatch(request(GET).header("Alpha", "one")).orElse(null));
+        assertSame(request, expectations.findMatch(request(GET).header("Alpha", "one").header("other", "ignored")).orElse(null));
+        assertEquals(1, evaluations.get());
+
+        assertTrue(expectations.findMatch(request(GET).header("alpha", "three")).isEmpty());
+        assertTrue(expectations.findMatch(request(GET).header("alpha", "three")).isEmpty());
+        assertEquals(2, evaluations.get());
+
+        // changing the matchers of a registered expectation discards the cache
+        request.query("bravo", "yes");
+        assertTrue(expectations.findMatch(request(GET).header("alpha", "one")).isEmpty());
+        assertSame(request, expectations.findMatch(request(GET).header("alpha", "one").query("bravo", "yes")).orElse(null));
+        assertEquals(3, evaluations.get());
+    }
+
+    @Test @DisplayName("match cache: evicts the least-recently-used result")
+    void matchCacheEviction() {
+        expectations.matchCache(2);
+
+        final var evaluations = new AtomicInteger();
+        expectations.GET(PATH).header("alpha", counting(hasItem("one"), evaluations));
+
+        expectations.findMatch(request(GET).header("alpha", "one"));
+        expectations.findMatch(request(GET).header("alpha", "two"));
+        expectations.findMatch(request(GET).header("alpha", "one"));
+        assertEquals(2, evaluations.get());
+
+        // the "two" result is evicted, the recently used "one" result is retained
+        expectations.findMatch(request(GET).header("alpha", "three"));
+        expectations.findMatch(request(GET).header("alpha", "one"));
+        assertEquals(3, evaluations.get());
+
+        expectations.findMatch(request(GET).header("alpha", "two"));
+        assertEquals(4, evaluations.get());
+    }
+
+    @Test @DisplayName("match cache: concurrent matching")
+    void matchCacheConcurrent() {
+        expectations.matchCache(8);
+
+        final var evaluations = new AtomicInteger();
+        final var alpha = expectations.GET(PATH).header("alpha", counting(hasItem("one"), evaluations));
+        final var bravo = expectations.GET(PATH).query("bravo", "two");
+
+        // more distinct fingerprints than the cache capacity, matched from several threads at once
+        final var mismatches = new AtomicInteger();
+        final var matching = IntStream.range(0, 8).mapToObj(t -> CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                final var value = String.valueOf(i % 16);
+                if (expectations.findMatch(request(GET).header("alpha", "one").query("charlie", value)).orElse(null) != alpha) {
+                    mismatches.incrementAndGet();
+                }
+                if (expectations.findMatch(request(GET).query("charlie", value).query("bravo", "two")).orElse(null) != bravo) {
+                    mismatches.incrementAndGet();
+                }
+                if (expectations.findMatch(request(GET).query("charlie", value)).isPresent()) {
+                    mismatches.incrementAndGet();
+                }
+            }
+        })).toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(matching).join();
+
+        assertEquals(0, mismatches.get());
+
+        // the query parameter order is not part of the fingerprint
+        evaluations.set(0);
+        expectations.findMatch(request(GET).header("alpha", "one").query("x", "1").query("y", "2"));
+        expectations.findMatch(request(GET).header("alpha", "one").query("y", "2").query("x", "1"));
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test @DisplayName("match cache: custom matchers bypass the cache")
+    void matchCacheBypassed() {
+        expectations.matchCache(10);
+
+        final var evaluations = new AtomicInteger();
+        expectations.GET(PATH).matcher(counting(equalTo(null), evaluations));
+        final var request = expectations.GET(PATH);
+
+        assertSame(request, expectations.findMatch(request(GET)).orElse(null));
+        assertSame(request, expectations.findMatch(request(GET)).orElse(null));
+        assertEquals(2, evaluations.get());
+    }
+
+    private static <T> Matcher<T> counting(final Matcher<?> delegate, final AtomicInteger counter) {
+        return new BaseMatcher<>() {
+            @Override public boolean matches(final Object actual) {
+                counter.incrementAndGet();
+                return delegate.matches(actual);
+            }
+
+            @Override public void describeTo(final Description description) {
+                delegate.describeTo(description);
+            }
+        };
+    }
+
     private static Stream<Arguments> methodPathProvider() {
         return Stream.of(
             arguments(GET, "/alpha"),
@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForwardCacheTest {
+
+    private static final Function<String, String> NO_HEADERS = name -> null;
+    private ForwardCache cache;
+
+    @BeforeEach void beforeEach() {
+        cache = new ForwardCache();
+        cache.configure(2, 60_000);
+    }
+
+    @Test @DisplayName("disabled by default")
+    void disabled() {
+        assertFalse(new ForwardCache().isEnabled());
+        assertTrue(cache.isEnabled());
+    }
+
+    @Test @DisplayName("evicts the least-recently-used response")
+    void evictsLeastRecentlyUsed() {
+        assertTrue(cache.store("/a", 200, Map.of(), bytes("a"), NO_HEADERS));
+        assertTrue(cache.store("/b", 200, Map.of(), bytes("b"), NO_HEADERS));
+
+        assertNotNull(cache.find("/a", NO_HEADERS));
+        cache.store("/c", 200, Map.of(), bytes("c"), NO_HEADERS);
+
+        assertArrayEquals(bytes("a"), cache.find("/a", NO_HEADERS).getBody());
+        assertNull(cache.find("/b", NO_HEADERS));
+        assertArrayEquals(bytes("c"), cache.find("/c", NO_HEADERS).getBody());
+    }
+
+    @Test @DisplayName("freshness from max-age or ttl")
+    void freshness() {
+        cache.configure(2, 0);
+
+        cache.store("/ttl", 200, Map.of(), bytes("ttl"), NO_HEADERS);
+        assertFalse(cache.find("/ttl", NO_HEADERS).isFresh());
+
+        cache.store("/max-age", 200, Map.of("Cache-Control", List.of("public, max-age=60")), bytes("max-age"), NO_HEADERS);
+        assertTrue(cache.find("/max-age", NO_HEADERS).isFresh());
+
+        cache.store("/no-cache", 200, Map.of("Cache-Control", List.of("no-cache, max-age=60")), bytes("no-cache"), NO_HEADERS);
+        assertFalse(cache.find("/no-cache", NO_HEADERS).isFresh());
+    }
+
+    @Test @DisplayName("uncacheable responses are not stored")
+    void uncacheable() {
+        cache.store("/a", 200, Map.of(), bytes("a"), NO_HEADERS);
+
+        assertFalse(cache.store("/a", 200, Map.of("Cache-Control", List.of("no-store")), bytes("a"), NO_HEADERS));
+        assertNull(cache.find("/a", NO_HEADERS));
+
+        assertFalse(cache.store("/b", 200, Map.of("cache-control", List.of("private")), bytes("b"), NO_HEADERS));
+        assertFalse(cache.store("/c", 404, Map.of(), bytes("c"), NO_HEADERS));
+        assertFalse(cache.store("/d", 200, Map.of("Vary", List.of("*")), bytes("d"), NO_HEADERS));
+    }
+
+    @Test @DisplayName("storable responses")
+    void storable() {
+        assertTrue(cache.isStorable(200, Map.of("Content-Length", List.of("100"))));
+        assertFalse(cache.isStorable(200, Map.of("Content-Length", List.of(String.valueOf(ForwardCache.DEFAULT_MAX_CONTENT_SIZE + 1)))));
+        assertFalse(cache.isStorable(200, Map.of("Cache-Control", List.of("no-store"))));
+        assertFalse(cache.isStorable(500, Map.of()));
+
+        cache.store("/a", 200, Map.of(), bytes("a"), NO_HEADERS);
+        assertFalse(cache.store("/a", 200, Map.of(), new byte[ForwardCache.DEFAULT_MAX_CONTENT_SIZE + 1], NO_HEADERS));
+        assertNull(cache.find("/a", NO_HEADERS));
+    }
+
+    @Test @DisplayName("configured maximum content size")
+    void maxContentSize() {
+        cache.configure(2, 60_000, 4);
+        assertEquals(4, cache.getMaxContentSize());
+
+        assertTrue(cache.store("/a", 200, Map.of(), bytes("four"), NO_HEADERS));
+        assertFalse(cache.store("/b", 200, Map.of(), bytes("five!"), NO_HEADERS));
+        assertFalse(cache.isStorable(200, Map.of("Content-Length", List.of("5"))));
+
+        assertThrows(IllegalArgumentException.class, () -> cache.configure(2, 60_000, -1));
+    }
+
+    @Test @DisplayName("cache-control directives")
+    void directives() {
+        assertEquals(Map.of(), ForwardCache.directives(null));
+        assertEquals(
+            Map.of("no-transform", "", "max-age", "60", "private", "x-header"),
+            ForwardCache.directives("No-Transform, max-age = 60,private=\"x-header\"")
+        );
+
+        // only the complete directive names are matched
+        assertTrue(cache.isStorable(200, Map.of("Cache-Control", List.of("no-transform, x-no-store"))));
+    }
+
+    @Test @DisplayName("varies by request headers")
+    void varies() {
+        cache.store("/a", 200, Map.of("Vary", List.of("Accept")), bytes("json"), name -> "Accept".equals(name) ? "application/json" : null);
+
+        assertNotNull(cache.find("/a", name -> "Accept".equals(name) ? "application/json" : null));
+        assertNull(cache.find("/a", name -> "Accept".equals(name) ? "text/plain" : null));
+        assertNull(cache.find("/a", NO_HEADERS));
+    }
+
+    @Test @DisplayName("revalidation renews a stale response")
+    void revalidation() {
+        cache.store("/a", 200, Map.of("ETag", List.of("\"v1\""), "Cache-Control", List.of("no-cache")), bytes("a"), NO_HEADERS);
+
+        val entry = cache.find("/a", NO_HEADERS);
+        assertFalse(entry.isFresh());
+        assertTrue(entry.isRevalidatable());
+
+        val renewed = cache.revalidated("/a", entry, Map.of("Cache-Control", List.of("max-age=60"), "ETag", List.of("\"v2\"")));
+        assertTrue(renewed.isFresh());
+        assertEquals("\"v2\"", renewed.getEtag());
+        assertEquals(List.of("max-age=60"), renewed.getHeaders().get("Cache-Control"));
+        assertArrayEquals(bytes("a"), renewed.getBody());
+        assertSame(renewed, cache.find("/a", NO_HEADERS));
+
+        cache.store("/b", 200, Map.of(), bytes("b"), NO_HEADERS);
+        assertFalse(cache.find("/b", NO_HEADERS).isRevalidatable());
+    }
+
+    @Test @DisplayName("responses to requests with credentials")
+    void credentials() {
+        final Function<String, String> alpha = name -> "Authorization".equals(name) ? "Bearer alpha" : null;
+        final Function<String, String> bravo = name -> "Authorization".equals(name) ? "Bearer bravo" : null;
+
+        assertFalse(cache.store("/private", 200, Map.of("Cache-Control", List.of("max-age=60")), bytes("alpha"), alpha));
+        assertNull(cache.find("/private", alpha));
+
+        assertTrue(cache.store("/public", 200, Map.of("Cache-Control", List.of("public, max-age=60")), bytes("public"), alpha));
+        assertNotNull(cache.find("/public", bravo));
+
+        // an anonymous response is not served to a request with credentials
+        assertTrue(cache.store("/anonymous", 200, Map.of(), bytes("anonymous"), NO_HEADERS));
+        assertNull(cache.find("/anonymous", name -> "Cookie".equals(name) ? "session=bravo" : null));
+        assertNotNull(cache.find("/anonymous", NO_HEADERS));
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import lombok.val;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
+import static io.github.cjstehno.ersatz.cfg.HttpMethod.POST;
+import static io.github.cjstehno.ersatz.match.HttpMethodMatcher.methodMatching;
+import static io.github.cjstehno.ersatz.match.PathMatcher.pathMatching;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestRegistryTest {
+
+    @Test @DisplayName("snapshots only see their own items")
+    void snapshots() {
+        val first = RequestRegistry.<String>empty().with("a", methodMatching(GET), pathMatching("/alpha"));
+        val second = first.with("b", methodMatching(GET), pathMatching("/alpha"));
+
+        assertEquals(List.of("a"), first.getItems());
+        assertEquals(List.of("a", "b"), second.getItems());
+        assertThrows(IndexOutOfBoundsException.class, () -> first.getItems().get(1));
+
+        assertEquals("b", second.find(GET, "/alpha", "b"::equals).orElse(null));
+        assertTrue(first.find(GET, "/alpha", "b"::equals).isEmpty());
+    }
+
+    @Test @DisplayName("adding to a previous snapshot does not affect the later ones")
+    void staleSnapshot() {
+        val first = RequestRegistry.<String>empty().with("a", methodMatching(GET), pathMatching("/alpha"));
+        val second = first.with("b", methodMatching(GET), pathMatching("/alpha"));
+        val branched = first.with("c", methodMatching(POST), pathMatching("/alpha"));
+
+        assertEquals(List.of("a", "b"), second.getItems());
+        assertEquals(List.of("a", "c"), branched.getItems());
+
+        assertEquals("b", second.find(GET, "/alpha", s -> !s.equals("a")).orElse(null));
+        assertTrue(second.find(POST, "/alpha", s -> true).isEmpty());
+        assertEquals("c", branched.find(POST, "/alpha", s -> true).orElse(null));
+        assertEquals("a", branched.find(GET, "/alpha", s -> true).orElse(null));
+    }
+}
@@ -19,8 +19,10 @@ import io.github.cjstehno.ersatz.server.MockClientRequest;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.POST;
 import static io.github.cjstehno.ersatz.match.PathMatcher.pathMatching;
+import static io.github.cjstehno.ersatz.match.PathMatcher.pathTemplate;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -43,4 +45,24 @@ class RequirementsImplTest {
         // this one does not match -> true
         assertTrue(requirements.check(new MockClientRequest(POST, "/bar").header("foo", "bar")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void requireThatIndexed() {
+        val requirements = new RequirementsImpl();
+        requirements.that(GET, pathMatching("/alpha"), req -> req.header("alpha", "one"));
+        requirements.that(POST, pathTemplate("/alpha/{id}"), req -> req.header("bravo", "two"));
+        requirements.that(POST, pathMatching(startsWith("/alpha")), req -> req.query("charlie", "three"));
+
+        assertTrue(requirements.check(new MockClientRequest(GET, "/alpha").header("alpha", "one")));
+        assertFalse(requirements.check(new MockClientRequest(GET, "/alpha")));
+        assertTrue(requirements.check(new MockClientRequest(GET, "/alpha/42")));
+
+        assertTrue(requirements.check(new MockClientRequest(POST, "/alpha/42").header("bravo", "two").query("charlie", "three")));
+        assertFalse(requirements.check(new MockClientRequest(POST, "/alpha/42").header("bravo", "two")));
+        assertFalse(requirements.check(new MockClientRequest(POST, "/alpha/42").query("charlie", "three")));
+        assertTrue(requirements.check(new MockClientRequest(POST, "/alpha").query("charlie", "three")));
+
+        requirements.clear();
+        assertTrue(requirements.check(new MockClientRequest(POST, "/alpha")));
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl;
+
+import io.github.cjstehno.ersatz.server.MockClientRequest;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnmatchedRequestsTest {
+
+    private UnmatchedRequests unmatched;
+
+    @BeforeEach void beforeEach() {
+        unmatched = new UnmatchedRequests();
+    }
+
+    @AfterEach void afterEach() {
+        unmatched.shutdown();
+    }
+
+    @Test @DisplayName("retains the most recent unmatched requests")
+    void mostRecent() {
+        unmatched.capacity(3);
+
+        for (int i = 0; i < 5; i++) {
+            unmatched.record(new MockClientRequest(GET, "/path-" + i), emptyList(), emptyList(), false);
+        }
+
+        val reports = unmatched.getReports();
+        assertEquals(3, reports.size());
+        assertEquals("/path-2", reports.get(0).getRequest().getPath());
+        assertEquals("/path-3", reports.get(1).getRequest().getPath());
+        assertEquals("/path-4", reports.get(2).getRequest().getPath());
+
+        unmatched.clear();
+        assertTrue(unmatched.getReports().isEmpty());
+    }
+
+    @Test @DisplayName("captures a copy of the request")
+    void captured() {
+        val request = new MockClientRequest(GET, "/captured").header("alpha", "one");
+        unmatched.record(request, emptyList(), emptyList(), false);
+
+        val captured = unmatched.getReports().get(0).getRequest();
+        assertNotSame(request, captured);
+        assertEquals("/captured", captured.getPath());
+        assertEquals("one", captured.getHeaderValues("Alpha").getFirst());
+    }
+
+    @Test @DisplayName("rate-limits the rendered reports")
+    void rateLimited() {
+        for (int i = 0; i < 25; i++) {
+            unmatched.record(new MockClientRequest(GET, "/flood-" + i), emptyList(), emptyList(), true);
+        }
+
+        // the shutdown waits for the scheduled reports to be rendered
+        unmatched.shutdown();
+
+        assertEquals(10, unmatched.getRenderedCount());
+        assertEquals(15, unmatched.getSuppressedCount());
+        assertEquals(10, unmatched.getReports().size());
+    }
+
+    @Test @DisplayName("invalid capacity")
+    void invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> unmatched.capacity(0));
+    }
+}
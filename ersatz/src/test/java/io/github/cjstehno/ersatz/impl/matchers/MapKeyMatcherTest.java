@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
 import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.Matchers.equalToIgnoringCase;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -64,4 +65,29 @@ class MapKeyMatcherTest {
         barMatcher.describeTo(desc);
         assertEquals("Bar name is not map containing [a string starting with \"bar\"->ANYTHING]", desc.toString());
     }
-}
\ No newline at end of file
+
+    @Test void namedKeyMatchers() {
+        val request = new MockClientRequest(GET, "/testing")
+            .header("Food", "beef")
+            .header("drink", "water");
+
+        val foodMatcher = new MapKeyMatcher(
+            "Food", "food", equalToIgnoringCase("food"), false, ClientRequest::getHeaders, ClientRequest::getHeaderValues
+        );
+        assertTrue(foodMatcher.matches(request));
+
+        val notFoodMatcher = new MapKeyMatcher(
+            "Food", "food", equalToIgnoringCase("food"), true, ClientRequest::getHeaders, ClientRequest::getHeaderValues
+        );
+        assertFalse(notFoodMatcher.matches(request));
+
+        val barMatcher = new MapKeyMatcher(
+            "Bar", "bar", equalToIgnoringCase("bar"), true, ClientRequest::getHeaders, ClientRequest::getHeaderValues
+        );
+        assertTrue(barMatcher.matches(request));
+
+        val desc = new StringDescription();
+        barMatcher.describeTo(desc);
+        assertEquals("Bar name is not map containing [a string equal to \"bar\" ignoring case->ANYTHING]", desc.toString());
+    }
+}
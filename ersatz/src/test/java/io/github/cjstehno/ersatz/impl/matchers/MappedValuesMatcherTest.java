@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.PUT;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.equalToIgnoringCase;
 import static org.hamcrest.core.IsIterableContaining.hasItem;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -48,4 +49,32 @@ class MappedValuesMatcherTest {
         matcher.describeTo(desc);
         assertEquals("Query param name is \"bravo\" and values are a collection containing \"four\"", desc.toString());
     }
-}
\ No newline at end of file
+
+    @Test void namedValues() {
+        val request = new MockClientRequest(PUT, "/testing")
+            .header("Alpha", "one")
+            .header("bravo", "two");
+
+        var matcher = new MappedValuesMatcher(
+            "Request header", "alpha", equalToIgnoringCase("alpha"), hasItem("one"), ClientRequest::getHeaders, ClientRequest::getHeaderValues
+        );
+        assertTrue(matcher.matches(request));
+
+        matcher = new MappedValuesMatcher(
+            "Request header", "charlie", equalToIgnoringCase("charlie"), hasItem("one"), ClientRequest::getHeaders, ClientRequest::getHeaderValues
+        );
+        assertFalse(matcher.matches(request));
+
+        matcher = new MappedValuesMatcher(
+            "Request header", "bravo", equalToIgnoringCase("bravo"), hasItem("one"), ClientRequest::getHeaders, ClientRequest::getHeaderValues
+        );
+        assertFalse(matcher.matches(request));
+
+        val desc = new StringDescription();
+        matcher.describeTo(desc);
+        assertEquals(
+            "Request header name is a string equal to \"bravo\" ignoring case and values are a collection containing \"one\"",
+            desc.toString()
+        );
+    }
+}
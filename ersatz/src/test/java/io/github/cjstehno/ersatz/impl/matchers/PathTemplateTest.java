@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.impl.matchers;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathTemplateTest {
+
+    @Test void compiling() {
+        val template = PathTemplate.compile("/users/{id}/orders");
+
+        assertEquals(4, template.getSegmentCount());
+        assertEquals("", template.getSegment(0));
+        assertEquals("users", template.getSegment(1));
+        assertEquals("id", template.getSegment(2));
+        assertTrue(template.isVariable(2));
+        assertFalse(template.isVariable(3));
+    }
+
+    @Test void literal() {
+        val template = PathTemplate.literal("/users/{id}");
+
+        assertFalse(template.isVariable(2));
+        assertEquals(Map.of(), template.match("/users/{id}"));
+        assertNull(template.match("/users/42"));
+    }
+
+    @ParameterizedTest(name = "[{index}] {0} matches {1} -> {2}")
+    @CsvSource({
+        "/users/{id},/users/42,true",
+        "/users/{id},/users/,false",
+        "/users/{id},/users,false",
+        "/users/{id}/,/users/42/,true",
+        "/users/{id}/,/users/42,false",
+        "/{a}/{b},/alpha/bravo,true"
+    })
+    void matching(final String template, final String path, final boolean matches) {
+        assertEquals(matches, PathTemplate.compile(template).matches(path));
+    }
+
+    @Test void capturing() {
+        assertEquals(Map.of("a", "alpha", "b", "bravo"), PathTemplate.compile("/{a}/x/{b}").match("/alpha/x/bravo"));
+        assertNull(PathTemplate.compile("/{a}/x/{b}").match("/alpha/y/bravo"));
+        assertNull(PathTemplate.compile("/{a}").match(null));
+    }
+
+    @ParameterizedTest @ValueSource(strings = {"/users/{}", "/users/{id}/{id}", "/users/id{x}", "/users/{id"})
+    void invalid(final String template) {
+        assertThrows(IllegalArgumentException.class, () -> PathTemplate.compile(template));
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -107,4 +108,14 @@ class HeaderMatcherTest {
         assertFalse(headerDoesNotExist(startsWith("Header-")).matches(request));
         assertTrue(headerDoesNotExist(startsWith("Foo")).matches(request));
     }
-}
\ No newline at end of file
+
+    @Test void headerName() {
+        assertEquals(Optional.of("Header-A"), headerMatching("Header-A", "one").getHeaderName());
+        assertEquals(Optional.of("Header-A"), headerExists("Header-A").getHeaderName());
+        assertEquals(Optional.of("Header-A"), headerDoesNotExist("Header-A").getHeaderName());
+        assertEquals(Optional.of("Content-Type"), contentTypeHeader("text/plain").getHeaderName());
+
+        assertTrue(headerMatching(startsWith("Header-"), hasItem("one")).getHeaderName().isEmpty());
+        assertTrue(headerExists(startsWith("Header-")).getHeaderName().isEmpty());
+    }
+}
@@ -23,6 +23,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.ANY;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.DELETE;
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
@@ -68,4 +72,11 @@ class HttpMethodMatcherTest {
         assertTrue(methodMatching(GET, POST).matches(request));
         assertFalse(methodMatching(PUT, DELETE).matches(request));
     }
-}
\ No newline at end of file
+
+    @Test @DisplayName("literal methods")
+    void literalMethods() {
+        assertEquals(Optional.of(Set.of(GET, POST)), methodMatching(GET, POST).getLiteralMethods());
+        assertEquals(Optional.of(EnumSet.allOf(HttpMethod.class)), methodMatching(ANY).getLiteralMethods());
+        assertTrue(methodMatching(equalTo(GET)).getLiteralMethods().isEmpty());
+    }
+}
@@ -17,12 +17,19 @@ package io.github.cjstehno.ersatz.match;
 
 import io.github.cjstehno.ersatz.server.ClientRequest;
 import io.github.cjstehno.ersatz.server.MockClientRequest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
 import static io.github.cjstehno.ersatz.match.PathMatcher.anyPath;
 import static io.github.cjstehno.ersatz.match.PathMatcher.pathMatching;
+import static io.github.cjstehno.ersatz.match.PathMatcher.pathTemplate;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -57,6 +64,35 @@ class PathMatcherTest {
         assertTrue(anyPath().matches(mockRequest(path)));
     }
 
+    @ParameterizedTest(name = "[{index}] {0} matches {1} -> {2}")
+    @CsvSource({
+            "/users/{id},/users/42,true",
+            "/users/{id},/users/,false",
+            "/users/{id},/users/42/orders,false",
+            "/users/{id}/orders,/users/42/orders,true",
+            "/users/{id}/orders,/people/42/orders,false"
+    })
+    void matchingTemplates(final String template, final String path, final boolean matches) {
+        assertEquals(matches, pathTemplate(template).matches(mockRequest(path)));
+    }
+
+    @Test void pathVariables() {
+        assertEquals(
+            Map.of("id", "42", "order", "abc"),
+            pathTemplate("/users/{id}/orders/{order}").pathVariables(mockRequest("/users/42/orders/abc"))
+        );
+        assertEquals(Map.of(), pathTemplate("/users/{id}").pathVariables(mockRequest("/other/42")));
+        assertEquals(Map.of(), pathMatching("/users/42").pathVariables(mockRequest("/users/42")));
+    }
+
+    @Test void template() {
+        assertEquals(Optional.of(List.of("", "foo")), pathMatching("/foo").getTemplateSegments());
+        assertEquals(Optional.of(Arrays.asList("", "foo", null)), pathTemplate("/foo/{bar}").getTemplateSegments());
+        assertTrue(pathMatching("*").getTemplateSegments().isEmpty());
+        assertTrue(pathMatching(startsWith("/foo")).getTemplateSegments().isEmpty());
+        assertTrue(anyPath().getTemplateSegments().isEmpty());
+    }
+
     private static ClientRequest mockRequest(final String path){
         return new MockClientRequest(GET, path);
     }
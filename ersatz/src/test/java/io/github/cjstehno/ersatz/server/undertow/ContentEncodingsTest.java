@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import lombok.val;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+
+import static io.github.cjstehno.ersatz.server.undertow.ContentEncodings.GZIP;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentEncodingsTest {
+
+    @ParameterizedTest(name = "[{index}] {0} -> {1}")
+    @CsvSource(delimiter = '|', value = {
+        "gzip|gzip",
+        "deflate|deflate",
+        "gzip, deflate, br|gzip",
+        "deflate, gzip;q=0.5|deflate",
+        "gzip;q=0, deflate|deflate",
+        "*|gzip",
+        "br, *;q=0.1|gzip",
+        "GZIP|gzip"
+    })
+    void negotiated(final String acceptEncoding, final String expected) {
+        assertEquals(expected, ContentEncodings.negotiate(acceptEncoding));
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @NullAndEmptySource
+    @ValueSource(strings = {"identity", "br", "gzip;q=0", "*;q=0"})
+    void notNegotiated(final String acceptEncoding) {
+        assertNull(ContentEncodings.negotiate(acceptEncoding));
+    }
+
+    @Test @DisplayName("compressed with gzip")
+    void compressed() throws IOException {
+        val content = ByteBuffer.wrap("some content to be compressed".getBytes(UTF_8));
+
+        val compressed = ContentEncodings.compress(content, GZIP);
+        assertTrue(compressed.isReadOnly());
+        assertEquals(0, content.position());
+
+        val bytes = new byte[compressed.remaining()];
+        compressed.get(bytes);
+
+        try (val in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            assertEquals("some content to be compressed", new String(in.readAllBytes(), UTF_8));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import lombok.val;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForwardClientsTest {
+
+    private static final URI TARGET_A = URI.create("http://localhost:8080");
+    private static final URI TARGET_B = URI.create("http://localhost:9090");
+
+    @Test @DisplayName("clients are shared per target and scheme")
+    void sharedClients() {
+        val clients = new ForwardClients(3, 64, 1_000);
+        try {
+            val client = clients.client(TARGET_A, false);
+            assertSame(client, clients.client(TARGET_A, false));
+            assertNotSame(client, clients.client(TARGET_A, true));
+            assertNotSame(client, clients.client(TARGET_B, false));
+
+            // all of the clients share the connection pool
+            assertSame(client.connectionPool(), clients.client(TARGET_B, true).connectionPool());
+            assertSame(client.dispatcher(), clients.client(TARGET_B, true).dispatcher());
+
+            // the configured concurrency applies in total, and for each target
+            assertEquals(64, client.dispatcher().getMaxRequests());
+            assertEquals(64, client.dispatcher().getMaxRequestsPerHost());
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    @Test @DisplayName("secure clients trust all")
+    void secureClients() {
+        val clients = new ForwardClients(3, 64, 1_000);
+        try {
+            val secure = clients.client(TARGET_A, true);
+            assertNotNull(secure.sslSocketFactory());
+            assertTrue(secure.hostnameVerifier().verify("anything", null));
+            assertSame(secure.sslSocketFactory(), clients.client(TARGET_B, true).sslSocketFactory());
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    @Test @DisplayName("shutdown")
+    void shutdown() {
+        val clients = new ForwardClients(3, 64, 1_000);
+        val client = clients.client(TARGET_A, false);
+
+        clients.shutdown();
+
+        assertTrue(client.dispatcher().executorService().isShutdown());
+    }
+}
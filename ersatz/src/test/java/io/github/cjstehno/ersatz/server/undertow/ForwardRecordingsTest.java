@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2024 Christopher J. Stehno
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.cjstehno.ersatz.server.undertow;
+
+import io.github.cjstehno.ersatz.cfg.RecordingConfig;
+import io.github.cjstehno.ersatz.impl.RecordingConfigImpl;
+import io.github.cjstehno.ersatz.server.ClientRequest;
+import io.github.cjstehno.ersatz.server.MockClientRequest;
+import lombok.val;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.cjstehno.ersatz.cfg.HttpMethod.GET;
+import static io.github.cjstehno.ersatz.cfg.HttpMethod.POST;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForwardRecordingsTest {
+
+    @TempDir private Path dir;
+
+    @Test @DisplayName("record and replay")
+    void recordAndReplay() throws IOException {
+        val config = config(RecordingConfig.Mode.RECORD);
+
+        try (val recordings = ForwardRecordings.open(config)) {
+            assertFalse(recordings.isReplaying());
+            recordings.record("alpha", 200, headers(), "alpha-content".getBytes());
+            recordings.record("bravo", 201, headers(), new byte[0]);
+            recordings.record("alpha", 202, headers(), "alpha-updated".getBytes());
+
+            assertEquals(202, recordings.replay("alpha").getCode());
+        }
+
+        config.mode(RecordingConfig.Mode.REPLAY);
+        try (val recordings = ForwardRecordings.open(config)) {
+            assertTrue(recordings.isReplaying());
+
+            val alpha = recordings.replay("alpha");
+            assertEquals(202, alpha.getCode());
+            assertArrayEquals("alpha-updated".getBytes(), alpha.getContent());
+            assertEquals(List.of("two", "three"), alpha.getHeaders().get("X-Multi"));
+            assertNull(alpha.getHeaders().get("Content-Length"));
+            assertSame(alpha, recordings.replay("alpha"));
+
+            val bravo = recordings.replay("bravo");
+            assertEquals(201, bravo.getCode());
+            assertEquals(0, bravo.getContent().length);
+
+            assertNull(recordings.replay("charlie"));
+        }
+    }
+
+    @Test @DisplayName("partial record discarded")
+    void partialRecord() throws IOException {
+        val config = config(RecordingConfig.Mode.RECORD);
+
+        try (val recordings = ForwardRecordings.open(config)) {
+            recordings.record("alpha", 200, headers(), "alpha-content".getBytes());
+        }
+
+        val size = Files.size(config.getFile());
+        Files.write(config.getFile(), new byte[]{0, 0, 0, 100, 1, 2}, APPEND);
+
+        try (val recordings = ForwardRecordings.open(config)) {
+            assertEquals(size, Files.size(config.getFile()));
+            assertEquals(200, recordings.replay("alpha").getCode());
+
+            recordings.record("bravo", 201, headers(), "bravo-content".getBytes());
+            assertArrayEquals("bravo-content".getBytes(), recordings.replay("bravo").getContent());
+        }
+    }
+
+    @Test @DisplayName("invalid file")
+    void invalidFile() throws IOException {
+        val config = config(RecordingConfig.Mode.REPLAY);
+        Files.writeString(config.getFile(), "not a recording");
+
+        assertThrows(IOException.class, () -> ForwardRecordings.open(config));
+    }
+
+    @Test @DisplayName("default fingerprint")
+    void defaultFingerprint() {
+        val request = new MockClientRequest(GET, "/alpha");
+        request.query("b", "2").query("a", "1");
+        assertEquals("GET /alpha {a=[1], b=[2]}", RecordingConfigImpl.defaultFingerprint(request));
+
+        val first = new MockClientRequest(POST, "/alpha");
+        first.setBody("one".getBytes());
+        val second = new MockClientRequest(POST, "/alpha");
+        second.setBody("two".getBytes());
+        assertNotEquals(RecordingConfigImpl.defaultFingerprint(first), RecordingConfigImpl.defaultFingerprint(second));
+
+        // the fingerprint may be computed from its parts, as the content is streamed
+        val digest = RecordingConfigImpl.bodyDigest();
+        digest.update("on".getBytes());
+        digest.update("e".getBytes());
+        assertEquals(
+            RecordingConfigImpl.defaultFingerprint(first),
+            RecordingConfigImpl.defaultFingerprint(RecordingConfigImpl.requestKey(first), digest.digest())
+        );
+        assertEquals("GET /alpha {a=[1], b=[2]}", RecordingConfigImpl.defaultFingerprint(RecordingConfigImpl.requestKey(request), null));
+    }
+
+    @Test @DisplayName("default fingerprint is recognized")
+    void hasDefaultFingerprint() throws IOException {
+        try (val recordings = ForwardRecordings.open(config(RecordingConfig.Mode.RECORD))) {
+            assertTrue(recordings.hasDefaultFingerprint());
+            assertEquals(RecordingConfigImpl.DEFAULT_MAX_BODY_SIZE, recordings.getMaxBodySize());
+        }
+
+        val config = config(RecordingConfig.Mode.RECORD);
+        config.fingerprint(ClientRequest::getPath).maxBodySize(1024);
+        try (val recordings = ForwardRecordings.open(config)) {
+            assertFalse(recordings.hasDefaultFingerprint());
+            assertEquals(1024, recordings.getMaxBodySize());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> config.maxBodySize(-1));
+    }
+
+    private RecordingConfigImpl config(final RecordingConfig.Mode mode) {
+        val config = new RecordingConfigImpl();
+        config.file(dir.resolve("recordings.rec")).mode(mode);
+        return config;
+    }
+
+    private static Map<String, List<String>> headers() {
+        val headers = new LinkedHashMap<String, List<String>>();
+        headers.put("Content-Type", List.of("text/plain"));
+        headers.put("Content-Length", List.of("13"));
+        headers.put("X-Multi", List.of("two", "three"));
+        return headers;
+    }
+}
@@ -15,10 +15,18 @@
  */
 package io.github.cjstehno.ersatz.server.undertow;
 
+import io.github.cjstehno.ersatz.impl.ChunkingConfigImpl;
+import lombok.val;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ResponseChunkerTest {
 
@@ -26,20 +34,47 @@ class ResponseChunkerTest {
 
     @Test @DisplayName("parsing 3 chunks")
     void parsing3Chunks(){
-        final var chunks = ResponseChunker.prepareChunks(BYTES, 3);
+        final var boundaries = boundaries(3);
 
-        assertEquals(3, chunks.size());
-        assertEquals("abcdef", new String(chunks.get(0)));
-        assertEquals("ghijk", new String(chunks.get(1)));
-        assertEquals("lmnop", new String(chunks.get(2)));
+        assertArrayEquals(new int[]{0, 6, 11, 16}, boundaries);
+        assertEquals("abcdef", chunk(boundaries, 0));
+        assertEquals("ghijk", chunk(boundaries, 1));
+        assertEquals("lmnop", chunk(boundaries, 2));
     }
 
     @Test @DisplayName("parsing 2 chunks")
     void parsing2Chunks(){
-        final var chunks = ResponseChunker.prepareChunks(BYTES, 2);
+        final var boundaries = boundaries(2);
+
+        assertArrayEquals(new int[]{0, 8, 16}, boundaries);
+        assertEquals("abcdefgh", chunk(boundaries, 0));
+        assertEquals("ijklmnop", chunk(boundaries, 1));
+    }
+
+    @Test @DisplayName("chunks are read-only views of the shared content")
+    void sharedContent() {
+        val config = new ChunkingConfigImpl();
+        config.chunks(4);
+
+        val boundaries = config.getBoundaries(BYTES.length);
+        assertSame(boundaries, config.getBoundaries(BYTES.length));
+
+        val content = ByteBuffer.wrap(BYTES).asReadOnlyBuffer();
+        val slice = ResponseChunker.slice(content, boundaries, 1);
+
+        assertTrue(slice.isReadOnly());
+        assertEquals(4, slice.remaining());
+        assertEquals(0, content.position());
+        assertEquals(BYTES.length, content.limit());
+    }
+
+    private static int[] boundaries(final int chunks) {
+        val config = new ChunkingConfigImpl();
+        config.chunks(chunks);
+        return config.getBoundaries(BYTES.length);
+    }
 
-        assertEquals(2, chunks.size());
-        assertEquals("abcdefgh", new String(chunks.get(0)));
-        assertEquals("ijklmnop", new String(chunks.get(1)));
+    private static String chunk(final int[] boundaries, final int index) {
+        return UTF_8.decode(ResponseChunker.slice(ByteBuffer.wrap(BYTES), boundaries, index)).toString();
     }
-}
\ No newline at end of file
+}